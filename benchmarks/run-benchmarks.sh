@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# V2X Example Benchmark Runner
+# Runs the JMH benchmarks with the GC profiler (allocation per operation) and keeps a JSON result
+# so a later run can be compared against it. Extra arguments are passed to JMH, e.g.:
+#   ./run-benchmarks.sh HandlerBenchmark -p listSize=1000
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+cd "$(dirname "$0")" || exit 1
+
+if [ ! -f "target/benchmarks.jar" ]; then
+    echo -e "${YELLOW}benchmarks.jar not found, building...${NC}"
+    (cd .. && mvn -q clean install -DskipTests) || { echo -e "${RED}Application build failed${NC}"; exit 1; }
+    mvn -q clean package || { echo -e "${RED}Benchmark build failed${NC}"; exit 1; }
+fi
+
+RESULT="target/jmh-result-$(date +%Y%m%d-%H%M%S).json"
+echo -e "${GREEN}Running benchmarks, results in ${RESULT}${NC}"
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$RESULT" "$@"
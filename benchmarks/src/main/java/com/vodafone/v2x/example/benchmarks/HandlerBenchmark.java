@@ -0,0 +1,96 @@
+package com.vodafone.v2x.example.benchmarks;
+
+import com.vodafone.v2x.example.denm.DenmLifecycleCache;
+import com.vodafone.v2x.example.handlers.CAMHandler;
+import com.vodafone.v2x.example.handlers.DENMHandler;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.model.DenmSample;
+import com.vodafone.v2x.example.station.StationTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code *_LIST_CHANGED} event per operation through {@link CAMHandler} / {@link DENMHandler}, entering right
+ * after the SDK records have been decoded ({@code onCamList}/{@code onDenmList}).
+ *
+ * <p>{@code changedPercent} of the list differs from the previous event, so the delta stage, the station table
+ * and the logging calls all see realistic work. Logging is configured at WARN (see {@code logback-bench.xml}),
+ * so the per-record logging cost measured is the call and argument boxing, not console I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Benchmark)
+public class HandlerBenchmark {
+    private static final int VARIANTS = 16;
+
+    @Param({"10", "100", "1000"})
+    public int listSize;
+
+    @Param({"10", "100"})
+    public int changedPercent;
+
+    private CAMHandler camHandler;
+    private DENMHandler denmHandler;
+    private CamSample[][] camLists;
+    private DenmSample[][] denmLists;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        camHandler = new CAMHandler(new StationTable(Math.max(1024, listSize * 2), 60_000));
+        denmHandler = new DENMHandler(new DenmLifecycleCache(Math.max(1024, listSize * 2), 600_000, 60_000));
+
+        // Pre-build a cycle of lists; the same changedPercent of stations differ between consecutive events
+        camLists = new CamSample[VARIANTS][listSize];
+        denmLists = new DenmSample[VARIANTS][listSize];
+        for (int v = 0; v < VARIANTS; v++) {
+            for (int i = 0; i < listSize; i++) {
+                boolean changed = i % 100 < changedPercent;
+                double jitter = changed ? v * 0.00001 : 0;
+                camLists[v][i] = new CamSample().set(
+                    1000 + i,
+                    48.866667 + i * 0.0001 + jitter,
+                    2.333333 + jitter,
+                    changed ? 30 + v : 30,
+                    90);
+                denmLists[v][i] = new DenmSample().set(
+                    2000 + i,
+                    i,
+                    changed ? 1 + v % 2 : 1,
+                    0);
+            }
+        }
+    }
+
+    private int nextVariant() {
+        return cursor = (cursor + 1) % VARIANTS;
+    }
+
+    @Benchmark
+    public int camListChanged() {
+        int v = nextVariant();
+        camHandler.onCamList(camLists[v], listSize);
+        return v;
+    }
+
+    @Benchmark
+    public int denmListChanged() {
+        int v = nextVariant();
+        denmHandler.onDenmList(denmLists[v], listSize);
+        return v;
+    }
+}
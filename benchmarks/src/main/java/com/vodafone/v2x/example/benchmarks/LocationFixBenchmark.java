@@ -0,0 +1,61 @@
+package com.vodafone.v2x.example.benchmarks;
+
+import com.vodafone.v2x.example.location.FakeLocationProvider;
+import com.vodafone.v2x.example.spatial.ProximityMonitor;
+import com.vodafone.v2x.example.spatial.SpatialGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link FakeLocationProvider#publishFix}: {@code GnssLocation} creation,
+ * {@code notifyFreshLocation} (no SDK attached) and the fix listeners, with and without a
+ * {@link ProximityMonitor} over a populated grid.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+@State(Scope.Benchmark)
+public class LocationFixBenchmark {
+    private static final double LATITUDE = 48.866667;
+    private static final double LONGITUDE = 2.333333;
+
+    @Param({"0", "10000"})
+    public int neighbours;
+
+    private FakeLocationProvider provider;
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        provider = new FakeLocationProvider(LATITUDE, LONGITUDE);
+        if (neighbours > 0) {
+            Random random = new Random(42);
+            SpatialGrid grid = new SpatialGrid(neighbours, 250, LATITUDE);
+            for (int i = 0; i < neighbours; i++) {
+                grid.update(i, LATITUDE + (random.nextDouble() - 0.5) * 0.05,
+                    LONGITUDE + (random.nextDouble() - 0.5) * 0.1);
+            }
+            provider.addFixListener(new ProximityMonitor(grid, 300, 5, () -> -1L));
+        }
+    }
+
+    @Benchmark
+    public long publishFix() {
+        provider.publishFix(++timestamp);
+        return timestamp;
+    }
+}
@@ -0,0 +1,71 @@
+package com.vodafone.v2x.example.benchmarks;
+
+import com.vodafone.v2x.example.pipeline.OverflowPolicy;
+import com.vodafone.v2x.example.pipeline.RingBuffer;
+import com.vodafone.v2x.example.pipeline.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The SDK-thread side of the event path: one producer thread offering into the {@link RingBuffer} that sits
+ * behind {@code EventPipeline}, one consumer thread draining it in batches, run concurrently.
+ *
+ * <p>{@code offer} is what the SDK event-bus thread pays per event; {@code drain} is reported per batch.
+ * Needs at least two cores to be meaningful.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class RingBufferBenchmark {
+    private static final Object EVENT = new Object();
+
+    @Param({"DROP_OLDEST", "COALESCE"})
+    public OverflowPolicy overflowPolicy;
+
+    @Param({"1024"})
+    public int capacity;
+
+    @Param({"64"})
+    public int batchSize;
+
+    private RingBuffer<Object> ringBuffer;
+    private Consumer<Object> sink;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        ringBuffer = new RingBuffer<>(capacity, batchSize, overflowPolicy, WaitStrategy.BUSY_SPIN);
+        sink = blackhole::consume;
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(1)
+    public boolean offer() {
+        return ringBuffer.offer(EVENT);
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(1)
+    public int drain() {
+        return ringBuffer.drain(sink);
+    }
+}
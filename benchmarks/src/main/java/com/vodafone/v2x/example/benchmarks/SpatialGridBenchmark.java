@@ -0,0 +1,108 @@
+package com.vodafone.v2x.example.benchmarks;
+
+import com.vodafone.v2x.example.spatial.SpatialGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius / k-nearest queries and in-place updates on {@link SpatialGrid}, with stations spread uniformly over
+ * roughly 11 km x 7 km around the default test location.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpatialGridBenchmark {
+    private static final double CENTER_LAT = 48.866667;
+    private static final double CENTER_LON = 2.333333;
+    private static final double SPREAD_DEG = 0.05;
+    private static final int QUERY_POINTS = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int stations;
+
+    @Param({"250"})
+    public double cellSizeM;
+
+    private SpatialGrid grid;
+    private final double[] queryLat = new double[QUERY_POINTS];
+    private final double[] queryLon = new double[QUERY_POINTS];
+    private double[] stationLat;
+    private double[] stationLon;
+    private final long[] ids = new long[4096];
+    private final double[] distances = new double[4096];
+    private int cursor;
+    private long edgeStation;
+    private boolean edgeShifted;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        grid = new SpatialGrid(stations + 1, cellSizeM, CENTER_LAT);
+        stationLat = new double[stations];
+        stationLon = new double[stations];
+        for (int i = 0; i < stations; i++) {
+            stationLat[i] = CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG;
+            stationLon[i] = CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG * 2;
+            grid.update(i, stationLat[i], stationLon[i]);
+        }
+        // One extra station alone in the westernmost cell column, for updateEdgeMove
+        edgeStation = stations;
+        grid.update(edgeStation, CENTER_LAT, edgeLongitude(false));
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queryLat[i] = CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG;
+            queryLon[i] = CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG * 2;
+        }
+    }
+
+    private int nextQuery() {
+        return cursor = (cursor + 1) & (QUERY_POINTS - 1);
+    }
+
+    @Benchmark
+    public int nearest5() {
+        int q = nextQuery();
+        return grid.nearest(queryLat[q], queryLon[q], 5, SpatialGrid.NO_EXCLUSION, ids, distances);
+    }
+
+    @Benchmark
+    public int withinRadius300m() {
+        int q = nextQuery();
+        return grid.withinRadius(queryLat[q], queryLon[q], 300, SpatialGrid.NO_EXCLUSION, ids, distances);
+    }
+
+    @Benchmark
+    public boolean updateMove() {
+        // ~1 m step per update, crossing a cell boundary every few hundred updates
+        int station = nextQuery() % stations;
+        stationLat[station] += 0.00001;
+        return grid.update(station, stationLat[station], stationLon[station]);
+    }
+
+    @Benchmark
+    public boolean updateEdgeMove() {
+        // Alternately empties and re-occupies the column on the west edge of the grid's bounding box
+        edgeShifted = !edgeShifted;
+        return grid.update(edgeStation, CENTER_LAT, edgeLongitude(edgeShifted));
+    }
+
+    /** Two cell widths west of every other station, or one more cell further west when {@code shifted}. */
+    private double edgeLongitude(boolean shifted) {
+        double cellDeg = cellSizeM / (111_195.0 * Math.cos(Math.toRadians(CENTER_LAT)));
+        return CENTER_LON - SPREAD_DEG - (shifted ? 3 : 2) * cellDeg;
+    }
+}
@@ -0,0 +1,75 @@
+package com.vodafone.v2x.example.benchmarks;
+
+import com.vodafone.v2x.example.conflict.ScalarTtcKernel;
+import com.vodafone.v2x.example.conflict.TtcKernel;
+import com.vodafone.v2x.example.conflict.VectorTtcKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ego-relative time-to-collision pass over all neighbours, scalar against Vector API kernel. Neighbours are
+ * spread over 1 km x 1 km around the ego vehicle at up to 100 km/h in random directions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class TtcKernelBenchmark {
+    private static final double RADIUS_M = 5;
+    private static final double HORIZON_S = 6;
+
+    @Param({"100", "1000", "10000"})
+    public int neighbours;
+
+    private final TtcKernel scalar = new ScalarTtcKernel();
+    private final TtcKernel vector = new VectorTtcKernel();
+    private double[] x;
+    private double[] y;
+    private double[] vx;
+    private double[] vy;
+    private double[] ttc;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        x = new double[neighbours];
+        y = new double[neighbours];
+        vx = new double[neighbours];
+        vy = new double[neighbours];
+        ttc = new double[neighbours];
+        for (int i = 0; i < neighbours; i++) {
+            x[i] = (random.nextDouble() - 0.5) * 1000;
+            y[i] = (random.nextDouble() - 0.5) * 1000;
+            double speed = random.nextDouble() * 100 / 3.6;
+            double heading = random.nextDouble() * 2 * Math.PI;
+            vx[i] = speed * Math.sin(heading);
+            vy[i] = speed * Math.cos(heading);
+        }
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        scalar.timeToCollision(0, 0, 0, 13.9, x, y, vx, vy, neighbours, RADIUS_M, HORIZON_S, ttc);
+        return ttc;
+    }
+
+    @Benchmark
+    public double[] vector() {
+        vector.timeToCollision(0, 0, 0, 13.9, x, y, vx, vy, neighbours, RADIUS_M, HORIZON_S, ttc);
+        return ttc;
+    }
+}
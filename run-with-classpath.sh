@@ -14,4 +14,4 @@ fi
 mvn clean package -DskipTests
 
 # Run with both JARs in classpath
-java -cp "$APP_JAR:$SDK_JAR" com.vodafone.v2x.example.V2XApplication
+java --add-modules jdk.incubator.vector -cp "$APP_JAR:$SDK_JAR" com.vodafone.v2x.example.V2XApplication
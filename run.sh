@@ -24,10 +24,37 @@ if [ ! -f "src/main/resources/application.properties" ]; then
     exit 1
 fi
 
+APP_JAR="target/step-java-example.jar"
+# Written by mvn package -Pfast-start; ignored once the jar is rebuilt
+CDS_ARCHIVE="target/step-java-example.jsa"
+# Written by ./run.sh --checkpoint on a CRaC JDK
+CRAC_DIR="target/crac"
+JAVA_OPTS=(--add-modules jdk.incubator.vector)
+
+# Start the fat JAR the fastest way available: CRaC restore, AppCDS archive, or cold
+run_jar() {
+    if [ "$1" = "--checkpoint" ]; then
+        echo -e "${GREEN}Checkpointing after SDK configuration to $CRAC_DIR...${NC}"
+        rm -rf "$CRAC_DIR"
+        java -XX:CRaCCheckpointTo="$CRAC_DIR" -Dstartup.checkpoint=true "${JAVA_OPTS[@]}" -jar "$APP_JAR"
+        return $?
+    fi
+    if [ -d "$CRAC_DIR" ] && [ "$CRAC_DIR" -nt "$APP_JAR" ] && java -XX:CRaCCheckpointTo="$CRAC_DIR" -version >/dev/null 2>&1; then
+        echo -e "${GREEN}Restoring from checkpoint...${NC}"
+        java -XX:CRaCRestoreFrom="$CRAC_DIR"
+        return $?
+    fi
+    if [ -f "$CDS_ARCHIVE" ] && [ "$CDS_ARCHIVE" -nt "$APP_JAR" ]; then
+        echo -e "${GREEN}Using AppCDS archive $CDS_ARCHIVE${NC}"
+        JAVA_OPTS+=(-XX:SharedArchiveFile="$CDS_ARCHIVE")
+    fi
+    java "${JAVA_OPTS[@]}" -jar "$APP_JAR"
+}
+
 # Option 1: Run using the fat JAR (recommended after mvn package)
-if [ -f "target/step-java-example.jar" ]; then
+if [ -f "$APP_JAR" ]; then
     echo -e "${GREEN}Running from packaged JAR...${NC}"
-    java -jar target/step-java-example.jar
+    run_jar "$@"
     exit $?
 fi
 
@@ -39,9 +66,9 @@ echo "Building and running..."
 mvn clean package -DskipTests
 
 # Run the fat JAR
-if [ -f "target/step-java-example.jar" ]; then
+if [ -f "$APP_JAR" ]; then
     echo -e "${GREEN}Running application...${NC}"
-    java -jar target/step-java-example.jar
+    run_jar "$@"
 else
     echo -e "${RED}Build failed or JAR not created${NC}"
     exit 1
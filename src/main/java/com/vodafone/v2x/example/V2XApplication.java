@@ -1,21 +1,90 @@
 package com.vodafone.v2x.example;
 
 import com.vodafone.v2x.example.config.AppConfig;
+import com.vodafone.v2x.example.conflict.ConflictDetector;
+import com.vodafone.v2x.example.conflict.ConflictListener;
+import com.vodafone.v2x.example.conflict.KinematicsTable;
+import com.vodafone.v2x.example.conflict.TtcKernel;
+import com.vodafone.v2x.example.denm.ActiveDenmRegistry;
+import com.vodafone.v2x.example.denm.DenmLifecycleCache;
+import com.vodafone.v2x.example.denm.DenmScheduler;
+import com.vodafone.v2x.example.export.ExportSink;
+import com.vodafone.v2x.example.export.ExportStage;
+import com.vodafone.v2x.example.geo.TileSubscriptionManager;
 import com.vodafone.v2x.example.handlers.CAMHandler;
 import com.vodafone.v2x.example.handlers.DENMHandler;
+import com.vodafone.v2x.example.handlers.RecordLogSampler;
+import com.vodafone.v2x.example.jfr.ServiceStateEvent;
+import com.vodafone.v2x.example.lifecycle.ConnectivityWatchdog;
+import com.vodafone.v2x.example.lifecycle.ReadinessProbe;
 import com.vodafone.v2x.example.location.FakeLocationProvider;
+import com.vodafone.v2x.example.location.ListenableLocationProvider;
+import com.vodafone.v2x.example.location.replay.TraceFormat;
+import com.vodafone.v2x.example.location.replay.TraceReplayLocationProvider;
+import com.vodafone.v2x.example.location.route.Route;
+import com.vodafone.v2x.example.location.route.RouteSimulatorLocationProvider;
+import com.vodafone.v2x.example.loopback.HostRedirect;
+import com.vodafone.v2x.example.metrics.CamLatencyRecorder;
+import com.vodafone.v2x.example.metrics.DenmEchoTracker;
+import com.vodafone.v2x.example.metrics.MessageRateRecorder;
+import com.vodafone.v2x.example.metrics.MetricsHttpServer;
+import com.vodafone.v2x.example.metrics.MetricsRegistry;
+import com.vodafone.v2x.example.pipeline.EventPipeline;
+import com.vodafone.v2x.example.recording.TrafficRecorder;
+import com.vodafone.v2x.example.spatial.ProximityMonitor;
+import com.vodafone.v2x.example.spatial.SpatialGrid;
+import com.vodafone.v2x.example.startup.FastStart;
+import com.vodafone.v2x.example.station.StationTable;
+import com.vodafone.v2x.example.util.Logging;
 import com.vodafone.v2xsdk4javav2.facade.V2XSDK;
 import com.vodafone.v2xsdk4javav2.facade.SDKConfiguration;
 import com.vodafone.v2xsdk4javav2.facade.enums.*;
 import com.vodafone.v2xsdk4javav2.facade.events.EventType;
-import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class V2XApplication {
     private static final Logger logger = LoggerFactory.getLogger(V2XApplication.class);
+    private static final long DENM_ECHO_TIMEOUT_MS = 30_000L;
+    private static final long SHUTDOWN_HOOK_TIMEOUT_MS = 30_000L;
+    private AppConfig config;
     private V2XSDK sdk;
-    private FakeLocationProvider locationProvider;
+    private ListenableLocationProvider locationProvider;
+    private EventPipeline camPipeline;
+    private EventPipeline denmPipeline;
+    private StationTable stationTable;
+    private SpatialGrid spatialGrid;
+    private ConflictDetector conflictDetector;
+    private TileSubscriptionManager tiles;
+    private CAMHandler camHandler;
+    private DenmLifecycleCache denmCache;
+    private ScheduledExecutorService denmExpiryScheduler;
+    private ScheduledExecutorService fixScheduler;
+    private MetricsRegistry metrics;
+    private MetricsHttpServer metricsServer;
+    private DenmEchoTracker denmEchoTracker;
+    private ReadinessProbe readiness;
+    private TrafficRecorder recorder;
+    private ExportStage exportStage;
+    private ActiveDenmRegistry activeDenms;
+    private DenmScheduler denmScheduler;
+    private ConnectivityWatchdog watchdog;
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+    private final AtomicBoolean shutDown = new AtomicBoolean();
     
     public static void main(String[] args) {
         V2XApplication app = new V2XApplication();
@@ -30,13 +99,18 @@ public class V2XApplication {
 
             // 1. Load configuration (Section 8.3.1)
             logger.info("Step 1: Loading configuration...");
-            AppConfig config = new AppConfig();
+            config = new AppConfig();
             logger.info("  Application ID: {}", config.getApplicationId());
             logger.info("  Test Location: ({}, {})", config.getTestLatitude(), config.getTestLongitude());
-            logger.info("  STEP Instance: {}, {}, {}", StepInstance.DE_DEV_FRANKFURT,StepInstance.DE_DEV_FRANKFURT.getMqttHost(),StepInstance.DE_DEV_FRANKFURT.getMqttPort());
+            logger.info("  STEP Instance: {}, {}, {}", config.getStepInstance(), config.getStepInstance().getMqttHost(), config.getStepInstance().getMqttPort());
             logger.info("  CAM Service: {}", config.isCamServiceEnabled() ? "ENABLED" : "DISABLED");
             logger.info("  DENM Service: {}", config.isDenmServiceEnabled() ? "ENABLED" : "DISABLED");
             logger.info("  Debug Mode: {}", config.isDebugMode());
+            if (!config.getMqttRedirect().isEmpty()) {
+                HostRedirect.install(config.getStepInstance().getMqttHost(), config.getMqttRedirect());
+                logger.info("  MQTT redirect: {} -> {}", config.getStepInstance().getMqttHost(),
+                    config.getMqttRedirect());
+            }
 
             // Enable debug logging if configured
             if (config.isDebugMode()) {
@@ -48,16 +122,34 @@ public class V2XApplication {
             
             // 2. Create location provider (Annex 10.3)
             logger.info("Step 2: Initializing location provider...");
-            locationProvider = new FakeLocationProvider(
-                config.getTestLatitude(),
-                config.getTestLongitude()
-            );
+            if (!config.getRouteFile().isEmpty()) {
+                Route route = Route.read(Path.of(config.getRouteFile()), config.isRouteLoop());
+                fixScheduler = RouteSimulatorLocationProvider.newFixScheduler(1);
+                locationProvider = new RouteSimulatorLocationProvider(route, config.getRouteSpeedProfile(),
+                    config.getRouteRateHz(), 0, fixScheduler);
+                logger.info("  Driving route {} ({} legs, {} m) at {} fixes/s", config.getRouteFile(), route.legs(),
+                    Math.round(route.length()), config.getRouteRateHz());
+            } else if (config.getTraceFile().isEmpty()) {
+                locationProvider = new FakeLocationProvider(
+                    config.getTestLatitude(),
+                    config.getTestLongitude()
+                );
+            } else {
+                Path trace = Path.of(config.getTraceFile());
+                TraceFormat format = config.getTraceFormat().isEmpty()
+                    ? TraceFormat.forFile(trace)
+                    : TraceFormat.valueOf(config.getTraceFormat().toUpperCase(Locale.ROOT));
+                locationProvider = new TraceReplayLocationProvider(trace, format, config.getTraceSpeedFactor(),
+                    config.getTraceMaxRateHz(), config.isTraceLoop());
+                logger.info("  Replaying {} trace {} at {}x, up to {} Hz", format, trace,
+                    config.getTraceSpeedFactor(), config.getTraceMaxRateHz());
+            }
             logger.info("  Location provider initialized");
             logger.info("");
             
             // 3. Configure SDK (Section 8.3.1)
             logger.info("Step 3: Configuring V2X SDK...");
-            StepInstance stepInstance = StepInstance.DE_DEV_FRANKFURT;
+            StepInstance stepInstance = config.getStepInstance();
 
             // Log STEP instance connection details
             logger.info("  STEP Instance: {}", stepInstance);
@@ -70,18 +162,18 @@ public class V2XApplication {
                 .stepInstance(stepInstance)
                 .applicationID(config.getApplicationId())
                 .applicationToken(config.getApplicationToken())
-                .mqttClientID("testClient123")
+                .mqttClientID(config.getMqttClientId())
                 .stationType(StationType.PASSENGER_CAR);
 
             // Configure CAM service if enabled
             if (config.isCamServiceEnabled()) {
                 configBuilder
                     .camServiceMode(ServiceMode.TxAndRx)
-                    .camPublishGroup("926696_216")
-                    .camSubscribeGroup("926696_216");
+                    .camPublishGroup(config.getGroup())
+                    .camSubscribeGroup(config.getGroup());
                 logger.info("  - CAM Service Mode: TxAndRx");
-                logger.info("  - CAM Publish Group: 926696_216");
-                logger.info("  - CAM Subscribe Group: 926696_216");
+                logger.info("  - CAM Publish Group: {}", config.getGroup());
+                logger.info("  - CAM Subscribe Group: {}", config.getGroup());
             } else {
                 logger.info("  - CAM Service: DISABLED");
             }
@@ -90,11 +182,11 @@ public class V2XApplication {
             if (config.isDenmServiceEnabled()) {
                 configBuilder
                     .denmServiceMode(ServiceMode.TxAndRx)
-                    .denmPublishGroup("926696_216")
-                    .denmSubscribeGroup("926696_216");
+                    .denmPublishGroup(config.getGroup())
+                    .denmSubscribeGroup(config.getGroup());
                 logger.info("  - DENM Service Mode: TxAndRx");
-                logger.info("  - DENM Publish Group: 926696_216");
-                logger.info("  - DENM Subscribe Group: 926696_216");
+                logger.info("  - DENM Publish Group: {}", config.getGroup());
+                logger.info("  - DENM Subscribe Group: {}", config.getGroup());
             } else {
                 logger.info("  - DENM Service: DISABLED");
             }
@@ -114,28 +206,37 @@ public class V2XApplication {
             logger.info("  V2X SDK instance created");
             logger.info("  SDK Log Level set to: {}", sdkLogLevel);
             logger.info("");
+
+            // 4.5. Checkpoint the configured process; a CRaC restore resumes here (see FastStart)
+            if (config.isStartupCheckpoint()) {
+                logger.info("Step 4.5: Warming up and checkpointing...");
+                FastStart.checkpoint(Path.of(config.getStartupClassList()));
+                logger.info("");
+            }
             
             // 5. Start V2X Service (Section 8.3.4)
             logger.info("Step 5: Starting V2X service...");
             if (config.isDebugMode()) {
                 logger.info("  Note: Watch for SSL/TLS handshake logs below");
             }
+            readiness = new ReadinessProbe(config.getStartupPollIntervalMs());
+            long startupNanos = System.nanoTime();
             sdk.startV2XService();
             logger.info("  V2X service start initiated");
             logger.info("");
             
             // 6. Wait for initialization (Section 8.3.5)
             logger.info("Step 6: Waiting for V2X service initialization...");
-            int initRetries = 0;
-            while (sdk.getV2XServiceState() != V2XServiceState.UP_AND_RUNNING) {
-                Thread.sleep(1000L);
-                logger.debug("  Service state: {}", sdk.getV2XServiceState());
-                initRetries++;
-                if (initRetries > 10) {
-                    throw new RuntimeException("Service initialization timeout");
-                }
+            long serviceUpMs;
+            try {
+                serviceUpMs = await(readiness.when(
+                    () -> sdk.getV2XServiceState() == V2XServiceState.UP_AND_RUNNING,
+                    config.getStartupServiceTimeoutMs()));
+            } catch (TimeoutException e) {
+                throw new RuntimeException("Service initialization timeout");
             }
-            logger.info("  V2X service is UP AND RUNNING");
+            ServiceStateEvent.emit("V2X", "UP_AND_RUNNING", serviceUpMs);
+            logger.info("  V2X service is UP AND RUNNING ({} ms)", serviceUpMs);
             logger.info("");
             
             // 7. Check initial connectivity state (connection may happen after service start)
@@ -145,79 +246,206 @@ public class V2XApplication {
             logger.info("");
             
             // 8. Subscribe to events (Section 8.3.7)
+            // Handlers run on a pipeline consumer thread; the SDK event-bus thread only enqueues.
             logger.info("Step 8: Subscribing to SDK events...");
-            CAMHandler camHandler = null;
+            logger.info("  Pipeline: capacity {}, batch {}, wait {}, overflow {}",
+                config.getPipelineCapacity(), config.getPipelineBatchSize(),
+                config.getPipelineWaitStrategy(), config.getPipelineOverflowPolicy());
+            logger.info("  Record logging: {}, summary every {} s", config.getLogRecordsMode(),
+                config.getLogSummaryIntervalSeconds());
             DENMHandler denmHandler = null;
+            if (config.isMetricsEnabled()) {
+                metrics = new MetricsRegistry(config.getMetricsWindowSeconds(), config.isMetricsJmxEnabled());
+                if (locationProvider instanceof RouteSimulatorLocationProvider simulator) {
+                    simulator.recordJitter(metrics.histogram("location.fix.jitter",
+                        "Route simulator fix lateness against its schedule", TimeUnit.NANOSECONDS));
+                }
+            }
+            if (config.isRecordingEnabled()) {
+                recorder = new TrafficRecorder(Path.of(config.getRecordingDirectory()),
+                    config.getRecordingSegmentSizeMb() << 20, config.getRecordingMaxSegments());
+                logger.info("  Recording received traffic to {}", config.getRecordingDirectory());
+            }
+            if (config.isExportEnabled()) {
+                exportStage = new ExportStage(ExportSink.create(config.getExportSink()), config.getExportSettings());
+            }
 
             if (config.isCamServiceEnabled()) {
-                camHandler = new CAMHandler();
-                sdk.subscribe(camHandler, EventType.CAM_LIST_CHANGED);
+                stationTable = new StationTable(config.getStationTableCapacity(), config.getStationTtlMs());
+                camHandler = new CAMHandler(stationTable,
+                    new RecordLogSampler(config.getLogRecordsMode(), config.getLogStationIntervalMs(),
+                        config.getStationTableCapacity()),
+                    TimeUnit.SECONDS.toMillis(config.getLogSummaryIntervalSeconds()));
+
+                // Keep a spatial index of the received CAMs and query it on every location fix
+                spatialGrid = new SpatialGrid(config.getStationTableCapacity(), config.getSpatialCellSizeM(),
+                    config.getTestLatitude());
+                camHandler.getDeltaTracker().addListener(spatialGrid);
+                if (exportStage != null) {
+                    camHandler.getDeltaTracker().addListener(exportStage);
+                }
+                locationProvider.addFixListener(new ProximityMonitor(spatialGrid, config.getProximityRadiusM(),
+                    config.getProximityNearestCount(), camHandler::getOwnStationId));
+                if (config.isConflictEnabled()) {
+                    KinematicsTable kinematics = new KinematicsTable(config.getStationTableCapacity(),
+                        config.getTestLatitude());
+                    camHandler.getDeltaTracker().addListener(kinematics);
+                    conflictDetector = new ConflictDetector(kinematics,
+                        TtcKernel.create(config.isConflictVectorEnabled()), config.getConflictRadiusM(),
+                        config.getConflictHorizonSeconds(), config.getConflictBudgetMs(), camHandler::getOwnStationId)
+                        .addListener(new ConflictListener() {
+                            @Override
+                            public void onConflict(long stationId, double ttcSeconds, double distanceM) {
+                                logger.warn("Collision risk: StationID {} in {} s, now {} m away", stationId,
+                                    String.format(Locale.ROOT, "%.1f", ttcSeconds), Math.round(distanceM));
+                            }
+
+                            @Override
+                            public void onConflictCleared(long stationId) {
+                                logger.info("Collision risk cleared: StationID {}", stationId);
+                            }
+                        });
+                    if (metrics != null) {
+                        conflictDetector.recordCycleTime(metrics.histogram("conflict.evaluation.time",
+                            "Time-to-collision evaluation time", TimeUnit.NANOSECONDS));
+                    }
+                    locationProvider.addFixListener(conflictDetector);
+                    conflictDetector.start();
+                }
+                if (config.isGeoTilesEnabled()) {
+                    tiles = new TileSubscriptionManager(config.getGeoTilesZoom(), config.getGeoTilesRing(),
+                        config.getGeoTilesHysteresisM(), config.getGeoTilesGroupPattern(), config.getGroup());
+                    tiles.addListener((subscribe, unsubscribe) ->
+                        logger.debug("Tile groups: subscribe {}, unsubscribe {}", subscribe, unsubscribe));
+                    locationProvider.addFixListener(tiles);
+                    // CAMs from outside the tile block never reach the station table, grid or proximity queries
+                    camHandler.getDeltaTracker().filter(cam -> tiles.contains(cam.getLatitude(), cam.getLongitude()));
+                    logger.info("  - Geo tiles: zoom {}, ring {}, hysteresis {} m",
+                        config.getGeoTilesZoom(), config.getGeoTilesRing(), config.getGeoTilesHysteresisM());
+                }
+                camPipeline = createPipeline("cam", config).addListener(camHandler);
+                if (recorder != null) {
+                    camPipeline.addListener(recorder);
+                }
+                if (metrics != null) {
+                    camHandler.getDeltaTracker().addListener(new CamLatencyRecorder(
+                        metrics.histogram("cam.receive.latency", "CAM generation to handler latency",
+                            TimeUnit.MILLISECONDS),
+                        sdk::getUTCTimeInMs));
+                    camPipeline
+                        .addListener(new MessageRateRecorder(
+                            metrics.counter("cam.events", "CAM_LIST_CHANGED events received"),
+                            metrics.counter("cam.records", "CAM records received in list events")))
+                        .recordHandlerTime(metrics.histogram("cam.handler.time", "CAM handler time per event",
+                            TimeUnit.NANOSECONDS));
+                }
+                camPipeline.start();
+                sdk.subscribe(camPipeline, EventType.CAM_LIST_CHANGED);
                 logger.info("  - CAM list change events subscribed");
             }
 
             if (config.isDenmServiceEnabled()) {
-                denmHandler = new DENMHandler();
-                sdk.subscribe(denmHandler, EventType.DENM_LIST_CHANGED);
+                denmCache = new DenmLifecycleCache(config.getDenmCacheCapacity(), config.getDenmValidityMs(),
+                    config.getDenmTerminatedRetentionMs());
+                if (exportStage != null) {
+                    denmCache.addListener(exportStage);
+                }
+                denmHandler = new DENMHandler(denmCache,
+                    new RecordLogSampler(config.getLogRecordsMode(), config.getLogStationIntervalMs(),
+                        config.getDenmCacheCapacity()),
+                    TimeUnit.SECONDS.toMillis(config.getLogSummaryIntervalSeconds()));
+                denmExpiryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "denm-expiry");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                denmExpiryScheduler.scheduleAtFixedRate(
+                    () -> denmCache.expire(System.currentTimeMillis()), 100, 100, TimeUnit.MILLISECONDS);
+                denmPipeline = createPipeline("denm", config).addListener(denmHandler);
+                if (recorder != null) {
+                    denmPipeline.addListener(recorder);
+                }
+                if (metrics != null) {
+                    denmEchoTracker = new DenmEchoTracker(
+                        metrics.histogram("denm.echo.latency", "DENM trigger to own echo latency",
+                            TimeUnit.MILLISECONDS),
+                        metrics.counter("denm.echo.missing", "Triggered DENMs never echoed back"),
+                        sdk::getUTCTimeInMs, DENM_ECHO_TIMEOUT_MS);
+                    denmHandler.getDeltaTracker().addListener(denmEchoTracker);
+                    activeDenms = new ActiveDenmRegistry(sdk, denmEchoTracker::onTriggered);
+                    denmPipeline
+                        .addListener(new MessageRateRecorder(
+                            metrics.counter("denm.events", "DENM_LIST_CHANGED events received"),
+                            metrics.counter("denm.records", "DENM records received in list events")))
+                        .recordHandlerTime(metrics.histogram("denm.handler.time", "DENM handler time per event",
+                            TimeUnit.NANOSECONDS));
+                }
+                if (activeDenms == null) {
+                    activeDenms = new ActiveDenmRegistry(sdk, null);
+                }
+                denmPipeline.start();
+                sdk.subscribe(denmPipeline, EventType.DENM_LIST_CHANGED);
                 logger.info("  - DENM list change events subscribed");
             }
 
+            if (metrics != null) {
+                startMetrics(config);
+            }
             logger.info("  Event handlers registered");
             logger.info("");
             
-            // 9. Start CAM Service (Section 8.3.8)
-            if (config.isCamServiceEnabled()) {
-                logger.info("Step 9: Starting CAM service...");
-                sdk.startCAMService();
-                logger.info("  CAM service started - broadcasting vehicle presence");
-                logger.info("");
+            // 9-10. Start CAM (Section 8.3.8) and DENM (Section 8.3.9) services in parallel
+            logger.info("Step 9-10: Starting CAM and DENM services...");
+            long servicesNanos = System.nanoTime();
+            CompletableFuture<Long> camStarted = config.isCamServiceEnabled()
+                ? readiness.run(sdk::startCAMService) : null;
+            CompletableFuture<Long> denmStarted = config.isDenmServiceEnabled()
+                ? readiness.run(sdk::startDENMService) : null;
+            // The MQTT connection comes up while the services start; watch for it from now on
+            CompletableFuture<Long> connected = readiness.when(
+                () -> sdk.getV2XConnectivityState() == V2XConnectivityState.CONNECTED,
+                config.getStartupConnectTimeoutMs());
+            if (camStarted != null) {
+                long camStartMs = await(camStarted);
+                ServiceStateEvent.emit("CAM", "STARTED", camStartMs);
+                logger.info("  CAM service started in {} ms - broadcasting vehicle presence", camStartMs);
             } else {
-                logger.info("Step 9: CAM service disabled (skipping)");
-                logger.info("");
+                logger.info("  CAM service disabled (skipping)");
             }
-
-            // 10. Start DENM Service (Section 8.3.9)
-            if (config.isDenmServiceEnabled()) {
-                logger.info("Step 10: Starting DENM service...");
-                sdk.startDENMService();
-                logger.info("  DENM service started");
-                logger.info("");
+            if (denmStarted != null) {
+                long denmStartMs = await(denmStarted);
+                ServiceStateEvent.emit("DENM", "STARTED", denmStartMs);
+                logger.info("  DENM service started in {} ms", denmStartMs);
             } else {
-                logger.info("Step 10: DENM service disabled (skipping)");
-                logger.info("");
+                logger.info("  DENM service disabled (skipping)");
             }
+            logger.info("");
 
             // 10.5. Wait for MQTT connectivity after services are started
             logger.info("Step 10.5: Waiting for MQTT connection (now that services are started)...");
-            int connectRetries = 0;
-            while (sdk.getV2XConnectivityState() != V2XConnectivityState.CONNECTED) {
-                Thread.sleep(1000L);
-                logger.info("  Connectivity state: {} (retry {}/15)", sdk.getV2XConnectivityState(), connectRetries + 1);
-                connectRetries++;
-                if (connectRetries > 15) {
-                    logger.warn("  MQTT connection not established after 15 seconds, continuing anyway...");
-                    break;
-                }
-            }
-            if (sdk.getV2XConnectivityState() == V2XConnectivityState.CONNECTED) {
-                logger.info("  ✓ Connected to STEP MQTT platform!");
+            try {
+                long connectedMs = await(connected);
+                ServiceStateEvent.emit("MQTT", "CONNECTED", connectedMs);
+                logger.info("  ✓ Connected to STEP MQTT platform! ({} ms after service start)", connectedMs);
+            } catch (TimeoutException e) {
+                ServiceStateEvent.emit("MQTT", "CONNECT_TIMEOUT", config.getStartupConnectTimeoutMs());
+                logger.warn("  MQTT connection not established after {} ms, continuing anyway...",
+                    config.getStartupConnectTimeoutMs());
             }
+            logger.info("  Time to ready: service up {} ms, services started {} ms, total {} ms",
+                serviceUpMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - servicesNanos),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startupNanos));
             logger.info("");
 
             // 11. Send a test DENM (Section 8.3.9 - Trigger DENM)
-            long sequenceNumber = -1;
             if (config.isDenmServiceEnabled()) {
                 logger.info("Step 11: Sending test DENM...");
-                GnssLocation eventLocation = new GnssLocation(
-                    config.getTestLatitude(),
-                    config.getTestLongitude(),
-                        50.0,
-                        0.0F,
-                        0.0f,
-                        2.0f,
-                    sdk.getUTCTimeInMs()
-                );
-                sequenceNumber = sdk.denmTrigger(DENMType.ACCIDENT_UNSECUREDACCIDENT, eventLocation);
-                logger.info("  DENM triggered with sequence number: {}", sequenceNumber);
+                // The registry keeps it active across service restarts until it is terminated in Step 13
+                int testDenm = activeDenms.trigger(DENMType.ACCIDENT_UNSECUREDACCIDENT,
+                    config.getTestLatitude(), config.getTestLongitude(), 50.0);
+                if (testDenm >= 0) {
+                    logger.info("  DENM triggered with sequence number: {}", activeDenms.sequenceNumber(testDenm));
+                }
                 logger.info("  Event Type: UNSECURED_ACCIDENT");
                 logger.info("  Location: ({}, {})", config.getTestLatitude(), config.getTestLongitude());
                 logger.info("");
@@ -225,21 +453,43 @@ public class V2XApplication {
                 logger.info("Step 11: DENM service disabled (skipping test DENM)");
                 logger.info("");
             }
+
+            // 11.5. Bulk DENMs for roadside units, including those journaled by the previous run
+            if (config.isDenmServiceEnabled() && config.isDenmSchedulerEnabled()) {
+                logger.info("Step 11.5: Starting DENM scheduler...");
+                denmScheduler = new DenmScheduler(sdk, config.getDenmSchedulerCapacity(),
+                    config.getDenmSchedulerRatePerSecond(), config.getDenmSchedulerBurst(),
+                    Path.of(config.getDenmSchedulerJournal()),
+                    denmEchoTracker != null ? denmEchoTracker::onTriggered : null);
+                logger.info("  Rate {}/s, burst {}, journal {}", config.getDenmSchedulerRatePerSecond(),
+                    config.getDenmSchedulerBurst(), config.getDenmSchedulerJournal());
+                if (!config.getDenmSchedulerBatchFile().isEmpty()) {
+                    List<DenmScheduler.Request> batch =
+                        DenmScheduler.readRequests(Path.of(config.getDenmSchedulerBatchFile()));
+                    logger.info("  Submitted {} of {} DENM requests from {}", denmScheduler.submit(batch),
+                        batch.size(), config.getDenmSchedulerBatchFile());
+                }
+                logger.info("");
+            }
             
-            // 12. Run for demonstration period
-            logger.info("Step 12: Application running - receiving V2X messages...");
-            logger.info("  Press Ctrl+C to stop");
-            logger.info("  Monitoring period: 5 seconds");
-            logger.info("");
-            
-            Thread.sleep(5000L);
+            // 12. Run for demonstration period, or until stopped in daemon mode
+            if (config.isDaemonEnabled()) {
+                runDaemon();
+            } else {
+                logger.info("Step 12: Application running - receiving V2X messages...");
+                logger.info("  Press Ctrl+C to stop");
+                logger.info("  Monitoring period: 5 seconds");
+                logger.info("");
+
+                Thread.sleep(5000L);
+                logPipelineStats();
+            }
             
             // 13. Terminate DENM (Section 8.3.16)
             logger.info("");
-            if (config.isDenmServiceEnabled() && sequenceNumber >= 0) {
+            if (activeDenms != null && activeDenms.size() > 0) {
                 logger.info("Step 13: Terminating DENM...");
-                sdk.denmTerminate(sequenceNumber);
-                logger.info("  DENM terminated");
+                logger.info("  {} DENM(s) terminated", activeDenms.terminateAll());
                 logger.info("");
             } else {
                 logger.info("Step 13: No DENM to terminate (skipping)");
@@ -251,34 +501,222 @@ public class V2XApplication {
             
             logger.info("");
             logger.info("=== Application completed successfully ===");
+            Logging.stop();
             
         } catch (Exception e) {
             logger.error("Application error", e);
             shutdown();
-            System.exit(1);
+            Logging.stop();
+            // System.exit would block forever if the JVM is already running the shutdown hook
+            if (stopSignal.getCount() > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Step 12 in daemon mode: runs until the JVM is asked to stop, restoring lost connectivity on the way.
+     *
+     * <p>The shutdown hook only releases this thread and waits for it, so Steps 13-14 run here as in the demo.
+     * Reconnects restart the SDK services but leave the subscriptions, pipelines and handler state alone, so
+     * events keep flowing to the same consumers and the station table survives a broker outage.
+     */
+    private void runDaemon() throws InterruptedException {
+        logger.info("Step 12: Running as daemon - receiving V2X messages...");
+        logger.info("  Stop with SIGTERM or Ctrl+C");
+        logger.info("  Reconnect after {} ms offline, backoff {}-{} ms, stats every {} s",
+            config.getDaemonReconnectGraceMs(), config.getDaemonBackoffInitialMs(), config.getDaemonBackoffMaxMs(),
+            config.getDaemonStatsIntervalSeconds());
+        logger.info("");
+
+        Thread mainThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopSignal.countDown();
+            try {
+                mainThread.join(SHUTDOWN_HOOK_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "shutdown-hook"));
+
+        watchdog = new ConnectivityWatchdog(
+            () -> sdk.getV2XConnectivityState() == V2XConnectivityState.CONNECTED,
+            this::restartServices,
+            this::replayActiveDenms,
+            config.getDaemonWatchdogIntervalMs(),
+            config.getDaemonReconnectGraceMs(),
+            config.getDaemonBackoffInitialMs(),
+            config.getDaemonBackoffMaxMs());
+
+        long startNanos = System.nanoTime();
+        while (!stopSignal.await(config.getDaemonStatsIntervalSeconds(), TimeUnit.SECONDS)) {
+            logger.info("Uptime {}, connectivity {}: {} disconnects, {} service restarts, {} failed attempts",
+                Duration.ofNanos(System.nanoTime() - startNanos).withNanos(0), sdk.getV2XConnectivityState(),
+                watchdog.getDisconnects(), watchdog.getReconnects(), watchdog.getFailedAttempts());
+            logPipelineStats();
+        }
+        logger.info("");
+        logger.info("Shutdown requested after {}", Duration.ofNanos(System.nanoTime() - startNanos).withNanos(0));
+        watchdog.close();
+        logPipelineStats();
+    }
+
+    /**
+     * One watchdog reconnect attempt: restarts the CAM and DENM services, which sets up a new MQTT session,
+     * and the V2X service too if it went down.
+     */
+    private boolean restartServices() throws Exception {
+        if (config.isCamServiceEnabled()) {
+            sdk.stopCAMService();
+        }
+        if (config.isDenmServiceEnabled()) {
+            sdk.stopDENMService();
+        }
+        V2XServiceState serviceState = sdk.getV2XServiceState();
+        if (serviceState != V2XServiceState.UP_AND_RUNNING) {
+            logger.info("  V2X service is {}, restarting it", serviceState);
+            sdk.stopV2XService();
+            sdk.startV2XService();
+            ServiceStateEvent.emit("V2X", "UP_AND_RUNNING",
+                await(readiness.when(() -> sdk.getV2XServiceState() == V2XServiceState.UP_AND_RUNNING,
+                    config.getStartupServiceTimeoutMs())));
+        }
+        CompletableFuture<Long> camStarted = config.isCamServiceEnabled()
+            ? readiness.run(sdk::startCAMService) : null;
+        CompletableFuture<Long> denmStarted = config.isDenmServiceEnabled()
+            ? readiness.run(sdk::startDENMService) : null;
+        CompletableFuture<Long> connected = readiness.when(
+            () -> sdk.getV2XConnectivityState() == V2XConnectivityState.CONNECTED,
+            config.getStartupConnectTimeoutMs());
+        if (camStarted != null) {
+            ServiceStateEvent.emit("CAM", "STARTED", await(camStarted));
+        }
+        if (denmStarted != null) {
+            ServiceStateEvent.emit("DENM", "STARTED", await(denmStarted));
+        }
+        try {
+            ServiceStateEvent.emit("MQTT", "CONNECTED", await(connected));
+            return true;
+        } catch (TimeoutException e) {
+            ServiceStateEvent.emit("MQTT", "CONNECT_TIMEOUT", config.getStartupConnectTimeoutMs());
+            return false;
+        }
+    }
+
+    /** Sends our active DENMs again; the DENM service restart dropped them. */
+    private void replayActiveDenms() {
+        if (activeDenms != null && activeDenms.size() > 0) {
+            logger.info("  Replayed {} active DENM(s) after reconnect", activeDenms.replay());
+        }
+        if (denmScheduler != null) {
+            logger.info("  Queued {} scheduled DENM(s) for replay after reconnect", denmScheduler.replay());
         }
     }
     
+    /** Waits for a readiness stage, unwrapping its failure (e.g. {@link TimeoutException}). */
+    private static long await(CompletableFuture<Long> stage) throws Exception {
+        try {
+            return stage.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static EventPipeline createPipeline(String name, AppConfig config) {
+        return new EventPipeline(
+            name,
+            config.getPipelineCapacity(),
+            config.getPipelineBatchSize(),
+            config.getPipelineWaitStrategy(),
+            config.getPipelineOverflowPolicy());
+    }
+
+    private void startMetrics(AppConfig config) {
+        metrics.start();
+        logger.info("  Metrics: {} s window, JMX {}", config.getMetricsWindowSeconds(),
+            config.isMetricsJmxEnabled() ? "ENABLED" : "DISABLED");
+        if (config.getMetricsHttpPort() > 0) {
+            try {
+                metricsServer = new MetricsHttpServer(metrics, config.getMetricsHttpHost(),
+                    config.getMetricsHttpPort());
+                metricsServer.start();
+            } catch (IOException e) {
+                // Metrics are optional; a taken port must not stop the application
+                logger.warn("  Metrics endpoint {}:{} not started: {}", config.getMetricsHttpHost(),
+                    config.getMetricsHttpPort(), e.toString());
+            }
+        }
+    }
+
+    private void logPipelineStats() {
+        if (camPipeline != null) {
+            logger.info("  CAM pipeline: {}", camPipeline.getStats());
+        }
+        if (tiles != null) {
+            logger.info("  Geo tiles: home {}, {} home tile changes, {} CAMs from outside dropped",
+                tiles.homeGroup(), tiles.getHomeChanges(), camHandler.getDeltaTracker().filteredCount());
+        }
+        if (stationTable != null) {
+            logger.info("  Station table: {} live, {} evicted, {} rejected",
+                stationTable.size(), stationTable.evictedCount(), stationTable.rejectedCount());
+        }
+        if (conflictDetector != null) {
+            logger.info("  Conflicts: {} active, {} reported, {} evaluations, {} over budget",
+                conflictDetector.getActiveConflicts(), conflictDetector.getConflictsReported(),
+                conflictDetector.getEvaluations(), conflictDetector.getBudgetOverruns());
+        }
+        if (denmPipeline != null) {
+            logger.info("  DENM pipeline: {}", denmPipeline.getStats());
+        }
+        if (denmCache != null) {
+            logger.info("  DENM cache: {} tracked, {} retransmissions suppressed",
+                denmCache.size(), denmCache.duplicatesSuppressed());
+        }
+        if (denmScheduler != null) {
+            logger.info("  DENM scheduler: {}", denmScheduler);
+        }
+        if (exportStage != null) {
+            logger.info("  Export: {}", exportStage);
+        }
+        if (metrics != null) {
+            metrics.logSummary();
+        }
+    }
+
     private void shutdown() {
+        if (!shutDown.compareAndSet(false, true)) {
+            return;
+        }
         logger.info("Step 14: Performing cleanup...");
 
-        if (sdk != null) {
+        if (watchdog != null) {
+            watchdog.close();
+        }
+        if (denmScheduler != null) {
+            // Stops triggering; the journal keeps the events for the next start
+            denmScheduler.close();
+        }
+        if (sdk != null && config != null) {
             try {
                 // Only stop services that were started
-                AppConfig config = new AppConfig();
-
                 if (config.isCamServiceEnabled()) {
                     logger.info("  Stopping CAM service...");
                     sdk.stopCAMService();
+                    ServiceStateEvent.emit("CAM", "STOPPED", 0);
                 }
 
                 if (config.isDenmServiceEnabled()) {
                     logger.info("  Stopping DENM service...");
                     sdk.stopDENMService();
+                    ServiceStateEvent.emit("DENM", "STOPPED", 0);
                 }
 
                 logger.info("  Stopping V2X service...");
                 sdk.stopV2XService();
+                ServiceStateEvent.emit("V2X", "STOPPED", 0);
 
                 logger.info("  All services stopped");
             } catch (Exception e) {
@@ -287,6 +725,36 @@ public class V2XApplication {
         }
 
 
+        // Drain and stop the pipelines once the SDK can no longer publish into them
+        if (camPipeline != null) {
+            camPipeline.close();
+        }
+        if (denmPipeline != null) {
+            denmPipeline.close();
+        }
+        if (recorder != null) {
+            recorder.close();
+        }
+        if (conflictDetector != null) {
+            conflictDetector.close();
+        }
+        if (denmExpiryScheduler != null) {
+            denmExpiryScheduler.shutdownNow();
+        }
+        if (exportStage != null) {
+            // Sends what the handlers delivered up to here
+            exportStage.close();
+        }
+        if (readiness != null) {
+            readiness.close();
+        }
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+        if (metrics != null) {
+            metrics.close();
+        }
+
         if (locationProvider != null) {
             try {
                 locationProvider.turnOff();
@@ -294,6 +762,9 @@ public class V2XApplication {
                 logger.error("Error stopping location provider", e);
             }
         }
+        if (fixScheduler != null) {
+            fixScheduler.shutdownNow();
+        }
 
         logger.info("  Cleanup completed");
     }
@@ -1,10 +1,41 @@
 package com.vodafone.v2x.example.config;
 
+import com.vodafone.v2x.example.export.ExportCompression;
+import com.vodafone.v2x.example.export.ExportStage;
+import com.vodafone.v2x.example.handlers.RecordLogSampler;
+import com.vodafone.v2x.example.location.route.SpeedProfile;
+import com.vodafone.v2x.example.pipeline.OverflowPolicy;
+import com.vodafone.v2x.example.pipeline.WaitStrategy;
+import com.vodafone.v2xsdk4javav2.facade.enums.StepInstance;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serial;
+import java.util.Locale;
 import java.util.Properties;
 
 public class AppConfig {
+    /**
+     * Lets {@code -D<key>=<value>} override the file, e.g. for the offline fast-start training run. Only keys the
+     * configuration looks up are consulted, so unrelated JVM properties never end up in it.
+     */
+    private static final class SystemOverrides extends Properties {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String getProperty(String key) {
+            String value = System.getProperty(key);
+            return value != null ? value : super.getProperty(key);
+        }
+
+        @Override
+        public String getProperty(String key, String defaultValue) {
+            String value = getProperty(key);
+            return value != null ? value : defaultValue;
+        }
+    }
+
     private String applicationId;
     private String applicationToken;
     private double testLatitude;
@@ -12,9 +43,91 @@ public class AppConfig {
     private boolean debugMode;
     private boolean camServiceEnabled;
     private boolean denmServiceEnabled;
+    private StepInstance stepInstance;
+    private String mqttClientId;
+    private String mqttRedirect;
+    private String group;
+    private long startupPollIntervalMs;
+    private long startupServiceTimeoutMs;
+    private long startupConnectTimeoutMs;
+    private boolean startupCheckpoint;
+    private String startupClassList;
+    private boolean daemonEnabled;
+    private long daemonWatchdogIntervalMs;
+    private long daemonReconnectGraceMs;
+    private long daemonBackoffInitialMs;
+    private long daemonBackoffMaxMs;
+    private long daemonStatsIntervalSeconds;
+    private RecordLogSampler.Mode logRecordsMode;
+    private long logStationIntervalMs;
+    private long logSummaryIntervalSeconds;
+    private boolean geoTilesEnabled;
+    private boolean recordingEnabled;
+    private String recordingDirectory;
+    private long recordingSegmentSizeMb;
+    private int recordingMaxSegments;
+    private boolean exportEnabled;
+    private String exportSink;
+    private int exportBatchRecords;
+    private long exportBatchMaxDelayMs;
+    private ExportCompression exportCompression;
+    private int exportQueueBatches;
+    private ExportStage.Overflow exportOverflow;
+    private long exportRetryInitialMs;
+    private long exportRetryMaxMs;
+    private int geoTilesZoom;
+    private int geoTilesRing;
+    private double geoTilesHysteresisM;
+    private String geoTilesGroupPattern;
+    private String traceFile;
+    private String traceFormat;
+    private double traceSpeedFactor;
+    private int traceMaxRateHz;
+    private boolean traceLoop;
+    private String routeFile;
+    private boolean routeLoop;
+    private int routeRateHz;
+    private double routeSpeedKmh;
+    private double routeAccelerationMps2;
+    private double routeDecelerationMps2;
+    private double routeLateralAccelMps2;
+    private int pipelineCapacity;
+    private int pipelineBatchSize;
+    private WaitStrategy pipelineWaitStrategy;
+    private OverflowPolicy pipelineOverflowPolicy;
+    private int stationTableCapacity;
+    private long stationTtlMs;
+    private double spatialCellSizeM;
+    private double proximityRadiusM;
+    private int proximityNearestCount;
+    private boolean conflictEnabled;
+    private double conflictRadiusM;
+    private double conflictHorizonSeconds;
+    private long conflictBudgetMs;
+    private boolean conflictVectorEnabled;
+    private int denmCacheCapacity;
+    private long denmValidityMs;
+    private long denmTerminatedRetentionMs;
+    private boolean denmSchedulerEnabled;
+    private double denmSchedulerRatePerSecond;
+    private int denmSchedulerBurst;
+    private int denmSchedulerCapacity;
+    private String denmSchedulerJournal;
+    private String denmSchedulerBatchFile;
+    private boolean metricsEnabled;
+    private boolean metricsJmxEnabled;
+    private String metricsHttpHost;
+    private int metricsHttpPort;
+    private long metricsWindowSeconds;
+    private int loadVehicles;
+    private double loadRampPerSecond;
+    private long loadDurationSeconds;
+    private long loadDenmIntervalSeconds;
+    private double loadSpreadM;
+    private int loadRouteThreads;
 
     public AppConfig() throws IOException {
-        Properties props = new Properties();
+        Properties props = new SystemOverrides();
         try (InputStream input = getClass().getClassLoader()
                 .getResourceAsStream("application.properties")) {
             if (input == null) {
@@ -28,6 +141,99 @@ public class AppConfig {
             this.debugMode = Boolean.parseBoolean(props.getProperty("debug.mode", "false"));
             this.camServiceEnabled = Boolean.parseBoolean(props.getProperty("service.cam.enabled", "false"));
             this.denmServiceEnabled = Boolean.parseBoolean(props.getProperty("service.denm.enabled", "true"));
+            this.stepInstance = StepInstance.valueOf(props.getProperty("step.instance", "DE_DEV_FRANKFURT").trim());
+            this.mqttClientId = props.getProperty("mqtt.client.id", "testClient123");
+            this.mqttRedirect = props.getProperty("step.mqtt.redirect", "").trim();
+            this.group = props.getProperty("step.group", "926696_216");
+            this.startupPollIntervalMs = Long.parseLong(props.getProperty("startup.poll.interval.ms", "5"));
+            this.startupServiceTimeoutMs = Long.parseLong(props.getProperty("startup.service.timeout.ms", "10000"));
+            this.startupConnectTimeoutMs = Long.parseLong(props.getProperty("startup.connect.timeout.ms", "15000"));
+            this.startupCheckpoint = Boolean.parseBoolean(props.getProperty("startup.checkpoint", "false"));
+            this.startupClassList = props.getProperty("startup.checkpoint.class.list",
+                "target/step-java-example.classlist").trim();
+            this.daemonEnabled = Boolean.parseBoolean(props.getProperty("daemon.enabled", "false"));
+            this.daemonWatchdogIntervalMs = Long.parseLong(props.getProperty("daemon.watchdog.interval.ms", "1000"));
+            this.daemonReconnectGraceMs = Long.parseLong(props.getProperty("daemon.reconnect.grace.ms", "10000"));
+            this.daemonBackoffInitialMs = Long.parseLong(
+                props.getProperty("daemon.reconnect.backoff.initial.ms", "1000"));
+            this.daemonBackoffMaxMs = Long.parseLong(props.getProperty("daemon.reconnect.backoff.max.ms", "120000"));
+            this.daemonStatsIntervalSeconds = Long.parseLong(props.getProperty("daemon.stats.interval.seconds", "300"));
+            this.logRecordsMode = RecordLogSampler.Mode.valueOf(
+                props.getProperty("log.records", "ALL").trim().toUpperCase(Locale.ROOT));
+            this.logStationIntervalMs = Long.parseLong(props.getProperty("log.station.interval.ms", "1000"));
+            this.logSummaryIntervalSeconds = Long.parseLong(props.getProperty("log.summary.interval.seconds", "10"));
+            this.recordingEnabled = Boolean.parseBoolean(props.getProperty("recording.enabled", "false"));
+            this.recordingDirectory = props.getProperty("recording.directory", "recordings").trim();
+            this.recordingSegmentSizeMb = Long.parseLong(props.getProperty("recording.segment.size.mb", "64"));
+            this.recordingMaxSegments = Integer.parseInt(props.getProperty("recording.max.segments", "32"));
+            this.exportEnabled = Boolean.parseBoolean(props.getProperty("export.enabled", "false"));
+            this.exportSink = props.getProperty("export.sink", "file:export.v2xe").trim();
+            this.exportBatchRecords = Integer.parseInt(props.getProperty("export.batch.records", "1024"));
+            this.exportBatchMaxDelayMs = Long.parseLong(props.getProperty("export.batch.max.delay.ms", "200"));
+            this.exportCompression = ExportCompression.valueOf(
+                props.getProperty("export.compression", "DEFLATE").trim().toUpperCase(Locale.ROOT));
+            this.exportQueueBatches = Integer.parseInt(props.getProperty("export.queue.batches", "16"));
+            this.exportOverflow = ExportStage.Overflow.valueOf(
+                props.getProperty("export.overflow", "BLOCK").trim().toUpperCase(Locale.ROOT));
+            this.exportRetryInitialMs = Long.parseLong(props.getProperty("export.retry.backoff.initial.ms", "100"));
+            this.exportRetryMaxMs = Long.parseLong(props.getProperty("export.retry.backoff.max.ms", "5000"));
+            this.geoTilesEnabled = Boolean.parseBoolean(props.getProperty("geo.tiles.enabled", "false"));
+            this.geoTilesZoom = Integer.parseInt(props.getProperty("geo.tiles.zoom", "14"));
+            this.geoTilesRing = Integer.parseInt(props.getProperty("geo.tiles.ring", "1"));
+            this.geoTilesHysteresisM = Double.parseDouble(props.getProperty("geo.tiles.hysteresis.m", "150"));
+            this.geoTilesGroupPattern = props.getProperty("geo.tiles.group.pattern", "{group}_{quadkey}");
+            this.traceFile = props.getProperty("location.trace.file", "").trim();
+            this.traceFormat = props.getProperty("location.trace.format", "").trim();
+            this.traceSpeedFactor = Double.parseDouble(props.getProperty("location.trace.speed", "1.0"));
+            this.traceMaxRateHz = Integer.parseInt(props.getProperty("location.trace.max.rate.hz", "10"));
+            this.traceLoop = Boolean.parseBoolean(props.getProperty("location.trace.loop", "true"));
+            this.routeFile = props.getProperty("location.route.file", "").trim();
+            this.routeLoop = Boolean.parseBoolean(props.getProperty("location.route.loop", "true"));
+            this.routeRateHz = Integer.parseInt(props.getProperty("location.route.rate.hz", "10"));
+            this.routeSpeedKmh = Double.parseDouble(props.getProperty("location.route.speed.kmh", "50"));
+            this.routeAccelerationMps2 = Double.parseDouble(
+                props.getProperty("location.route.acceleration.mps2", "2.0"));
+            this.routeDecelerationMps2 = Double.parseDouble(
+                props.getProperty("location.route.deceleration.mps2", "3.0"));
+            this.routeLateralAccelMps2 = Double.parseDouble(
+                props.getProperty("location.route.lateral.accel.mps2", "2.0"));
+            this.pipelineCapacity = Integer.parseInt(props.getProperty("pipeline.capacity", "1024"));
+            this.pipelineBatchSize = Integer.parseInt(props.getProperty("pipeline.batch.size", "64"));
+            this.pipelineWaitStrategy = WaitStrategy.valueOf(
+                props.getProperty("pipeline.wait.strategy", "PARK").trim().toUpperCase(Locale.ROOT));
+            this.pipelineOverflowPolicy = OverflowPolicy.valueOf(
+                props.getProperty("pipeline.overflow.policy", "COALESCE").trim().toUpperCase(Locale.ROOT));
+            this.stationTableCapacity = Integer.parseInt(props.getProperty("station.table.capacity", "65536"));
+            this.stationTtlMs = Long.parseLong(props.getProperty("station.ttl.ms", "5000"));
+            this.spatialCellSizeM = Double.parseDouble(props.getProperty("spatial.cell.size.m", "250"));
+            this.proximityRadiusM = Double.parseDouble(props.getProperty("proximity.radius.m", "300"));
+            this.proximityNearestCount = Integer.parseInt(props.getProperty("proximity.nearest.count", "5"));
+            this.conflictEnabled = Boolean.parseBoolean(props.getProperty("conflict.enabled", "false"));
+            this.conflictRadiusM = Double.parseDouble(props.getProperty("conflict.radius.m", "5"));
+            this.conflictHorizonSeconds = Double.parseDouble(props.getProperty("conflict.horizon.seconds", "6"));
+            this.conflictBudgetMs = Long.parseLong(props.getProperty("conflict.budget.ms", "100"));
+            this.conflictVectorEnabled = Boolean.parseBoolean(props.getProperty("conflict.vector.enabled", "true"));
+            this.denmCacheCapacity = Integer.parseInt(props.getProperty("denm.cache.capacity", "4096"));
+            this.denmValidityMs = Long.parseLong(props.getProperty("denm.validity.ms", "600000"));
+            this.denmTerminatedRetentionMs = Long.parseLong(props.getProperty("denm.terminated.retention.ms", "60000"));
+            this.denmSchedulerEnabled = Boolean.parseBoolean(props.getProperty("denm.scheduler.enabled", "false"));
+            this.denmSchedulerRatePerSecond = Double.parseDouble(
+                props.getProperty("denm.scheduler.rate.per.second", "20"));
+            this.denmSchedulerBurst = Integer.parseInt(props.getProperty("denm.scheduler.burst", "50"));
+            this.denmSchedulerCapacity = Integer.parseInt(props.getProperty("denm.scheduler.capacity", "1024"));
+            this.denmSchedulerJournal = props.getProperty("denm.scheduler.journal", "denm-journal.csv").trim();
+            this.denmSchedulerBatchFile = props.getProperty("denm.scheduler.batch.file", "").trim();
+            this.metricsEnabled = Boolean.parseBoolean(props.getProperty("metrics.enabled", "false"));
+            this.metricsJmxEnabled = Boolean.parseBoolean(props.getProperty("metrics.jmx.enabled", "true"));
+            this.metricsHttpHost = props.getProperty("metrics.http.host", "127.0.0.1").trim();
+            this.metricsHttpPort = Integer.parseInt(props.getProperty("metrics.http.port", "9404"));
+            this.metricsWindowSeconds = Long.parseLong(props.getProperty("metrics.window.seconds", "60"));
+            this.loadVehicles = Integer.parseInt(props.getProperty("loadgen.vehicles", "100"));
+            this.loadRampPerSecond = Double.parseDouble(props.getProperty("loadgen.ramp.per.second", "10"));
+            this.loadDurationSeconds = Long.parseLong(props.getProperty("loadgen.duration.seconds", "120"));
+            this.loadDenmIntervalSeconds = Long.parseLong(props.getProperty("loadgen.denm.interval.seconds", "30"));
+            this.loadSpreadM = Double.parseDouble(props.getProperty("loadgen.spread.m", "2000"));
+            this.loadRouteThreads = Integer.parseInt(props.getProperty("loadgen.route.threads", "4"));
         }
     }
 
@@ -58,4 +264,322 @@ public class AppConfig {
     public boolean isDenmServiceEnabled() {
         return denmServiceEnabled;
     }
+
+    public StepInstance getStepInstance() {
+        return stepInstance;
+    }
+
+    public String getMqttClientId() {
+        return mqttClientId;
+    }
+
+    /** Address to resolve the STEP instance's MQTT host to, e.g. a local broker; empty to use DNS. */
+    public String getMqttRedirect() {
+        return mqttRedirect;
+    }
+
+    /** Publish and subscribe group for both CAM and DENM. */
+    public String getGroup() {
+        return group;
+    }
+
+    public long getStartupPollIntervalMs() {
+        return startupPollIntervalMs;
+    }
+
+    public long getStartupServiceTimeoutMs() {
+        return startupServiceTimeoutMs;
+    }
+
+    public long getStartupConnectTimeoutMs() {
+        return startupConnectTimeoutMs;
+    }
+
+    /** Warm up and checkpoint after Step 4, to be restored from there on a CRaC JVM. */
+    public boolean isStartupCheckpoint() {
+        return startupCheckpoint;
+    }
+
+    /** Classes loaded before the checkpoint, as written by the fast-start training run. */
+    public String getStartupClassList() {
+        return startupClassList;
+    }
+
+    /** Run until stopped by a signal instead of for the 5 second demonstration period. */
+    public boolean isDaemonEnabled() {
+        return daemonEnabled;
+    }
+
+    public long getDaemonWatchdogIntervalMs() {
+        return daemonWatchdogIntervalMs;
+    }
+
+    /** How long the SDK may try to reconnect on its own before the watchdog restarts the services. */
+    public long getDaemonReconnectGraceMs() {
+        return daemonReconnectGraceMs;
+    }
+
+    public long getDaemonBackoffInitialMs() {
+        return daemonBackoffInitialMs;
+    }
+
+    public long getDaemonBackoffMaxMs() {
+        return daemonBackoffMaxMs;
+    }
+
+    public long getDaemonStatsIntervalSeconds() {
+        return daemonStatsIntervalSeconds;
+    }
+
+    /** Which received CAM/DENM records get their own log line. */
+    public RecordLogSampler.Mode getLogRecordsMode() {
+        return logRecordsMode;
+    }
+
+    /** Minimum time between two lines for the same station when sampling. */
+    public long getLogStationIntervalMs() {
+        return logStationIntervalMs;
+    }
+
+    /** Period of the aggregated CAM/DENM summary lines; 0 disables them. */
+    public long getLogSummaryIntervalSeconds() {
+        return logSummaryIntervalSeconds;
+    }
+
+    /** Record received CAM/DENM lists to segment files for {@code TrafficReplayer}. */
+    public boolean isRecordingEnabled() {
+        return recordingEnabled;
+    }
+
+    public String getRecordingDirectory() {
+        return recordingDirectory;
+    }
+
+    public long getRecordingSegmentSizeMb() {
+        return recordingSegmentSizeMb;
+    }
+
+    /** Segments kept in the recording directory, oldest deleted first; 0 keeps all. */
+    public int getRecordingMaxSegments() {
+        return recordingMaxSegments;
+    }
+
+    /** Stream CAM deltas and DENM lifecycle steps to {@link #getExportSink()} in batches. */
+    public boolean isExportEnabled() {
+        return exportEnabled;
+    }
+
+    /** {@code file:<path>}, {@code tcp://host:port}, {@code udp://host:port} or {@code null}. */
+    public String getExportSink() {
+        return exportSink;
+    }
+
+    public ExportStage.Settings getExportSettings() {
+        return new ExportStage.Settings(exportBatchRecords, exportBatchMaxDelayMs, exportCompression,
+            exportQueueBatches, exportOverflow, exportRetryInitialMs, exportRetryMaxMs);
+    }
+
+    /** Follow the vehicle across map tiles and only process CAMs from its tile neighbourhood. */
+    public boolean isGeoTilesEnabled() {
+        return geoTilesEnabled;
+    }
+
+    public int getGeoTilesZoom() {
+        return geoTilesZoom;
+    }
+
+    /** Neighbour tiles in each direction around the home tile. */
+    public int getGeoTilesRing() {
+        return geoTilesRing;
+    }
+
+    public double getGeoTilesHysteresisM() {
+        return geoTilesHysteresisM;
+    }
+
+    /** Tile group name with {group}, {z}, {x}, {y} and {quadkey} placeholders. */
+    public String getGeoTilesGroupPattern() {
+        return geoTilesGroupPattern;
+    }
+
+    /** GNSS trace to replay instead of the fixed test location; empty if none. */
+    public String getTraceFile() {
+        return traceFile;
+    }
+
+    /** {@code NMEA} or {@code CSV}; empty to decide by file extension. */
+    public String getTraceFormat() {
+        return traceFormat;
+    }
+
+    public double getTraceSpeedFactor() {
+        return traceSpeedFactor;
+    }
+
+    public int getTraceMaxRateHz() {
+        return traceMaxRateHz;
+    }
+
+    public boolean isTraceLoop() {
+        return traceLoop;
+    }
+
+    /** Waypoint route to drive instead of the fixed test location; empty if none. */
+    public String getRouteFile() {
+        return routeFile;
+    }
+
+    public boolean isRouteLoop() {
+        return routeLoop;
+    }
+
+    public int getRouteRateHz() {
+        return routeRateHz;
+    }
+
+    public SpeedProfile getRouteSpeedProfile() {
+        return SpeedProfile.ofKmh(routeSpeedKmh, routeAccelerationMps2, routeDecelerationMps2,
+            routeLateralAccelMps2);
+    }
+
+    public int getPipelineCapacity() {
+        return pipelineCapacity;
+    }
+
+    public int getPipelineBatchSize() {
+        return pipelineBatchSize;
+    }
+
+    public WaitStrategy getPipelineWaitStrategy() {
+        return pipelineWaitStrategy;
+    }
+
+    public OverflowPolicy getPipelineOverflowPolicy() {
+        return pipelineOverflowPolicy;
+    }
+
+    public int getStationTableCapacity() {
+        return stationTableCapacity;
+    }
+
+    public long getStationTtlMs() {
+        return stationTtlMs;
+    }
+
+    public double getSpatialCellSizeM() {
+        return spatialCellSizeM;
+    }
+
+    public double getProximityRadiusM() {
+        return proximityRadiusM;
+    }
+
+    public int getProximityNearestCount() {
+        return proximityNearestCount;
+    }
+
+    public boolean isConflictEnabled() {
+        return conflictEnabled;
+    }
+
+    public double getConflictRadiusM() {
+        return conflictRadiusM;
+    }
+
+    public double getConflictHorizonSeconds() {
+        return conflictHorizonSeconds;
+    }
+
+    /** Conflict evaluation period, the latency budget from CAM to conflict event. */
+    public long getConflictBudgetMs() {
+        return conflictBudgetMs;
+    }
+
+    /** Use the Vector API kernel when the incubator module is available. */
+    public boolean isConflictVectorEnabled() {
+        return conflictVectorEnabled;
+    }
+
+    public int getDenmCacheCapacity() {
+        return denmCacheCapacity;
+    }
+
+    public long getDenmValidityMs() {
+        return denmValidityMs;
+    }
+
+    public long getDenmTerminatedRetentionMs() {
+        return denmTerminatedRetentionMs;
+    }
+
+    public boolean isDenmSchedulerEnabled() {
+        return denmSchedulerEnabled;
+    }
+
+    public double getDenmSchedulerRatePerSecond() {
+        return denmSchedulerRatePerSecond;
+    }
+
+    public int getDenmSchedulerBurst() {
+        return denmSchedulerBurst;
+    }
+
+    public int getDenmSchedulerCapacity() {
+        return denmSchedulerCapacity;
+    }
+
+    public String getDenmSchedulerJournal() {
+        return denmSchedulerJournal;
+    }
+
+    /** CSV of DENM requests submitted at startup; empty for none. */
+    public String getDenmSchedulerBatchFile() {
+        return denmSchedulerBatchFile;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public boolean isMetricsJmxEnabled() {
+        return metricsJmxEnabled;
+    }
+
+    public String getMetricsHttpHost() {
+        return metricsHttpHost;
+    }
+
+    /** Port of the HTTP scrape endpoint; 0 or negative disables it. */
+    public int getMetricsHttpPort() {
+        return metricsHttpPort;
+    }
+
+    public long getMetricsWindowSeconds() {
+        return metricsWindowSeconds;
+    }
+
+    public int getLoadVehicles() {
+        return loadVehicles;
+    }
+
+    public double getLoadRampPerSecond() {
+        return loadRampPerSecond;
+    }
+
+    public long getLoadDurationSeconds() {
+        return loadDurationSeconds;
+    }
+
+    public long getLoadDenmIntervalSeconds() {
+        return loadDenmIntervalSeconds;
+    }
+
+    public double getLoadSpreadM() {
+        return loadSpreadM;
+    }
+
+    /** Threads shared by all vehicles' route simulators when {@code location.route.file} is set. */
+    public int getLoadRouteThreads() {
+        return loadRouteThreads;
+    }
 }
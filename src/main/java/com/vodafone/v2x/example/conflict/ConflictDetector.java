@@ -0,0 +1,244 @@
+package com.vodafone.v2x.example.conflict;
+
+import com.vodafone.v2x.example.location.LocationFixListener;
+import com.vodafone.v2x.example.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Warns about neighbours on a collision course with us, from the kinematics in a {@link KinematicsTable}.
+ *
+ * <p>Every {@code budgetMs} a detector thread runs the {@link TtcKernel} over all neighbours against our own
+ * position and velocity, and reports each neighbour whose time to collision falls within {@code horizonS} once
+ * through {@link ConflictListener#onConflict}, and again through {@link ConflictListener#onConflictCleared} when
+ * it no longer does. A conflict is therefore published at most one period plus one evaluation after the CAM that
+ * revealed it was handled; evaluations that take longer than the period are counted as budget overruns.
+ *
+ * <p>Our position comes from the location fixes, our velocity from the difference between consecutive fixes.
+ * Listeners are called after the table is released, so they may block without stalling the CAM pipeline.
+ */
+public class ConflictDetector implements LocationFixListener, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConflictDetector.class);
+    /** Fixes further apart than this give no usable velocity. */
+    private static final long MAX_FIX_GAP_MS = 5_000L;
+
+    private final KinematicsTable table;
+    private final TtcKernel kernel;
+    private final double radiusM;
+    private final double horizonS;
+    private final long budgetMs;
+    private final LongSupplier ownStationId;
+    private final ScheduledExecutorService scheduler;
+    private ConflictListener[] listeners = new ConflictListener[0];
+    private LatencyHistogram cycleTime;
+
+    // Ego state, written on the location provider thread
+    private double egoX;
+    private double egoY;
+    private double egoVx;
+    private double egoVy;
+    private long lastFixMs = -1;
+
+    // Detector thread only
+    private double[] ttc = new double[0];
+    private long[] conflictIds = new long[16];
+    private double[] conflictTtcs = new double[16];
+    private double[] conflictDistances = new double[16];
+    private int conflictCount;
+    private long[] clearedIds = new long[16];
+    private int clearedCount;
+
+    private volatile int activeConflicts;
+    private volatile long evaluations;
+    private volatile long conflictsReported;
+    private volatile long budgetOverruns;
+
+    /**
+     * @param radiusM      distance between the two vehicles that counts as a collision
+     * @param horizonS     conflicts further ahead than this are ignored
+     * @param budgetMs     evaluation period, the latency budget from CAM to conflict event
+     * @param ownStationId supplies our station ID (or -1 while unknown) so our own CAM echo is skipped
+     */
+    public ConflictDetector(KinematicsTable table, TtcKernel kernel, double radiusM, double horizonS,
+                            long budgetMs, LongSupplier ownStationId) {
+        if (radiusM <= 0 || horizonS <= 0 || budgetMs <= 0) {
+            throw new IllegalArgumentException("radiusM, horizonS and budgetMs must be positive");
+        }
+        this.table = table;
+        this.kernel = kernel;
+        this.radiusM = radiusM;
+        this.horizonS = horizonS;
+        this.budgetMs = budgetMs;
+        this.ownStationId = ownStationId;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "conflict-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized ConflictDetector addListener(ConflictListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        return this;
+    }
+
+    /** Records the duration of every evaluation, in nanoseconds. */
+    public ConflictDetector recordCycleTime(LatencyHistogram histogram) {
+        this.cycleTime = histogram;
+        return this;
+    }
+
+    public void start() {
+        logger.info("Conflict detection: {} kernel, radius {} m, horizon {} s, every {} ms", kernel.name(),
+            radiusM, horizonS, budgetMs);
+        scheduler.scheduleAtFixedRate(this::evaluate, budgetMs, budgetMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void onFix(double latitude, double longitude, long timestampMs) {
+        double x = table.x(longitude);
+        double y = table.y(latitude);
+        long dtMs = timestampMs - lastFixMs;
+        if (lastFixMs >= 0 && dtMs > 0 && dtMs <= MAX_FIX_GAP_MS) {
+            egoVx = (x - egoX) * 1000.0 / dtMs;
+            egoVy = (y - egoY) * 1000.0 / dtMs;
+        } else if (lastFixMs < 0 || dtMs > MAX_FIX_GAP_MS) {
+            egoVx = 0;
+            egoVy = 0;
+        }
+        egoX = x;
+        egoY = y;
+        lastFixMs = timestampMs;
+    }
+
+    private void evaluate() {
+        try {
+            long startNanos = System.nanoTime();
+            double ex;
+            double ey;
+            double evx;
+            double evy;
+            ConflictListener[] current;
+            synchronized (this) {
+                if (lastFixMs < 0) {
+                    return;
+                }
+                ex = egoX;
+                ey = egoY;
+                evx = egoVx;
+                evy = egoVy;
+                current = listeners;
+            }
+            long self = ownStationId.getAsLong();
+            conflictCount = 0;
+            clearedCount = 0;
+            int active = 0;
+            synchronized (table) {
+                int count = table.size;
+                if (ttc.length < count) {
+                    ttc = new double[table.stationIds.length];
+                }
+                kernel.timeToCollision(ex, ey, evx, evy, table.xs, table.ys, table.vxs, table.vys, count,
+                    radiusM, horizonS, ttc);
+                for (int i = 0; i < count; i++) {
+                    boolean conflict = ttc[i] != Double.POSITIVE_INFINITY && table.stationIds[i] != self;
+                    if (conflict) {
+                        active++;
+                        if (!table.inConflict[i]) {
+                            table.inConflict[i] = true;
+                            addConflict(table.stationIds[i], ttc[i],
+                                Math.hypot(table.xs[i] - ex, table.ys[i] - ey));
+                        }
+                    } else if (table.inConflict[i]) {
+                        table.inConflict[i] = false;
+                        addCleared(table.stationIds[i]);
+                    }
+                }
+                for (int i = 0; i < table.removedInConflictCount; i++) {
+                    addCleared(table.removedInConflict[i]);
+                }
+                table.removedInConflictCount = 0;
+            }
+            activeConflicts = active;
+
+            for (int i = 0; i < conflictCount; i++) {
+                for (ConflictListener listener : current) {
+                    listener.onConflict(conflictIds[i], conflictTtcs[i], conflictDistances[i]);
+                }
+            }
+            for (int i = 0; i < clearedCount; i++) {
+                for (ConflictListener listener : current) {
+                    listener.onConflictCleared(clearedIds[i]);
+                }
+            }
+            conflictsReported += conflictCount;
+            evaluations++;
+
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (cycleTime != null) {
+                cycleTime.record(elapsedNanos);
+            }
+            if (elapsedNanos > TimeUnit.MILLISECONDS.toNanos(budgetMs)) {
+                budgetOverruns++;
+                logger.debug("Conflict evaluation took {} us, over the {} ms budget",
+                    TimeUnit.NANOSECONDS.toMicros(elapsedNanos), budgetMs);
+            }
+        } catch (RuntimeException e) {
+            // A failing listener must not cancel the periodic task
+            logger.error("Conflict detector error", e);
+        }
+    }
+
+    private void addConflict(long stationId, double ttcSeconds, double distanceM) {
+        if (conflictCount == conflictIds.length) {
+            conflictIds = Arrays.copyOf(conflictIds, conflictCount * 2);
+            conflictTtcs = Arrays.copyOf(conflictTtcs, conflictCount * 2);
+            conflictDistances = Arrays.copyOf(conflictDistances, conflictCount * 2);
+        }
+        conflictIds[conflictCount] = stationId;
+        conflictTtcs[conflictCount] = ttcSeconds;
+        conflictDistances[conflictCount] = distanceM;
+        conflictCount++;
+    }
+
+    private void addCleared(long stationId) {
+        if (clearedCount == clearedIds.length) {
+            clearedIds = Arrays.copyOf(clearedIds, clearedCount * 2);
+        }
+        clearedIds[clearedCount++] = stationId;
+    }
+
+    /** Neighbours on a collision course at the last evaluation. */
+    public int getActiveConflicts() {
+        return activeConflicts;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public long getConflictsReported() {
+        return conflictsReported;
+    }
+
+    /** Evaluations that took longer than the budget. */
+    public long getBudgetOverruns() {
+        return budgetOverruns;
+    }
+
+    public String getKernelName() {
+        return kernel.name();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
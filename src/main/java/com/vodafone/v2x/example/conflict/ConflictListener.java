@@ -0,0 +1,17 @@
+package com.vodafone.v2x.example.conflict;
+
+/**
+ * Notified by {@link ConflictDetector} when a neighbour enters or leaves a collision course with us, on the
+ * detector thread.
+ */
+public interface ConflictListener {
+
+    /**
+     * @param ttcSeconds time until the neighbour comes within the collision radius, 0 if it already is
+     * @param distanceM  current distance to the neighbour
+     */
+    void onConflict(long stationId, double ttcSeconds, double distanceM);
+
+    /** The neighbour is no longer on a collision course within the horizon, or is gone. */
+    void onConflictCleared(long stationId);
+}
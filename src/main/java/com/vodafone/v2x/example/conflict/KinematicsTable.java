@@ -0,0 +1,159 @@
+package com.vodafone.v2x.example.conflict;
+
+import com.vodafone.v2x.example.delta.CamDeltaListener;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.util.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Latest kinematics of every neighbour, in structure-of-arrays form for the {@link TtcKernel}s.
+ *
+ * <p>Besides the CAM values ({@code latitudes}, {@code longitudes}, {@code speedsMps}, {@code headingsDeg}) each
+ * row holds its position and velocity on the same local equirectangular plane as
+ * {@link com.vodafone.v2x.example.spatial.SpatialGrid}. Rows are kept dense in {@code [0, size)}: a removed row is
+ * overwritten by the last one, so the kernels stream over contiguous arrays with no holes. A
+ * {@link LongIntHashMap} maps station ID to row.
+ *
+ * <p>Fed as a {@link CamDeltaListener} from the CAM pipeline thread and read by {@link ConflictDetector}; both
+ * hold the table's monitor.
+ */
+public class KinematicsTable implements CamDeltaListener {
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+    private static final double METERS_PER_DEGREE_LAT = EARTH_RADIUS_M * Math.PI / 180.0;
+    private static final double KMH_TO_MPS = 1.0 / 3.6;
+
+    private final double metersPerDegreeLon;
+    private final LongIntHashMap index;
+
+    final long[] stationIds;
+    final double[] latitudes;
+    final double[] longitudes;
+    final double[] speedsMps;
+    final double[] headingsDeg;
+    final double[] xs;
+    final double[] ys;
+    final double[] vxs;
+    final double[] vys;
+    /** Whether the row's station is in conflict, as last reported by the detector. */
+    final boolean[] inConflict;
+    int size;
+
+    /** Stations removed while in conflict, for the detector to report as cleared. */
+    long[] removedInConflict = new long[16];
+    int removedInConflictCount;
+
+    private long rejectedCount;
+
+    /**
+     * @param capacity          maximum number of neighbours tracked at once
+     * @param referenceLatitude latitude the projection is centred on, e.g. the vehicle's start position
+     */
+    public KinematicsTable(int capacity, double referenceLatitude) {
+        this.metersPerDegreeLon = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(referenceLatitude));
+        this.index = new LongIntHashMap(capacity);
+        this.stationIds = new long[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.speedsMps = new double[capacity];
+        this.headingsDeg = new double[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.vxs = new double[capacity];
+        this.vys = new double[capacity];
+        this.inConflict = new boolean[capacity];
+    }
+
+    @Override
+    public void onCamAdded(CamSample cam) {
+        update(cam.getStationId(), cam.getLatitude(), cam.getLongitude(), cam.getSpeedKmh(), cam.getHeadingDeg());
+    }
+
+    @Override
+    public void onCamUpdated(CamSample cam) {
+        update(cam.getStationId(), cam.getLatitude(), cam.getLongitude(), cam.getSpeedKmh(), cam.getHeadingDeg());
+    }
+
+    @Override
+    public void onCamRemoved(long stationId) {
+        remove(stationId);
+    }
+
+    /**
+     * Inserts or updates a neighbour; heading is degrees clockwise from north.
+     *
+     * @return {@code false} if the station is new and the table is full
+     */
+    public synchronized boolean update(long stationId, double latitude, double longitude, double speedKmh,
+                                       double headingDeg) {
+        int row = index.get(stationId);
+        if (row == LongIntHashMap.MISSING) {
+            if (size == stationIds.length) {
+                rejectedCount++;
+                return false;
+            }
+            row = size++;
+            stationIds[row] = stationId;
+            inConflict[row] = false;
+            index.put(stationId, row);
+        }
+        double speedMps = speedKmh * KMH_TO_MPS;
+        double heading = Math.toRadians(headingDeg);
+        latitudes[row] = latitude;
+        longitudes[row] = longitude;
+        speedsMps[row] = speedMps;
+        headingsDeg[row] = headingDeg;
+        xs[row] = x(longitude);
+        ys[row] = y(latitude);
+        vxs[row] = speedMps * Math.sin(heading);
+        vys[row] = speedMps * Math.cos(heading);
+        return true;
+    }
+
+    public synchronized boolean remove(long stationId) {
+        int row = index.remove(stationId);
+        if (row == LongIntHashMap.MISSING) {
+            return false;
+        }
+        if (inConflict[row]) {
+            if (removedInConflictCount == removedInConflict.length) {
+                removedInConflict = Arrays.copyOf(removedInConflict, removedInConflictCount * 2);
+            }
+            removedInConflict[removedInConflictCount++] = stationId;
+        }
+        int last = --size;
+        if (row != last) {
+            stationIds[row] = stationIds[last];
+            latitudes[row] = latitudes[last];
+            longitudes[row] = longitudes[last];
+            speedsMps[row] = speedsMps[last];
+            headingsDeg[row] = headingsDeg[last];
+            xs[row] = xs[last];
+            ys[row] = ys[last];
+            vxs[row] = vxs[last];
+            vys[row] = vys[last];
+            inConflict[row] = inConflict[last];
+            index.put(stationIds[row], row);
+        }
+        return true;
+    }
+
+    /** Projected x (east) in metres of a longitude. */
+    double x(double longitude) {
+        return longitude * metersPerDegreeLon;
+    }
+
+    /** Projected y (north) in metres of a latitude. */
+    double y(double latitude) {
+        return latitude * METERS_PER_DEGREE_LAT;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** New stations dropped because the table was full. */
+    public synchronized long rejectedCount() {
+        return rejectedCount;
+    }
+}
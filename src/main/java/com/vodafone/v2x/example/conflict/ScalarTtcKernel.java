@@ -0,0 +1,48 @@
+package com.vodafone.v2x.example.conflict;
+
+/**
+ * Plain loop implementation of {@link TtcKernel}; also finishes the tail of the vector kernel.
+ */
+public final class ScalarTtcKernel implements TtcKernel {
+    /** Relative speeds below this (m/s, squared) count as moving in parallel. */
+    static final double MIN_RELATIVE_SPEED_SQ = 1e-6;
+
+    @Override
+    public void timeToCollision(double egoX, double egoY, double egoVx, double egoVy,
+                                double[] x, double[] y, double[] vx, double[] vy, int count,
+                                double radiusM, double horizonS, double[] ttcOut) {
+        compute(0, count, egoX, egoY, egoVx, egoVy, x, y, vx, vy, radiusM * radiusM, horizonS, ttcOut);
+    }
+
+    static void compute(int from, int to, double egoX, double egoY, double egoVx, double egoVy,
+                        double[] x, double[] y, double[] vx, double[] vy,
+                        double radiusSq, double horizonS, double[] ttcOut) {
+        for (int i = from; i < to; i++) {
+            double px = x[i] - egoX;
+            double py = y[i] - egoY;
+            double rvx = vx[i] - egoVx;
+            double rvy = vy[i] - egoVy;
+            double c = px * px + py * py - radiusSq;
+            if (c <= 0) {
+                ttcOut[i] = 0;
+                continue;
+            }
+            double pv = px * rvx + py * rvy;
+            double vv = rvx * rvx + rvy * rvy;
+            double disc = pv * pv - vv * c;
+            double ttc = Double.POSITIVE_INFINITY;
+            if (disc >= 0 && vv > MIN_RELATIVE_SPEED_SQ) {
+                double t = (-pv - Math.sqrt(disc)) / vv;
+                if (t >= 0 && t <= horizonS) {
+                    ttc = t;
+                }
+            }
+            ttcOut[i] = ttc;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
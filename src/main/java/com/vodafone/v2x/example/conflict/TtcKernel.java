@@ -0,0 +1,44 @@
+package com.vodafone.v2x.example.conflict;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ego-relative time to collision over neighbour kinematics in structure-of-arrays form.
+ *
+ * <p>Positions are metres and velocities metres per second on a local plane. For neighbour {@code i} the relative
+ * position {@code p} and velocity {@code v} give the first time {@code t >= 0} at which {@code |p + v t|} drops to
+ * {@code radiusM}, i.e. the smaller root of {@code |v|^2 t^2 + 2 (p.v) t + |p|^2 - radiusM^2 = 0}. Neighbours
+ * already within {@code radiusM} get 0; those that never come that close, or only after {@code horizonS}, get
+ * {@link Double#POSITIVE_INFINITY}.
+ */
+public interface TtcKernel {
+
+    /**
+     * Writes the time to collision in seconds of neighbours {@code [0, count)} into {@code ttcOut}.
+     */
+    void timeToCollision(double egoX, double egoY, double egoVx, double egoVy,
+                         double[] x, double[] y, double[] vx, double[] vy, int count,
+                         double radiusM, double horizonS, double[] ttcOut);
+
+    /** Short name for logs and benchmarks. */
+    String name();
+
+    /**
+     * The Vector API kernel when {@code jdk.incubator.vector} is in the boot layer (run with
+     * {@code --add-modules jdk.incubator.vector}) and {@code preferVector} is set, otherwise the scalar kernel.
+     */
+    static TtcKernel create(boolean preferVector) {
+        Logger logger = LoggerFactory.getLogger(TtcKernel.class);
+        if (preferVector && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded by name so the scalar path never links against the incubator module
+                return (TtcKernel) Class.forName("com.vodafone.v2x.example.conflict.VectorTtcKernel")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Vector API kernel unavailable, using the scalar kernel: {}", e.toString());
+            }
+        }
+        return new ScalarTtcKernel();
+    }
+}
@@ -0,0 +1,28 @@
+package com.vodafone.v2x.example.delta;
+
+import com.vodafone.v2x.example.model.CamSample;
+
+/**
+ * Receives only the CAM changes between two consecutive {@code CAM_LIST_CHANGED} snapshots.
+ *
+ * <p>Callbacks run on the thread delivering the SDK events. The {@link CamSample} is reused by the tracker and
+ * must be copied if it is needed after the callback returns.
+ */
+public interface CamDeltaListener {
+
+    /** A station that was not in the previous snapshot. */
+    void onCamAdded(CamSample cam);
+
+    /** A station whose CAM content changed since the previous snapshot. */
+    void onCamUpdated(CamSample cam);
+
+    /**
+     * A station still in the snapshot with the same CAM content. Lets state with a time-to-live refresh the
+     * station's last-seen time; nothing to do by default.
+     */
+    default void onCamUnchanged(CamSample cam) {
+    }
+
+    /** A station that is no longer in the SDK's CAM list. */
+    void onCamRemoved(long stationId);
+}
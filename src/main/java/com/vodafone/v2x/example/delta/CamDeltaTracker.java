@@ -0,0 +1,115 @@
+package com.vodafone.v2x.example.delta;
+
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
+import com.vodafone.v2xsdk4javav2.facade.events.EventCamListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
+import com.vodafone.v2xsdk4javav2.facade.events.EventType;
+import com.vodafone.v2xsdk4javav2.facade.records.cam.CAMRecord;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Turns full {@code CAM_LIST_CHANGED} snapshots into added / updated / removed callbacks.
+ *
+ * <p>Each record is reduced to a fingerprint and compared with the previous snapshot, so downstream listeners
+ * only do work for stations that actually changed; the rest only get the cheap
+ * {@link CamDeltaListener#onCamUnchanged}, which keeps last-seen times current. Snapshots can also be fed without
+ * the SDK through {@link #beginSnapshot()}, {@link #accept(CamSample)} and {@link #endSnapshot()}. An optional
+ * {@link #filter} drops CAMs before the diff, so a station it rejects is reported as removed. Not thread-safe;
+ * subscribe it behind an {@code EventPipeline}.
+ */
+public class CamDeltaTracker implements EventListener {
+    private final SnapshotDiff diff = new SnapshotDiff(256);
+    private final CamSample sample = new CamSample();
+    private final LongConsumer removedDispatcher = this::fireRemoved;
+    private volatile CamDeltaListener[] listeners = new CamDeltaListener[0];
+    private volatile Predicate<CamSample> filter;
+    private long filteredCount;
+
+    public synchronized CamDeltaTracker addListener(CamDeltaListener listener) {
+        CamDeltaListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+        return this;
+    }
+
+    /**
+     * Only CAMs matching {@code filter} take part in snapshots from now on; {@code null} accepts all.
+     */
+    public CamDeltaTracker filter(Predicate<CamSample> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    @Override
+    public void onMessageBusEvent(BaseEvent baseEvent) {
+        if (baseEvent.getEventType() == EventType.CAM_LIST_CHANGED) {
+            EventCamListChanged event = (EventCamListChanged) baseEvent;
+            beginSnapshot();
+            for (CAMRecord cam : event.getList()) {
+                accept(sample.copyFrom(cam));
+            }
+            endSnapshot();
+        }
+    }
+
+    public void beginSnapshot() {
+        diff.begin();
+    }
+
+    /**
+     * Adds one CAM to the current snapshot, notifying listeners if it is new or changed.
+     */
+    public void accept(CamSample cam) {
+        Predicate<CamSample> current = filter;
+        if (current != null && !current.test(cam)) {
+            filteredCount++;
+            return;
+        }
+        switch (diff.observe(cam.getStationId(), cam.fingerprint())) {
+            case SnapshotDiff.ADDED:
+                for (CamDeltaListener listener : listeners) {
+                    listener.onCamAdded(cam);
+                }
+                break;
+            case SnapshotDiff.UPDATED:
+                for (CamDeltaListener listener : listeners) {
+                    listener.onCamUpdated(cam);
+                }
+                break;
+            default:
+                for (CamDeltaListener listener : listeners) {
+                    listener.onCamUnchanged(cam);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Closes the current snapshot, notifying listeners of every station it did not contain.
+     *
+     * @return number of stations removed
+     */
+    public int endSnapshot() {
+        return diff.end(removedDispatcher);
+    }
+
+    private void fireRemoved(long stationId) {
+        for (CamDeltaListener listener : listeners) {
+            listener.onCamRemoved(stationId);
+        }
+    }
+
+    /** Number of stations in the last snapshot. */
+    public int size() {
+        return diff.size();
+    }
+
+    /** CAMs dropped by the filter so far. */
+    public long filteredCount() {
+        return filteredCount;
+    }
+}
@@ -0,0 +1,21 @@
+package com.vodafone.v2x.example.delta;
+
+import com.vodafone.v2x.example.model.DenmSample;
+
+/**
+ * Receives only the DENM changes between two consecutive {@code DENM_LIST_CHANGED} snapshots.
+ *
+ * <p>Callbacks run on the thread delivering the SDK events. The {@link DenmSample} is reused by the tracker and
+ * must be copied if it is needed after the callback returns.
+ */
+public interface DenmDeltaListener {
+
+    /** A DENM event (originator, sequence number) that was not in the previous snapshot. */
+    void onDenmAdded(DenmSample denm);
+
+    /** A DENM event whose content changed since the previous snapshot. */
+    void onDenmUpdated(DenmSample denm);
+
+    /** A DENM event that is no longer in the SDK's DENM list. */
+    void onDenmRemoved(long originatorId, long sequenceNumber);
+}
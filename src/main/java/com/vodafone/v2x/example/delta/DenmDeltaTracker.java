@@ -0,0 +1,89 @@
+package com.vodafone.v2x.example.delta;
+
+import com.vodafone.v2x.example.model.DenmSample;
+import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
+import com.vodafone.v2xsdk4javav2.facade.events.EventDenmListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
+import com.vodafone.v2xsdk4javav2.facade.events.EventType;
+import com.vodafone.v2xsdk4javav2.facade.records.denm.DENMRecord;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Turns full {@code DENM_LIST_CHANGED} snapshots into added / updated / removed callbacks.
+ *
+ * <p>Each record is keyed by (originator, sequence number), reduced to a fingerprint and compared with the
+ * previous snapshot, so downstream listeners only do work for events that actually changed. Snapshots can also be
+ * fed without the SDK through {@link #beginSnapshot()}, {@link #accept(DenmSample)} and {@link #endSnapshot()}.
+ * Not thread-safe; subscribe it behind an {@code EventPipeline}.
+ */
+public class DenmDeltaTracker implements EventListener {
+    private final SnapshotDiff diff = new SnapshotDiff(64);
+    private final DenmSample sample = new DenmSample();
+    private final LongConsumer removedDispatcher = this::fireRemoved;
+    private volatile DenmDeltaListener[] listeners = new DenmDeltaListener[0];
+
+    public synchronized DenmDeltaTracker addListener(DenmDeltaListener listener) {
+        DenmDeltaListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+        return this;
+    }
+
+    @Override
+    public void onMessageBusEvent(BaseEvent baseEvent) {
+        if (baseEvent.getEventType() == EventType.DENM_LIST_CHANGED) {
+            EventDenmListChanged event = (EventDenmListChanged) baseEvent;
+            beginSnapshot();
+            for (DENMRecord denm : event.getList()) {
+                accept(sample.copyFrom(denm));
+            }
+            endSnapshot();
+        }
+    }
+
+    public void beginSnapshot() {
+        diff.begin();
+    }
+
+    /**
+     * Adds one DENM to the current snapshot, notifying listeners if it is new or changed.
+     */
+    public void accept(DenmSample denm) {
+        switch (diff.observe(denm.key(), denm.fingerprint())) {
+            case SnapshotDiff.ADDED:
+                for (DenmDeltaListener listener : listeners) {
+                    listener.onDenmAdded(denm);
+                }
+                break;
+            case SnapshotDiff.UPDATED:
+                for (DenmDeltaListener listener : listeners) {
+                    listener.onDenmUpdated(denm);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Closes the current snapshot, notifying listeners of every DENM event it did not contain.
+     *
+     * @return number of DENM events removed
+     */
+    public int endSnapshot() {
+        return diff.end(removedDispatcher);
+    }
+
+    private void fireRemoved(long key) {
+        for (DenmDeltaListener listener : listeners) {
+            listener.onDenmRemoved(DenmSample.originatorOf(key), DenmSample.sequenceNumberOf(key));
+        }
+    }
+
+    /** Number of DENM events in the last snapshot. */
+    public int size() {
+        return diff.size();
+    }
+}
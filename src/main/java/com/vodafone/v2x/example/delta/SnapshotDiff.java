@@ -0,0 +1,117 @@
+package com.vodafone.v2x.example.delta;
+
+import com.vodafone.v2x.example.util.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Remembers the fingerprint of every key in the previous snapshot and classifies each key of the next one.
+ *
+ * <p>Every snapshot gets a new epoch number; a key's slot records the epoch in which it was last seen, so keys
+ * missing from a snapshot are the live slots with an older epoch. The removal sweep is skipped entirely when
+ * every previously known key was seen again, which is the common case. Not thread-safe.
+ */
+final class SnapshotDiff {
+    static final int UNCHANGED = 0;
+    static final int ADDED = 1;
+    static final int UPDATED = 2;
+
+    private static final long FREE = 0;
+
+    private final LongIntHashMap index;
+    private long[] keys;
+    private long[] fingerprints;
+    private long[] seenEpochs;
+    private int[] freeSlots;
+    private int freeCount;
+    private int highWater;
+    private long epoch;
+    private int liveCount;
+    private int seenCount;
+
+    SnapshotDiff(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        this.index = new LongIntHashMap(capacity);
+        this.keys = new long[capacity];
+        this.fingerprints = new long[capacity];
+        this.seenEpochs = new long[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    void begin() {
+        epoch++;
+        seenCount = 0;
+    }
+
+    /**
+     * Records {@code key} as present in the current snapshot.
+     *
+     * @return {@link #ADDED}, {@link #UPDATED} or {@link #UNCHANGED}
+     */
+    int observe(long key, long fingerprint) {
+        int slot = index.get(key);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = allocate();
+            keys[slot] = key;
+            fingerprints[slot] = fingerprint;
+            seenEpochs[slot] = epoch;
+            index.put(key, slot);
+            liveCount++;
+            seenCount++;
+            return ADDED;
+        }
+        if (seenEpochs[slot] != epoch) {
+            seenEpochs[slot] = epoch;
+            seenCount++;
+        }
+        if (fingerprints[slot] == fingerprint) {
+            return UNCHANGED;
+        }
+        fingerprints[slot] = fingerprint;
+        return UPDATED;
+    }
+
+    /**
+     * Forgets every key that was not observed since {@link #begin()} and reports it to {@code onRemoved}.
+     *
+     * @return number of keys removed
+     */
+    int end(LongConsumer onRemoved) {
+        if (seenCount == liveCount) {
+            return 0;
+        }
+        int removed = 0;
+        for (int slot = 0; slot < highWater; slot++) {
+            long seen = seenEpochs[slot];
+            if (seen != FREE && seen != epoch) {
+                long key = keys[slot];
+                index.remove(key);
+                seenEpochs[slot] = FREE;
+                freeSlots[freeCount++] = slot;
+                liveCount--;
+                removed++;
+                onRemoved.accept(key);
+            }
+        }
+        return removed;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == keys.length) {
+            int capacity = keys.length << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            fingerprints = Arrays.copyOf(fingerprints, capacity);
+            seenEpochs = Arrays.copyOf(seenEpochs, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return highWater++;
+    }
+
+    int size() {
+        return liveCount;
+    }
+}
@@ -0,0 +1,154 @@
+package com.vodafone.v2x.example.denm;
+
+import com.vodafone.v2x.example.jfr.DenmOperationEvent;
+import com.vodafone.v2xsdk4javav2.facade.V2XSDK;
+import com.vodafone.v2xsdk4javav2.facade.enums.DENMType;
+import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the DENMs this station has triggered and not yet terminated, so they survive a DENM service restart.
+ *
+ * <p>Restarting the service after a lost connection drops its active DENMs. {@link #replay} triggers each of them
+ * again at its original event location; the SDK hands out new sequence numbers, so callers hold the stable handle
+ * returned by {@link #trigger} and terminate through it. Triggers are rare, so a list under a lock will do.
+ */
+public class ActiveDenmRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ActiveDenmRegistry.class);
+    private static final float EVENT_ACCURACY_M = 2.0f;
+
+    /** Notified with the sequence number of every trigger and replay, and the UTC time it was sent at. */
+    @FunctionalInterface
+    public interface TriggerListener {
+        void onTriggered(long sequenceNumber, long triggeredAtMs);
+    }
+
+    private static final class ActiveDenm {
+        final int handle;
+        final DENMType type;
+        final double latitude;
+        final double longitude;
+        final double altitude;
+        long sequenceNumber;
+
+        ActiveDenm(int handle, DENMType type, double latitude, double longitude, double altitude) {
+            this.handle = handle;
+            this.type = type;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.altitude = altitude;
+        }
+    }
+
+    private final V2XSDK sdk;
+    private final TriggerListener listener;
+    private final List<ActiveDenm> active = new ArrayList<>();
+    private int nextHandle;
+
+    /**
+     * @param listener notified of every trigger, or {@code null}
+     */
+    public ActiveDenmRegistry(V2XSDK sdk, TriggerListener listener) {
+        this.sdk = sdk;
+        this.listener = listener;
+    }
+
+    /**
+     * Triggers a DENM and keeps it active until {@link #terminate}.
+     *
+     * @return handle for {@link #terminate} and {@link #sequenceNumber}, or -1 if the SDK did not trigger it
+     */
+    public synchronized int trigger(DENMType type, double latitude, double longitude, double altitude) {
+        ActiveDenm denm = new ActiveDenm(nextHandle++, type, latitude, longitude, altitude);
+        if (!send(denm)) {
+            logger.warn("{} DENM was not triggered", type);
+            return -1;
+        }
+        active.add(denm);
+        return denm.handle;
+    }
+
+    /** Current sequence number of an active DENM, or -1 if it is no longer active or its last replay failed. */
+    public synchronized long sequenceNumber(int handle) {
+        ActiveDenm denm = find(handle);
+        return denm != null ? denm.sequenceNumber : -1;
+    }
+
+    /** Terminates an active DENM; returns {@code false} if it was not active. */
+    public synchronized boolean terminate(int handle) {
+        ActiveDenm denm = find(handle);
+        if (denm == null) {
+            return false;
+        }
+        active.remove(denm);
+        if (denm.sequenceNumber >= 0) {
+            DenmOperationEvent.terminate(sdk, denm.sequenceNumber);
+        }
+        return true;
+    }
+
+    /** Terminates every active DENM, e.g. before shutdown. */
+    public synchronized int terminateAll() {
+        int terminated = active.size();
+        for (ActiveDenm denm : active) {
+            if (denm.sequenceNumber >= 0) {
+                DenmOperationEvent.terminate(sdk, denm.sequenceNumber);
+            }
+        }
+        active.clear();
+        return terminated;
+    }
+
+    /**
+     * Triggers every active DENM again after the DENM service was restarted. A DENM the SDK does not trigger stays
+     * active, without a sequence number, and is tried again on the next replay.
+     *
+     * @return number of DENMs replayed
+     */
+    public synchronized int replay() {
+        int replayed = 0;
+        for (ActiveDenm denm : active) {
+            long previous = denm.sequenceNumber;
+            if (send(denm)) {
+                replayed++;
+                logger.info("Replayed {} DENM: sequence number {} -> {}", denm.type, previous, denm.sequenceNumber);
+            } else {
+                logger.warn("{} DENM with sequence number {} was not replayed", denm.type, previous);
+            }
+        }
+        return replayed;
+    }
+
+    public synchronized int size() {
+        return active.size();
+    }
+
+    /** Triggers {@code denm}; returns {@code false} if the SDK failed to, leaving a negative sequence number. */
+    private boolean send(ActiveDenm denm) {
+        long triggeredAtMs = sdk.getUTCTimeInMs();
+        GnssLocation location = new GnssLocation(denm.latitude, denm.longitude, denm.altitude,
+            0.0f, 0.0f, EVENT_ACCURACY_M, triggeredAtMs);
+        long sequenceNumber = DenmOperationEvent.trigger(sdk, denm.type, location);
+        denm.sequenceNumber = sequenceNumber;
+        if (sequenceNumber < 0) {
+            return false;
+        }
+        if (listener != null) {
+            listener.onTriggered(sequenceNumber, triggeredAtMs);
+        }
+        return true;
+    }
+
+    private ActiveDenm find(int handle) {
+        for (ActiveDenm denm : active) {
+            if (denm.handle == handle) {
+                return denm;
+            }
+        }
+        return null;
+    }
+}
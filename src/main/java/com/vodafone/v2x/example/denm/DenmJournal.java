@@ -0,0 +1,137 @@
+package com.vodafone.v2x.example.denm;
+
+import com.vodafone.v2xsdk4javav2.facade.enums.DENMType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only text journal of the events a {@link DenmScheduler} keeps active, so they can be triggered again
+ * after a restart.
+ *
+ * <pre>
+ * A,&lt;eventId&gt;,&lt;DENMType&gt;,&lt;latitude&gt;,&lt;longitude&gt;,&lt;altitude&gt;,&lt;expiresAtMs&gt;   event scheduled
+ * T,&lt;eventId&gt;                                                   event terminated or expired
+ * </pre>
+ *
+ * <p>{@link #compact} rewrites the journal with just the live events through a temporary file and an atomic
+ * rename, so a crash leaves either the old or the new journal. A torn last line is skipped on load. Not
+ * thread-safe.
+ */
+final class DenmJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DenmJournal.class);
+
+    record Entry(long eventId, DENMType type, double latitude, double longitude, double altitude, long expiresAtMs) {
+    }
+
+    private final Path path;
+    private BufferedWriter writer;
+    private int lines;
+
+    DenmJournal(Path path) {
+        this.path = path;
+    }
+
+    /** Reads the events that were scheduled and not terminated, in scheduling order. */
+    List<Entry> load() throws IOException {
+        Map<Long, Entry> live = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                int number = 0;
+                while ((line = reader.readLine()) != null) {
+                    number++;
+                    try {
+                        String[] fields = line.split(",");
+                        if (fields[0].equals("A") && fields.length == 7) {
+                            Entry entry = new Entry(Long.parseLong(fields[1]), DENMType.valueOf(fields[2]),
+                                Double.parseDouble(fields[3]), Double.parseDouble(fields[4]),
+                                Double.parseDouble(fields[5]), Long.parseLong(fields[6]));
+                            live.put(entry.eventId(), entry);
+                        } else if (fields[0].equals("T") && fields.length == 2) {
+                            live.remove(Long.parseLong(fields[1]));
+                        } else {
+                            throw new IllegalArgumentException("unknown record");
+                        }
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Skipping DENM journal line {} of {}: {}", number, path, line);
+                    }
+                }
+                lines = number;
+            }
+        }
+        return new ArrayList<>(live.values());
+    }
+
+    void appendScheduled(Entry entry) throws IOException {
+        writer().write("A," + entry.eventId() + ',' + entry.type().name() + ',' + entry.latitude() + ','
+            + entry.longitude() + ',' + entry.altitude() + ',' + entry.expiresAtMs() + '\n');
+        lines++;
+    }
+
+    void appendTerminated(long eventId) throws IOException {
+        writer().write("T," + eventId + '\n');
+        lines++;
+    }
+
+    /** Hands the appended lines to the OS, so they survive a crash of the JVM. */
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /** Lines in the journal file, including those of terminated events. */
+    int lines() {
+        return lines;
+    }
+
+    /** Replaces the journal with one {@code A} line per live event. */
+    void compact(Collection<Entry> live) throws IOException {
+        close();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer = out;
+            lines = 0;
+            for (Entry entry : live) {
+                appendScheduled(entry);
+            }
+        } finally {
+            writer = null;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private BufferedWriter writer() throws IOException {
+        if (writer == null) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        }
+        return writer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
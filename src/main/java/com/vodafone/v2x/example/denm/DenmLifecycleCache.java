@@ -0,0 +1,177 @@
+package com.vodafone.v2x.example.denm;
+
+import com.vodafone.v2x.example.delta.DenmDeltaListener;
+import com.vodafone.v2x.example.model.DenmSample;
+import com.vodafone.v2x.example.timer.HierarchicalTimerWheel;
+import com.vodafone.v2x.example.util.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Deduplicates received DENMs and tracks each hazard through new, updated, terminated and expired.
+ *
+ * <p>Entries are keyed by {@link DenmSample#key()} (originator ID and sequence number) in a primitive index over
+ * preallocated slots holding cause and sub-cause. An event that reappears with the same cause is a
+ * retransmission and is suppressed. After termination the entry is kept as a tombstone for
+ * {@code terminatedRetentionMs} so late retransmissions do not resurrect it. Validity and tombstone deadlines
+ * run on a {@link HierarchicalTimerWheel}.
+ *
+ * <p>Fed as a {@link DenmDeltaListener} from the DENM pipeline thread and expired from a timer thread; all
+ * methods are synchronized, which is uncontended at DENM rates.
+ */
+public class DenmLifecycleCache implements DenmDeltaListener {
+    private static final byte FREE = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte TERMINATED = 2;
+    private static final long TICK_MS = 100L;
+
+    private final long validityMs;
+    private final long terminatedRetentionMs;
+    private final LongIntHashMap index;
+    private final HierarchicalTimerWheel wheel;
+    private final IntConsumer expiryHandler = this::onDeadline;
+    private final DenmSample scratch = new DenmSample();
+    private DenmLifecycleListener[] listeners = new DenmLifecycleListener[0];
+
+    private final long[] keys;
+    private final int[] causeCodes;
+    private final int[] subCauseCodes;
+    private final byte[] states;
+    private final int[] freeSlots;
+    private int freeCount;
+    private int size;
+
+    private long duplicatesSuppressed;
+    private long rejectedCount;
+
+    /**
+     * @param capacity              maximum number of events (including tombstones) tracked at once
+     * @param validityMs            lifetime of an event that is never terminated
+     * @param terminatedRetentionMs how long a terminated event is remembered to swallow late retransmissions
+     */
+    public DenmLifecycleCache(int capacity, long validityMs, long terminatedRetentionMs) {
+        this.validityMs = validityMs;
+        this.terminatedRetentionMs = terminatedRetentionMs;
+        this.index = new LongIntHashMap(capacity);
+        this.wheel = new HierarchicalTimerWheel(capacity, TICK_MS, System.currentTimeMillis());
+        this.keys = new long[capacity];
+        this.causeCodes = new int[capacity];
+        this.subCauseCodes = new int[capacity];
+        this.states = new byte[capacity];
+        this.freeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+    }
+
+    public synchronized DenmLifecycleCache addListener(DenmLifecycleListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        return this;
+    }
+
+    @Override
+    public synchronized void onDenmAdded(DenmSample denm) {
+        observe(denm);
+    }
+
+    @Override
+    public synchronized void onDenmUpdated(DenmSample denm) {
+        observe(denm);
+    }
+
+    @Override
+    public synchronized void onDenmRemoved(long originatorId, long sequenceNumber) {
+        int slot = index.get(DenmSample.key(originatorId, sequenceNumber));
+        if (slot == LongIntHashMap.MISSING || states[slot] != ACTIVE) {
+            return;
+        }
+        states[slot] = TERMINATED;
+        wheel.schedule(slot, System.currentTimeMillis() + terminatedRetentionMs);
+        DenmSample denm = load(slot);
+        for (DenmLifecycleListener listener : listeners) {
+            listener.onDenmTerminated(denm);
+        }
+    }
+
+    private void observe(DenmSample denm) {
+        long key = denm.key();
+        int slot = index.get(key);
+        if (slot == LongIntHashMap.MISSING) {
+            if (freeCount == 0) {
+                rejectedCount++;
+                return;
+            }
+            slot = freeSlots[--freeCount];
+            keys[slot] = key;
+            causeCodes[slot] = denm.getCauseCode();
+            subCauseCodes[slot] = denm.getSubCauseCode();
+            states[slot] = ACTIVE;
+            index.put(key, slot);
+            size++;
+            wheel.schedule(slot, System.currentTimeMillis() + validityMs);
+            for (DenmLifecycleListener listener : listeners) {
+                listener.onDenmNew(denm);
+            }
+            return;
+        }
+
+        if (states[slot] == ACTIVE
+            && (causeCodes[slot] != denm.getCauseCode() || subCauseCodes[slot] != denm.getSubCauseCode())) {
+            causeCodes[slot] = denm.getCauseCode();
+            subCauseCodes[slot] = denm.getSubCauseCode();
+            for (DenmLifecycleListener listener : listeners) {
+                listener.onDenmUpdated(denm);
+            }
+            return;
+        }
+        // Retransmission of a known event, or of one already terminated
+        duplicatesSuppressed++;
+    }
+
+    /**
+     * Expires events whose validity (or tombstone retention) has elapsed. Call periodically.
+     *
+     * @return number of entries removed
+     */
+    public synchronized int expire(long nowMs) {
+        return wheel.advance(nowMs, expiryHandler);
+    }
+
+    private void onDeadline(int slot) {
+        byte state = states[slot];
+        DenmSample denm = load(slot);
+        index.remove(keys[slot]);
+        states[slot] = FREE;
+        freeSlots[freeCount++] = slot;
+        size--;
+        if (state == ACTIVE) {
+            for (DenmLifecycleListener listener : listeners) {
+                listener.onDenmExpired(denm);
+            }
+        }
+    }
+
+    private DenmSample load(int slot) {
+        long key = keys[slot];
+        return scratch.set(DenmSample.originatorOf(key), DenmSample.sequenceNumberOf(key),
+            causeCodes[slot], subCauseCodes[slot]);
+    }
+
+    /** Number of events currently tracked, including terminated tombstones. */
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Retransmissions swallowed so far. */
+    public synchronized long duplicatesSuppressed() {
+        return duplicatesSuppressed;
+    }
+
+    /** New events turned away because the cache was full. */
+    public synchronized long rejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -0,0 +1,24 @@
+package com.vodafone.v2x.example.denm;
+
+import com.vodafone.v2x.example.model.DenmSample;
+
+/**
+ * Receives each DENM hazard once per lifecycle step, however often it is retransmitted.
+ *
+ * <p>The {@link DenmSample} is reused by the cache and must be copied if it is needed after the callback
+ * returns.
+ */
+public interface DenmLifecycleListener {
+
+    /** First sighting of a (originator, sequence number) event. */
+    void onDenmNew(DenmSample denm);
+
+    /** The cause or sub-cause of a known event changed. */
+    void onDenmUpdated(DenmSample denm);
+
+    /** The event left the SDK's DENM list, i.e. it was terminated or cancelled by its originator. */
+    void onDenmTerminated(DenmSample denm);
+
+    /** The event reached the end of its validity time without being terminated. */
+    void onDenmExpired(DenmSample denm);
+}
@@ -0,0 +1,470 @@
+package com.vodafone.v2x.example.denm;
+
+import com.vodafone.v2x.example.jfr.DenmOperationEvent;
+import com.vodafone.v2x.example.timer.HierarchicalTimerWheel;
+import com.vodafone.v2x.example.util.LongIntHashMap;
+import com.vodafone.v2x.example.util.TokenBucket;
+import com.vodafone.v2xsdk4javav2.facade.V2XSDK;
+import com.vodafone.v2xsdk4javav2.facade.enums.DENMType;
+import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Triggers DENMs in bulk for roadside units that keep hundreds of hazards active at once.
+ *
+ * <p>Callers {@link #submit} batches of {@link Request}s under their own event IDs. Requests are queued and sent
+ * by a scheduler thread no faster than a {@link TokenBucket} allows, so a large batch does not flood the SDK and
+ * the broker. Each event is terminated when its validity ends, on a {@link HierarchicalTimerWheel}, or earlier
+ * through {@link #terminate}. Event IDs and the SDK sequence numbers map to preallocated slots through
+ * {@link LongIntHashMap}s. A trigger the SDK refuses goes back to the end of the queue, and sending pauses with
+ * exponential back-off until a trigger succeeds again.
+ *
+ * <p>Scheduled events are written to a {@link DenmJournal}. On construction the events of the previous run that
+ * are still valid are queued again, so a restart does not drop hazards; {@link #close} keeps the journal for that
+ * reason, and only {@link #terminateAll} clears it. All methods are synchronized.
+ */
+public class DenmScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DenmScheduler.class);
+    private static final float EVENT_ACCURACY_M = 2.0f;
+    private static final long TICK_MS = 10L;
+    private static final long WHEEL_TICK_MS = 100L;
+    private static final int MIN_COMPACT_LINES = 1024;
+    private static final long MIN_RETRY_DELAY_MS = 100L;
+    private static final long MAX_RETRY_DELAY_MS = 5_000L;
+
+    private static final byte FREE = 0;
+    private static final byte PENDING = 1;
+    private static final byte ACTIVE = 2;
+    /** Dropped while still queued; freed when the queue reaches it. */
+    private static final byte CANCELLED = 3;
+
+    /** One event to trigger; {@code eventId} is the caller's stable identifier, e.g. a road-works ID. */
+    public record Request(long eventId, DENMType type, double latitude, double longitude, double altitude,
+                          long validityMs) {
+    }
+
+    private final V2XSDK sdk;
+    private final ActiveDenmRegistry.TriggerListener listener;
+    private final TokenBucket rateLimiter;
+    private final DenmJournal journal;
+    private final LongIntHashMap eventIndex;
+    private final LongIntHashMap sequenceIndex;
+    private final HierarchicalTimerWheel wheel;
+    private final IntConsumer expiryHandler = this::onExpired;
+    private final ScheduledExecutorService scheduler;
+
+    private final long[] eventIds;
+    private final DENMType[] types;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] altitudes;
+    private final long[] expiresAtMs;
+    private final long[] sequenceNumbers;
+    private final byte[] states;
+    private final int[] freeSlots;
+    private int freeCount;
+    private final int[] queue;
+    private int queueHead;
+    private int queueSize;
+    private int activeCount;
+    private boolean journalFailed;
+    private long retryDelayMs;
+    private long retryAtMs;
+
+    private long submitted;
+    private long rejected;
+    private long triggered;
+    private long terminated;
+    private long expired;
+    private long triggerFailures;
+
+    /**
+     * @param capacity      maximum number of events queued or active at once
+     * @param ratePerSecond sustained {@code denmTrigger} rate
+     * @param burst         triggers allowed back to back before the rate applies
+     * @param journalPath   journal file, created if missing
+     * @param listener      notified of every trigger, or {@code null}
+     */
+    public DenmScheduler(V2XSDK sdk, int capacity, double ratePerSecond, int burst, Path journalPath,
+                         ActiveDenmRegistry.TriggerListener listener) throws IOException {
+        this.sdk = sdk;
+        this.listener = listener;
+        this.rateLimiter = new TokenBucket(ratePerSecond, burst);
+        this.journal = new DenmJournal(journalPath);
+        this.eventIndex = new LongIntHashMap(capacity);
+        this.sequenceIndex = new LongIntHashMap(capacity);
+        this.wheel = new HierarchicalTimerWheel(capacity, WHEEL_TICK_MS, System.currentTimeMillis());
+        this.eventIds = new long[capacity];
+        this.types = new DENMType[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.altitudes = new double[capacity];
+        this.expiresAtMs = new long[capacity];
+        this.sequenceNumbers = new long[capacity];
+        this.states = new byte[capacity];
+        this.freeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+        this.queue = new int[capacity];
+
+        recover();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "denm-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Queues the still valid events of the previous run and rewrites the journal with just those. */
+    private void recover() throws IOException {
+        long nowMs = System.currentTimeMillis();
+        List<DenmJournal.Entry> entries = journal.load();
+        int recovered = 0;
+        for (DenmJournal.Entry entry : entries) {
+            if (entry.expiresAtMs() > nowMs && freeCount > 0 && !eventIndex.containsKey(entry.eventId())) {
+                enqueue(entry.eventId(), entry.type(), entry.latitude(), entry.longitude(), entry.altitude(),
+                    entry.expiresAtMs());
+                recovered++;
+            }
+        }
+        journal.compact(liveEntries());
+        if (!entries.isEmpty()) {
+            logger.info("Recovered {} of {} journaled DENM(s); the rest had expired", recovered, entries.size());
+        }
+    }
+
+    /**
+     * Queues a batch for triggering. Requests whose event ID is already queued or active, or that find the
+     * scheduler full, are rejected.
+     *
+     * @return number of requests accepted
+     */
+    public synchronized int submit(List<Request> batch) {
+        long nowMs = System.currentTimeMillis();
+        int accepted = 0;
+        for (Request request : batch) {
+            if (freeCount == 0 || eventIndex.containsKey(request.eventId()) || request.type() == null
+                || request.validityMs() <= 0) {
+                rejected++;
+                continue;
+            }
+            int slot = enqueue(request.eventId(), request.type(), request.latitude(), request.longitude(),
+                request.altitude(), nowMs + request.validityMs());
+            journalScheduled(slot);
+            accepted++;
+        }
+        submitted += accepted;
+        flushJournal();
+        return accepted;
+    }
+
+    /**
+     * Reads a batch file with one request per line:
+     * {@code eventId,DENMType,latitude,longitude,altitude,validitySeconds}. Blank lines and lines starting with
+     * {@code #} are skipped.
+     */
+    public static List<Request> readRequests(Path file) throws IOException {
+        List<Request> requests = new ArrayList<>();
+        int number = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            number++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s*,\\s*");
+            try {
+                if (fields.length != 6) {
+                    throw new IllegalArgumentException("expected 6 fields");
+                }
+                requests.add(new Request(Long.parseLong(fields[0]), DENMType.valueOf(fields[1]),
+                    Double.parseDouble(fields[2]), Double.parseDouble(fields[3]), Double.parseDouble(fields[4]),
+                    TimeUnit.SECONDS.toMillis(Long.parseLong(fields[5]))));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid DENM request at " + file + ":" + number + ": " + e.getMessage(), e);
+            }
+        }
+        return requests;
+    }
+
+    private int enqueue(long eventId, DENMType type, double latitude, double longitude, double altitude,
+                        long expiresAt) {
+        int slot = freeSlots[--freeCount];
+        eventIds[slot] = eventId;
+        types[slot] = type;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        altitudes[slot] = altitude;
+        expiresAtMs[slot] = expiresAt;
+        eventIndex.put(eventId, slot);
+        wheel.schedule(slot, expiresAt);
+        push(slot);
+        return slot;
+    }
+
+    /**
+     * Terminates an event now, or drops it if it has not been sent yet.
+     *
+     * @return {@code false} if the event is not scheduled
+     */
+    public synchronized boolean terminate(long eventId) {
+        int slot = eventIndex.get(eventId);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        wheel.cancel(slot);
+        end(slot);
+        terminated++;
+        flushJournal();
+        return true;
+    }
+
+    /** Terminates every event and clears the journal, e.g. when the roadside unit is decommissioned. */
+    public synchronized int terminateAll() {
+        int count = 0;
+        for (int slot = 0; slot < states.length; slot++) {
+            if (states[slot] == PENDING || states[slot] == ACTIVE) {
+                wheel.cancel(slot);
+                end(slot);
+                count++;
+            }
+        }
+        terminated += count;
+        flushJournal();
+        return count;
+    }
+
+    /**
+     * Queues every active event for triggering again after the DENM service was restarted; the replays go
+     * through the rate limiter like new requests.
+     *
+     * @return number of events queued
+     */
+    public synchronized int replay() {
+        int count = 0;
+        for (int slot = 0; slot < states.length; slot++) {
+            if (states[slot] == ACTIVE) {
+                sequenceIndex.remove(sequenceNumbers[slot]);
+                activeCount--;
+                push(slot);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Event ID a sequence number was triggered for, or -1 if it is not one of ours. */
+    public synchronized long eventIdOf(long sequenceNumber) {
+        int slot = sequenceIndex.get(sequenceNumber);
+        return slot == LongIntHashMap.MISSING ? -1 : eventIds[slot];
+    }
+
+    private void tick() {
+        try {
+            synchronized (this) {
+                wheel.advance(System.currentTimeMillis(), expiryHandler);
+                drain();
+                if (journal.lines() > Math.max(MIN_COMPACT_LINES, 4 * eventIndex.size())) {
+                    compactJournal();
+                }
+                flushJournal();
+            }
+        } catch (RuntimeException e) {
+            // A failing trigger must not cancel the periodic task
+            logger.error("DENM scheduler error", e);
+        }
+    }
+
+    /** Sends queued events while the rate limiter has tokens, unless backing off after a failed trigger. */
+    private void drain() {
+        if (retryDelayMs > 0 && System.currentTimeMillis() < retryAtMs) {
+            return;
+        }
+        while (queueSize > 0) {
+            int slot = queue[queueHead];
+            if (states[slot] == CANCELLED) {
+                pop();
+                release(slot);
+                continue;
+            }
+            if (!rateLimiter.tryAcquire()) {
+                return;
+            }
+            pop();
+            long triggeredAtMs = sdk.getUTCTimeInMs();
+            GnssLocation location = new GnssLocation(latitudes[slot], longitudes[slot], altitudes[slot],
+                0.0f, 0.0f, EVENT_ACCURACY_M, triggeredAtMs);
+            long sequenceNumber = DenmOperationEvent.trigger(sdk, types[slot], location);
+            if (sequenceNumber < 0) {
+                // Not on the air, so there is nothing to index or terminate; try it again later
+                triggerFailures++;
+                push(slot);
+                retryDelayMs = Math.min(MAX_RETRY_DELAY_MS, Math.max(MIN_RETRY_DELAY_MS, 2 * retryDelayMs));
+                retryAtMs = System.currentTimeMillis() + retryDelayMs;
+                logger.warn("{} DENM for event {} was not triggered; retrying in {} ms", types[slot],
+                    eventIds[slot], retryDelayMs);
+                return;
+            }
+            retryDelayMs = 0;
+            sequenceNumbers[slot] = sequenceNumber;
+            sequenceIndex.put(sequenceNumber, slot);
+            states[slot] = ACTIVE;
+            activeCount++;
+            triggered++;
+            if (listener != null) {
+                listener.onTriggered(sequenceNumber, triggeredAtMs);
+            }
+            logger.debug("Triggered {} DENM for event {}: sequence number {}", types[slot], eventIds[slot],
+                sequenceNumber);
+        }
+    }
+
+    private void onExpired(int slot) {
+        end(slot);
+        expired++;
+    }
+
+    /** Takes an event out of service: terminates it if it was sent and journals the end. */
+    private void end(int slot) {
+        eventIndex.remove(eventIds[slot]);
+        journalTerminated(eventIds[slot]);
+        if (states[slot] == ACTIVE) {
+            sequenceIndex.remove(sequenceNumbers[slot]);
+            activeCount--;
+            DenmOperationEvent.terminate(sdk, sequenceNumbers[slot]);
+            release(slot);
+        } else {
+            states[slot] = CANCELLED;
+        }
+    }
+
+    private void push(int slot) {
+        states[slot] = PENDING;
+        queue[(queueHead + queueSize++) % queue.length] = slot;
+    }
+
+    private void pop() {
+        queueHead = (queueHead + 1) % queue.length;
+        queueSize--;
+    }
+
+    private void release(int slot) {
+        states[slot] = FREE;
+        types[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private List<DenmJournal.Entry> liveEntries() {
+        List<DenmJournal.Entry> live = new ArrayList<>(eventIndex.size());
+        for (int slot = 0; slot < states.length; slot++) {
+            if (states[slot] == PENDING || states[slot] == ACTIVE) {
+                live.add(new DenmJournal.Entry(eventIds[slot], types[slot], latitudes[slot], longitudes[slot],
+                    altitudes[slot], expiresAtMs[slot]));
+            }
+        }
+        return live;
+    }
+
+    private void journalScheduled(int slot) {
+        if (journalFailed) {
+            return;
+        }
+        try {
+            journal.appendScheduled(new DenmJournal.Entry(eventIds[slot], types[slot], latitudes[slot],
+                longitudes[slot], altitudes[slot], expiresAtMs[slot]));
+        } catch (IOException e) {
+            journalFailed(e);
+        }
+    }
+
+    private void journalTerminated(long eventId) {
+        if (journalFailed) {
+            return;
+        }
+        try {
+            journal.appendTerminated(eventId);
+        } catch (IOException e) {
+            journalFailed(e);
+        }
+    }
+
+    private void compactJournal() {
+        if (journalFailed) {
+            return;
+        }
+        try {
+            journal.compact(liveEntries());
+        } catch (IOException e) {
+            journalFailed(e);
+        }
+    }
+
+    private void flushJournal() {
+        if (journalFailed) {
+            return;
+        }
+        try {
+            journal.flush();
+        } catch (IOException e) {
+            journalFailed(e);
+        }
+    }
+
+    private void journalFailed(IOException e) {
+        // Keep the hazards on the air; only restart recovery is lost
+        journalFailed = true;
+        logger.error("DENM journal failed; events scheduled from now on will not survive a restart", e);
+    }
+
+    /** Events queued or active. */
+    public synchronized int size() {
+        return eventIndex.size();
+    }
+
+    public synchronized int activeCount() {
+        return activeCount;
+    }
+
+    public synchronized int queuedCount() {
+        return eventIndex.size() - activeCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d active, %d queued, %d submitted, %d rejected, %d triggered, %d trigger failures, "
+            + "%d terminated, %d expired", activeCount, eventIndex.size() - activeCount, submitted, rejected,
+            triggered, triggerFailures, terminated, expired);
+    }
+
+    /**
+     * Stops the scheduler thread. Events stay in the journal and are triggered again by the next scheduler on the
+     * same journal; the DENM service stops sending them when it is stopped.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Error closing DENM journal: {}", e.toString());
+            }
+            journalFailed = true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.vodafone.v2x.example.export;
+
+/**
+ * One batch of records in column form, filled by {@link ExportStage} and encoded by {@link ExportEncoder}.
+ * Batches are preallocated and reused, so appending a record is a few array stores.
+ */
+final class ExportBatch {
+    final int capacity;
+    long sequence;
+    long createdNanos;
+    long baseTimeMs;
+
+    int camCount;
+    final byte[] camKind;
+    final long[] camTime;
+    final long[] stationId;
+    final double[] latitude;
+    final double[] longitude;
+    final double[] speedKmh;
+    final double[] headingDeg;
+    final long[] generationTime;
+
+    int denmCount;
+    final byte[] denmKind;
+    final long[] denmTime;
+    final long[] originatorId;
+    final long[] sequenceNumber;
+    final int[] causeCode;
+    final int[] subCauseCode;
+
+    ExportBatch(int capacity) {
+        this.capacity = capacity;
+        camKind = new byte[capacity];
+        camTime = new long[capacity];
+        stationId = new long[capacity];
+        latitude = new double[capacity];
+        longitude = new double[capacity];
+        speedKmh = new double[capacity];
+        headingDeg = new double[capacity];
+        generationTime = new long[capacity];
+        denmKind = new byte[capacity];
+        denmTime = new long[capacity];
+        originatorId = new long[capacity];
+        sequenceNumber = new long[capacity];
+        causeCode = new int[capacity];
+        subCauseCode = new int[capacity];
+    }
+
+    int size() {
+        return camCount + denmCount;
+    }
+
+    boolean isFull() {
+        return size() >= capacity;
+    }
+
+    void clear() {
+        camCount = 0;
+        denmCount = 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.vodafone.v2x.example.export;
+
+/**
+ * Payload compression of exported batches.
+ */
+public enum ExportCompression {
+    NONE,
+    /** Raw deflate at its fastest level; a batch that would not shrink is sent uncompressed. */
+    DEFLATE
+}
@@ -0,0 +1,163 @@
+package com.vodafone.v2x.example.export;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes {@link ExportBatch}es into {@link ExportFormat} frames. Buffers and the {@link Deflater} are reused
+ * across batches; not thread-safe.
+ */
+final class ExportEncoder implements AutoCloseable {
+    /** Worst case per record: kind byte plus 10-byte varints. */
+    private static final int MAX_CAM_RECORD_BYTES = 1 + 8 * 10;
+    private static final int MAX_DENM_RECORD_BYTES = 1 + 6 * 10;
+
+    private final ExportCompression compression;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private byte[] payload = new byte[0];
+    private int position;
+    private int rawLength;
+    private byte[] frame = new byte[0];
+    private ByteBuffer header;
+
+    ExportEncoder(ExportCompression compression) {
+        this.compression = compression;
+    }
+
+    /** The last encoded frame; valid until the next {@link #encode}. */
+    byte[] frame() {
+        return frame;
+    }
+
+    /** Payload length of the last frame before compression. */
+    int rawLength() {
+        return rawLength;
+    }
+
+    /** Encodes a batch; returns the frame length. */
+    int encode(ExportBatch batch) {
+        int maxPayload = batch.camCount * MAX_CAM_RECORD_BYTES + batch.denmCount * MAX_DENM_RECORD_BYTES;
+        if (payload.length < maxPayload) {
+            payload = new byte[maxPayload];
+        }
+        position = 0;
+        writeCams(batch);
+        writeDenms(batch);
+        rawLength = position;
+
+        // Deflate can grow incompressible input slightly; keep room for the raw payload either way
+        ensureFrame(ExportFormat.HEADER_SIZE + rawLength + 64);
+        byte mode = 0;
+        int payloadLength = rawLength;
+        if (compression == ExportCompression.DEFLATE && rawLength > 0) {
+            deflater.reset();
+            deflater.setInput(payload, 0, rawLength);
+            deflater.finish();
+            int room = rawLength;
+            int compressed = 0;
+            while (!deflater.finished() && compressed < room) {
+                compressed += deflater.deflate(frame, ExportFormat.HEADER_SIZE + compressed, room - compressed);
+            }
+            if (deflater.finished() && compressed < rawLength) {
+                mode = 1;
+                payloadLength = compressed;
+            }
+        }
+        if (mode == 0) {
+            System.arraycopy(payload, 0, frame, ExportFormat.HEADER_SIZE, rawLength);
+        }
+
+        int length = ExportFormat.HEADER_SIZE + payloadLength;
+        header.clear();
+        header.putInt(length - Integer.BYTES)
+            .putInt(ExportFormat.MAGIC)
+            .put(ExportFormat.VERSION)
+            .put(mode)
+            .putShort((short) 0)
+            .putLong(batch.sequence)
+            .putLong(batch.baseTimeMs)
+            .putInt(batch.camCount)
+            .putInt(batch.denmCount)
+            .putInt(rawLength);
+        return length;
+    }
+
+    private void writeCams(ExportBatch batch) {
+        int count = batch.camCount;
+        System.arraycopy(batch.camKind, 0, payload, position, count);
+        position += count;
+        for (int i = 0; i < count; i++) {
+            writeSigned(batch.camTime[i] - batch.baseTimeMs);
+        }
+        long previousId = 0;
+        for (int i = 0; i < count; i++) {
+            writeSigned(batch.stationId[i] - previousId);
+            previousId = batch.stationId[i];
+        }
+        long latitude = 0;
+        long longitude = 0;
+        long speed = 0;
+        long heading = 0;
+        for (int i = 0; i < count; i++) {
+            if (batch.camKind[i] == ExportFormat.CAM_REMOVED) {
+                continue;
+            }
+            long lat = Math.round(batch.latitude[i] * ExportFormat.POSITION_SCALE);
+            long lon = Math.round(batch.longitude[i] * ExportFormat.POSITION_SCALE);
+            long spd = Math.round(batch.speedKmh[i] * ExportFormat.SPEED_SCALE);
+            long hdg = Math.round(batch.headingDeg[i] * ExportFormat.HEADING_SCALE);
+            writeSigned(lat - latitude);
+            writeSigned(lon - longitude);
+            writeSigned(spd - speed);
+            writeSigned(hdg - heading);
+            writeSigned(batch.generationTime[i] - batch.camTime[i]);
+            latitude = lat;
+            longitude = lon;
+            speed = spd;
+            heading = hdg;
+        }
+    }
+
+    private void writeDenms(ExportBatch batch) {
+        int count = batch.denmCount;
+        System.arraycopy(batch.denmKind, 0, payload, position, count);
+        position += count;
+        for (int i = 0; i < count; i++) {
+            writeSigned(batch.denmTime[i] - batch.baseTimeMs);
+        }
+        long previousId = 0;
+        for (int i = 0; i < count; i++) {
+            writeSigned(batch.originatorId[i] - previousId);
+            previousId = batch.originatorId[i];
+        }
+        for (int i = 0; i < count; i++) {
+            writeUnsigned(batch.sequenceNumber[i]);
+            writeUnsigned(batch.causeCode[i] & 0xFFFFFFFFL);
+            writeUnsigned(batch.subCauseCode[i] & 0xFFFFFFFFL);
+        }
+    }
+
+    private void writeSigned(long value) {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    private void writeUnsigned(long value) {
+        while ((value & ~0x7FL) != 0) {
+            payload[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        payload[position++] = (byte) value;
+    }
+
+    private void ensureFrame(int size) {
+        if (frame.length < size) {
+            frame = new byte[Math.max(size, frame.length * 2)];
+            header = ByteBuffer.wrap(frame, 0, ExportFormat.HEADER_SIZE).order(ExportFormat.ORDER);
+        }
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+}
@@ -0,0 +1,58 @@
+package com.vodafone.v2x.example.export;
+
+import java.nio.ByteOrder;
+
+/**
+ * Wire format of exported batches. Header values are little-endian; the payload is columns of LEB128 varints,
+ * signed values zigzag-encoded, so slowly changing columns (station IDs, positions, times) shrink to a byte or
+ * two per record before compression.
+ *
+ * <pre>
+ * frame
+ *   0  int    length of the rest of the frame
+ *   4  int    magic "V2XE"
+ *   8  byte   format version
+ *   9  byte   compression: 0 none, 1 deflate
+ *   10 short  reserved
+ *   12 long   batch sequence number, starting at the stage's start time in epoch microseconds and increasing
+ *             by one per batch; receivers drop repeats (at-least-once delivery)
+ *   20 long   base time, epoch ms
+ *   28 int    CAM record count
+ *   32 int    DENM record count
+ *   36 int    payload length before compression
+ *   40        payload, compressed as above
+ * payload
+ *   CAM  kind           byte each: 0 added, 1 updated, 2 removed
+ *        receive time   zigzag, ms after the base time
+ *        station ID     zigzag, difference to the previous record
+ *        then for added and updated records only, each zigzag and relative to the previous such record:
+ *        latitude and longitude in 1e-7 degrees, speed in 0.01 km/h, heading in 0.1 degrees,
+ *        generation time minus receive time in ms (absolute, not relative)
+ *   DENM kind           byte each: 0 new, 1 updated, 2 terminated, 3 expired
+ *        receive time   zigzag, ms after the base time
+ *        originator ID  zigzag, difference to the previous record
+ *        sequence number, cause code, sub cause code   unsigned
+ * </pre>
+ */
+final class ExportFormat {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int MAGIC = 0x4558_3256; // "V2XE" read as a little-endian int
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 40;
+
+    static final byte CAM_ADDED = 0;
+    static final byte CAM_UPDATED = 1;
+    static final byte CAM_REMOVED = 2;
+
+    static final byte DENM_NEW = 0;
+    static final byte DENM_UPDATED = 1;
+    static final byte DENM_TERMINATED = 2;
+    static final byte DENM_EXPIRED = 3;
+
+    static final double POSITION_SCALE = 1e7;
+    static final double SPEED_SCALE = 100;
+    static final double HEADING_SCALE = 10;
+
+    private ExportFormat() {
+    }
+}
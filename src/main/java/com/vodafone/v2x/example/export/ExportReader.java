@@ -0,0 +1,297 @@
+package com.vodafone.v2x.example.export;
+
+import com.vodafone.v2x.example.delta.CamDeltaListener;
+import com.vodafone.v2x.example.denm.DenmLifecycleListener;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.model.DenmSample;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes {@link ExportFormat} frames back into the listener callbacks that produced them, skipping frames whose
+ * sequence number is not above the last one seen (retried or duplicated batches).
+ *
+ * <p>Reference decoder for downstream consumers and a way to check an export file:
+ * {@code ExportReader [--print] <file>} prints the records with {@code --print} and a summary either way.
+ */
+public final class ExportReader implements AutoCloseable {
+    private final CamDeltaListener cams;
+    private final DenmLifecycleListener denms;
+    private final CamSample cam = new CamSample();
+    private final DenmSample denm = new DenmSample();
+    private final Inflater inflater = new Inflater(true);
+    private final ByteBuffer header = ByteBuffer.allocate(ExportFormat.HEADER_SIZE).order(ExportFormat.ORDER);
+    private byte[] frame = new byte[0];
+    private byte[] payload = new byte[0];
+    private int position;
+    private long lastSequence = Long.MIN_VALUE;
+    private long frames;
+    private long duplicates;
+    private long gaps;
+
+    public ExportReader(CamDeltaListener cams, DenmLifecycleListener denms) {
+        this.cams = cams;
+        this.denms = denms;
+    }
+
+    /**
+     * Reads and decodes the next frame from {@code in}; returns {@code false} at the end of the stream, including a
+     * frame cut short by a crash of the writer.
+     */
+    public boolean read(InputStream in) throws IOException {
+        if (in.readNBytes(header.array(), 0, Integer.BYTES) < Integer.BYTES) {
+            return false;
+        }
+        int rest = header.getInt(0);
+        if (rest < ExportFormat.HEADER_SIZE - Integer.BYTES) {
+            throw new IOException("Bad export frame length " + rest);
+        }
+        int length = Integer.BYTES + rest;
+        if (frame.length < length) {
+            frame = new byte[length];
+        }
+        System.arraycopy(header.array(), 0, frame, 0, Integer.BYTES);
+        if (in.readNBytes(frame, Integer.BYTES, rest) < rest) {
+            return false;
+        }
+        decode(frame, length);
+        return true;
+    }
+
+    /** Decodes one complete frame, e.g. a UDP datagram. */
+    public void decode(byte[] frame, int length) throws IOException {
+        if (length < ExportFormat.HEADER_SIZE) {
+            throw new EOFException("Export frame shorter than its header: " + length + " bytes");
+        }
+        ByteBuffer in = ByteBuffer.wrap(frame, 0, length).order(ExportFormat.ORDER);
+        int rest = in.getInt();
+        int magic = in.getInt();
+        byte version = in.get();
+        byte compression = in.get();
+        in.getShort();
+        long sequence = in.getLong();
+        long baseTimeMs = in.getLong();
+        int camCount = in.getInt();
+        int denmCount = in.getInt();
+        int rawLength = in.getInt();
+        if (magic != ExportFormat.MAGIC || version != ExportFormat.VERSION || rest != length - Integer.BYTES) {
+            throw new IOException("Not a version " + ExportFormat.VERSION + " export frame");
+        }
+        frames++;
+        if (sequence <= lastSequence) {
+            duplicates++;
+            return;
+        }
+        if (lastSequence != Long.MIN_VALUE && sequence != lastSequence + 1) {
+            gaps++;
+        }
+        lastSequence = sequence;
+
+        if (payload.length < rawLength) {
+            payload = new byte[rawLength];
+        }
+        int payloadLength = length - ExportFormat.HEADER_SIZE;
+        if (compression == 1) {
+            inflater.reset();
+            inflater.setInput(frame, ExportFormat.HEADER_SIZE, payloadLength);
+            try {
+                if (inflater.inflate(payload, 0, rawLength) != rawLength) {
+                    throw new IOException("Export frame " + sequence + " inflates short");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Export frame " + sequence + " is corrupt", e);
+            }
+        } else if (compression == 0 && payloadLength == rawLength) {
+            System.arraycopy(frame, ExportFormat.HEADER_SIZE, payload, 0, rawLength);
+        } else {
+            throw new IOException("Export frame " + sequence + " has unknown compression " + compression);
+        }
+        position = 0;
+        try {
+            readCams(camCount, baseTimeMs);
+            readDenms(denmCount);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Export frame " + sequence + " payload is truncated", e);
+        }
+    }
+
+    private void readCams(int count, long baseTimeMs) {
+        int kinds = position;
+        position += count;
+        long[] times = new long[count];
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = baseTimeMs + readSigned();
+        }
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += readSigned();
+            ids[i] = id;
+        }
+        long latitude = 0;
+        long longitude = 0;
+        long speed = 0;
+        long heading = 0;
+        for (int i = 0; i < count; i++) {
+            byte kind = payload[kinds + i];
+            if (kind == ExportFormat.CAM_REMOVED) {
+                cams.onCamRemoved(ids[i]);
+                continue;
+            }
+            latitude += readSigned();
+            longitude += readSigned();
+            speed += readSigned();
+            heading += readSigned();
+            long generationTime = times[i] + readSigned();
+            cam.set(ids[i], latitude / ExportFormat.POSITION_SCALE, longitude / ExportFormat.POSITION_SCALE,
+                speed / ExportFormat.SPEED_SCALE, heading / ExportFormat.HEADING_SCALE, generationTime);
+            if (kind == ExportFormat.CAM_ADDED) {
+                cams.onCamAdded(cam);
+            } else {
+                cams.onCamUpdated(cam);
+            }
+        }
+    }
+
+    private void readDenms(int count) {
+        int kinds = position;
+        position += count;
+        for (int i = 0; i < count; i++) {
+            readSigned(); // receive time, not part of the listener callbacks
+        }
+        long[] ids = new long[count];
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += readSigned();
+            ids[i] = id;
+        }
+        for (int i = 0; i < count; i++) {
+            denm.set(ids[i], readUnsigned(), (int) readUnsigned(), (int) readUnsigned());
+            switch (payload[kinds + i]) {
+                case ExportFormat.DENM_NEW -> denms.onDenmNew(denm);
+                case ExportFormat.DENM_UPDATED -> denms.onDenmUpdated(denm);
+                case ExportFormat.DENM_TERMINATED -> denms.onDenmTerminated(denm);
+                default -> denms.onDenmExpired(denm);
+            }
+        }
+    }
+
+    private long readSigned() {
+        long value = readUnsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readUnsigned() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = payload[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /** Frames read, including duplicates. */
+    public long getFrames() {
+        return frames;
+    }
+
+    /** Frames skipped because their sequence number was already seen. */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /** Places where sequence numbers jumped, i.e. batches dropped or lost before they reached this reader. */
+    public long getGaps() {
+        return gaps;
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+
+    private static void show(boolean print, String what, Object record) {
+        if (print) {
+            System.out.println(what + " " + record);
+        }
+    }
+
+    public static void main(String[] args) {
+        boolean print = args.length == 2 && args[0].equals("--print");
+        if (args.length != 1 && !print) {
+            System.err.println("Usage: ExportReader [--print] <file>");
+            System.exit(2);
+        }
+        Path file = Path.of(args[args.length - 1]);
+        long[] counts = new long[7];
+        CamDeltaListener cams = new CamDeltaListener() {
+            @Override
+            public void onCamAdded(CamSample cam) {
+                counts[0]++;
+                show(print, "CAM added   ", cam);
+            }
+
+            @Override
+            public void onCamUpdated(CamSample cam) {
+                counts[1]++;
+                show(print, "CAM updated ", cam);
+            }
+
+            @Override
+            public void onCamRemoved(long stationId) {
+                counts[2]++;
+                show(print, "CAM removed ", stationId);
+            }
+        };
+        DenmLifecycleListener denms = new DenmLifecycleListener() {
+            @Override
+            public void onDenmNew(DenmSample denm) {
+                counts[3]++;
+                show(print, "DENM new    ", denm);
+            }
+
+            @Override
+            public void onDenmUpdated(DenmSample denm) {
+                counts[4]++;
+                show(print, "DENM updated", denm);
+            }
+
+            @Override
+            public void onDenmTerminated(DenmSample denm) {
+                counts[5]++;
+                show(print, "DENM terminated", denm);
+            }
+
+            @Override
+            public void onDenmExpired(DenmSample denm) {
+                counts[6]++;
+                show(print, "DENM expired", denm);
+            }
+        };
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+             ExportReader reader = new ExportReader(cams, denms)) {
+            while (reader.read(in)) {
+                // callbacks do the counting
+            }
+            System.out.printf("%d frames (%d duplicates, %d sequence gaps), %d bytes%n", reader.getFrames(),
+                reader.getDuplicates(), reader.getGaps(), Files.size(file));
+            System.out.printf("CAM:  %d added, %d updated, %d removed%n", counts[0], counts[1], counts[2]);
+            System.out.printf("DENM: %d new, %d updated, %d terminated, %d expired%n", counts[3], counts[4],
+                counts[5], counts[6]);
+        } catch (IOException e) {
+            System.err.println("Cannot read " + file + ": " + e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.vodafone.v2x.example.export;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Where {@link ExportStage} writes encoded frames.
+ *
+ * <p>{@link #write} is called from the stage's sender thread only. If it throws, the stage sends the same frame
+ * again after a back-off, so an implementation should throw whenever it cannot tell that the frame went out.
+ * That makes delivery at-least-once; receivers drop frames whose batch sequence number they have already seen.
+ */
+public interface ExportSink extends AutoCloseable {
+
+    /** Writes one complete frame. */
+    void write(byte[] frame, int length) throws IOException;
+
+    /** Largest frame this sink can carry. */
+    default int maxFrameSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Opens the sink named by {@code uri}: {@code file:<path>} appends to a file, {@code tcp://host:port} and
+     * {@code udp://host:port} send to a socket, and {@code null:} discards frames after counting them.
+     */
+    static ExportSink create(String uri) throws IOException {
+        int colon = uri.indexOf(':');
+        String scheme = colon > 0 ? uri.substring(0, colon) : uri;
+        switch (scheme) {
+            case "file" -> {
+                return new FileExportSink(Path.of(uri.substring(colon + 1)));
+            }
+            case "tcp", "udp" -> {
+                URI parsed = URI.create(uri);
+                if (parsed.getHost() == null || parsed.getPort() < 0) {
+                    throw new IllegalArgumentException("Export sink needs host and port: " + uri);
+                }
+                return scheme.equals("tcp")
+                    ? new TcpExportSink(parsed.getHost(), parsed.getPort())
+                    : new UdpExportSink(parsed.getHost(), parsed.getPort());
+            }
+            case "null" -> {
+                return new NullExportSink();
+            }
+            default -> throw new IllegalArgumentException("Unknown export sink: " + uri);
+        }
+    }
+}
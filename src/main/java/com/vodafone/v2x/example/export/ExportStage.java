@@ -0,0 +1,388 @@
+package com.vodafone.v2x.example.export;
+
+import com.vodafone.v2x.example.delta.CamDeltaListener;
+import com.vodafone.v2x.example.denm.DenmLifecycleListener;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.model.DenmSample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams CAM deltas and DENM lifecycle steps to an {@link ExportSink} in batches.
+ *
+ * <p>Records are appended to the current batch on the handler thread. A batch is sealed when it holds
+ * {@code batchRecords} records or its first record is {@code maxDelayMs} old, and queued for a sender thread that
+ * encodes it in the {@link ExportFormat} and writes it to the sink, so the sink sees one write per batch rather
+ * than per record. Batches come from a fixed pool: when {@code queueBatches} batches are waiting, the handler
+ * either blocks until the sender catches up ({@link Overflow#BLOCK}) or the oldest waiting batch is dropped
+ * ({@link Overflow#DROP_OLDEST}). A failed write is retried with exponential back-off until it succeeds, so
+ * delivery is at-least-once; the batch sequence number lets receivers drop repeats.
+ */
+public class ExportStage implements CamDeltaListener, DenmLifecycleListener, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ExportStage.class);
+    private static final long DRAIN_TIMEOUT_MS = 5_000L;
+    /** Frame size of a batch that compresses not at all, beyond its records. */
+    private static final int FRAME_OVERHEAD = ExportFormat.HEADER_SIZE + 64;
+    private static final int MAX_RECORD_BYTES = 81;
+
+    /** What a full queue does to the handler thread. */
+    public enum Overflow {
+        /** Wait for the sender to free a batch. */
+        BLOCK,
+        /** Drop the oldest queued batch and keep going. */
+        DROP_OLDEST
+    }
+
+    /**
+     * @param batchRecords   records per batch
+     * @param maxDelayMs     longest a record waits before its batch is sealed
+     * @param queueBatches   sealed batches that may wait for the sender
+     * @param retryInitialMs first back-off after a failed write, doubled per failure up to {@code retryMaxMs}
+     */
+    public record Settings(int batchRecords, long maxDelayMs, ExportCompression compression, int queueBatches,
+                           Overflow overflow, long retryInitialMs, long retryMaxMs) {
+    }
+
+    private final Settings settings;
+    private final ExportSink sink;
+    private final long maxDelayNanos;
+    private final BlockingQueue<ExportBatch> free;
+    private final BlockingQueue<ExportBatch> full;
+    private final ScheduledExecutorService flusher;
+    private final Thread sender;
+    private ExportBatch current;
+    private long nextSequence;
+    private volatile boolean closing;
+    private volatile boolean stopped;
+
+    private long recordsAccepted;
+    private long recordsDropped;
+    private volatile long recordsSent;
+    private volatile long framesSent;
+    private volatile long bytesSent;
+    private volatile long rawBytesSent;
+    private volatile long sendFailures;
+
+    public ExportStage(ExportSink sink, Settings settings) {
+        if (settings.batchRecords() < 1 || settings.queueBatches() < 1) {
+            throw new IllegalArgumentException("Export batch size and queue length must be positive: " + settings);
+        }
+        int batchRecords = settings.batchRecords();
+        int fitting = (sink.maxFrameSize() - FRAME_OVERHEAD) / MAX_RECORD_BYTES;
+        if (batchRecords > fitting) {
+            // Keep every batch within one frame even if it does not compress
+            logger.info("Export batch size lowered from {} to {} records to fit {}", batchRecords, fitting, sink);
+            batchRecords = fitting;
+            settings = new Settings(batchRecords, settings.maxDelayMs(), settings.compression(),
+                settings.queueBatches(), settings.overflow(), settings.retryInitialMs(), settings.retryMaxMs());
+        }
+        this.settings = settings;
+        this.sink = sink;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings.maxDelayMs());
+        // Keeps sequence numbers increasing across restarts
+        this.nextSequence = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+        // One batch being filled, one being sent, the rest queued
+        int batches = settings.queueBatches() + 2;
+        this.free = new ArrayBlockingQueue<>(batches);
+        this.full = new ArrayBlockingQueue<>(batches);
+        for (int i = 1; i < batches; i++) {
+            free.add(new ExportBatch(batchRecords));
+        }
+        this.current = new ExportBatch(batchRecords);
+
+        this.sender = new Thread(this::sendLoop, "export-sender");
+        sender.setDaemon(true);
+        sender.start();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "export-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMs = Math.max(1L, settings.maxDelayMs() / 4);
+        flusher.scheduleAtFixedRate(this::flushAged, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        logger.info("Exporting to {}: {} records or {} ms per batch, {} compression, {} batches queued at most ({})",
+            sink, batchRecords, settings.maxDelayMs(), settings.compression(), settings.queueBatches(),
+            settings.overflow());
+    }
+
+    @Override
+    public void onCamAdded(CamSample cam) {
+        appendCam(ExportFormat.CAM_ADDED, cam);
+    }
+
+    @Override
+    public void onCamUpdated(CamSample cam) {
+        appendCam(ExportFormat.CAM_UPDATED, cam);
+    }
+
+    @Override
+    public synchronized void onCamRemoved(long stationId) {
+        ExportBatch batch = batchForAppend();
+        if (batch == null) {
+            return;
+        }
+        int i = batch.camCount++;
+        batch.camKind[i] = ExportFormat.CAM_REMOVED;
+        batch.camTime[i] = System.currentTimeMillis();
+        batch.stationId[i] = stationId;
+        appended(batch);
+    }
+
+    @Override
+    public void onDenmNew(DenmSample denm) {
+        appendDenm(ExportFormat.DENM_NEW, denm);
+    }
+
+    @Override
+    public void onDenmUpdated(DenmSample denm) {
+        appendDenm(ExportFormat.DENM_UPDATED, denm);
+    }
+
+    @Override
+    public void onDenmTerminated(DenmSample denm) {
+        appendDenm(ExportFormat.DENM_TERMINATED, denm);
+    }
+
+    @Override
+    public void onDenmExpired(DenmSample denm) {
+        appendDenm(ExportFormat.DENM_EXPIRED, denm);
+    }
+
+    private synchronized void appendCam(byte kind, CamSample cam) {
+        ExportBatch batch = batchForAppend();
+        if (batch == null) {
+            return;
+        }
+        int i = batch.camCount++;
+        batch.camKind[i] = kind;
+        batch.camTime[i] = System.currentTimeMillis();
+        batch.stationId[i] = cam.getStationId();
+        batch.latitude[i] = cam.getLatitude();
+        batch.longitude[i] = cam.getLongitude();
+        batch.speedKmh[i] = cam.getSpeedKmh();
+        batch.headingDeg[i] = cam.getHeadingDeg();
+        batch.generationTime[i] = cam.getGenerationTimeMs();
+        appended(batch);
+    }
+
+    private synchronized void appendDenm(byte kind, DenmSample denm) {
+        ExportBatch batch = batchForAppend();
+        if (batch == null) {
+            return;
+        }
+        int i = batch.denmCount++;
+        batch.denmKind[i] = kind;
+        batch.denmTime[i] = System.currentTimeMillis();
+        batch.originatorId[i] = denm.getOriginatorId();
+        batch.sequenceNumber[i] = denm.getSequenceNumber();
+        batch.causeCode[i] = denm.getCauseCode();
+        batch.subCauseCode[i] = denm.getSubCauseCode();
+        appended(batch);
+    }
+
+    /** The batch to append to, or {@code null} if the stage is closed. */
+    private ExportBatch batchForAppend() {
+        if (closing || current == null) {
+            recordsDropped++;
+            return null;
+        }
+        if (current.size() == 0) {
+            current.createdNanos = System.nanoTime();
+            current.baseTimeMs = System.currentTimeMillis();
+        }
+        return current;
+    }
+
+    private void appended(ExportBatch batch) {
+        recordsAccepted++;
+        if (batch.isFull()) {
+            seal();
+        }
+    }
+
+    private void flushAged() {
+        try {
+            synchronized (this) {
+                ExportBatch batch = current;
+                if (batch != null && batch.size() > 0 && System.nanoTime() - batch.createdNanos >= maxDelayNanos) {
+                    seal();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Must not cancel the periodic task
+            logger.warn("Export flush failed", e);
+        }
+    }
+
+    /** Queues the current batch for the sender and takes a free one; called holding the lock. */
+    private void seal() {
+        current.sequence = nextSequence++;
+        full.add(current);
+        current = free.poll();
+        if (current != null) {
+            return;
+        }
+        if (settings.overflow() == Overflow.DROP_OLDEST) {
+            ExportBatch oldest = full.poll();
+            if (oldest != null) {
+                recordsDropped += oldest.size();
+                oldest.clear();
+                current = oldest;
+                return;
+            }
+        }
+        try {
+            while (current == null && !closing) {
+                current = free.poll(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Left null while closing, so later records are dropped
+    }
+
+    private void sendLoop() {
+        try (ExportEncoder encoder = new ExportEncoder(settings.compression())) {
+            while (true) {
+                ExportBatch batch = full.poll(100, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    if (stopped) {
+                        return;
+                    }
+                    continue;
+                }
+                int length = encoder.encode(batch);
+                try {
+                    send(encoder.frame(), length, encoder.rawLength(), batch);
+                } catch (InterruptedException e) {
+                    // close() gave up waiting
+                    synchronized (this) {
+                        recordsDropped += batch.size();
+                    }
+                    return;
+                }
+                batch.clear();
+                free.add(batch);
+            }
+        } catch (InterruptedException e) {
+            // close() gave up waiting
+        }
+    }
+
+    /** Writes one frame, retrying until it succeeds. */
+    private void send(byte[] frame, int length, int rawLength, ExportBatch batch) throws InterruptedException {
+        long backoffMs = settings.retryInitialMs();
+        int failures = 0;
+        while (true) {
+            try {
+                sink.write(frame, length);
+                break;
+            } catch (IOException e) {
+                sendFailures++;
+                if (failures++ == 0) {
+                    logger.warn("Export to {} failed, retrying batch {}: {}", sink, batch.sequence, e.toString());
+                } else {
+                    logger.debug("Export retry {} of batch {} failed: {}", failures, batch.sequence, e.toString());
+                }
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(settings.retryMaxMs(), backoffMs * 2);
+            }
+        }
+        if (failures > 0) {
+            logger.info("Export to {} recovered after {} failed attempts", sink, failures);
+        }
+        framesSent++;
+        bytesSent += length;
+        rawBytesSent += ExportFormat.HEADER_SIZE + rawLength;
+        recordsSent += batch.size();
+    }
+
+    public synchronized long getRecordsAccepted() {
+        return recordsAccepted;
+    }
+
+    public synchronized long getRecordsDropped() {
+        return recordsDropped;
+    }
+
+    public long getRecordsSent() {
+        return recordsSent;
+    }
+
+    public long getFramesSent() {
+        return framesSent;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getSendFailures() {
+        return sendFailures;
+    }
+
+    /** Sealed batches waiting for the sender. */
+    public int queuedBatches() {
+        return full.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        long raw = rawBytesSent;
+        return String.format("%d records accepted, %d sent in %d frames (%d KB, %.0f%% of raw), %d dropped, "
+                + "%d send failures, %d/%d batches queued", recordsAccepted, recordsSent, framesSent,
+            bytesSent / 1024, raw == 0 ? 100.0 : 100.0 * bytesSent / raw, recordsDropped, sendFailures,
+            full.size(), settings.queueBatches());
+    }
+
+    /**
+     * Seals the current batch and waits up to {@value #DRAIN_TIMEOUT_MS} ms for the sender to write the queued
+     * batches; whatever is still unsent then is dropped. Closes the sink.
+     */
+    @Override
+    public void close() {
+        if (closing) {
+            return;
+        }
+        // Set before taking the lock so a handler waiting for a free batch gives up
+        closing = true;
+        synchronized (this) {
+            if (current != null && current.size() > 0) {
+                current.sequence = nextSequence++;
+                full.add(current);
+                current = null;
+            }
+        }
+        flusher.shutdownNow();
+        stopped = true;
+        try {
+            sender.join(DRAIN_TIMEOUT_MS);
+            if (sender.isAlive()) {
+                sender.interrupt();
+                sender.join(DRAIN_TIMEOUT_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (ExportBatch batch : full) {
+                recordsDropped += batch.size();
+            }
+            full.clear();
+        }
+        try {
+            sink.close();
+        } catch (IOException e) {
+            logger.warn("Error closing export sink {}: {}", sink, e.toString());
+        }
+        logger.info("Export stopped: {}", this);
+    }
+}
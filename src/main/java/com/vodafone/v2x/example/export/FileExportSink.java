@@ -0,0 +1,45 @@
+package com.vodafone.v2x.example.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends frames to a file, e.g. for a log shipper to pick up. A frame cut short by a crash ends the file for
+ * {@link ExportReader}.
+ */
+public final class FileExportSink implements ExportSink {
+    private final Path file;
+    private final FileChannel channel;
+
+    public FileExportSink(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(byte[] frame, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(frame, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "file:" + file;
+    }
+}
@@ -0,0 +1,32 @@
+package com.vodafone.v2x.example.export;
+
+/**
+ * Discards frames after counting them; for benchmarks and dry runs.
+ */
+public final class NullExportSink implements ExportSink {
+    private volatile long frames;
+    private volatile long bytes;
+
+    @Override
+    public void write(byte[] frame, int length) {
+        frames++;
+        bytes += length;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return "null";
+    }
+}
@@ -0,0 +1,61 @@
+package com.vodafone.v2x.example.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Streams frames over one TCP connection, connecting on first use and again after a failure.
+ *
+ * <p>A frame counts as sent once it is in the socket's send buffer; frames still buffered when the connection
+ * breaks are lost unless the failure surfaces on that frame's write. Receivers that need every frame should
+ * dedupe on the batch sequence number and watch for gaps.
+ */
+public final class TcpExportSink implements ExportSink {
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+
+    private final String host;
+    private final int port;
+    private Socket socket;
+    private OutputStream out;
+
+    public TcpExportSink(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public void write(byte[] frame, int length) throws IOException {
+        try {
+            if (socket == null) {
+                socket = new Socket();
+                socket.setTcpNoDelay(true);
+                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+                out = socket.getOutputStream();
+            }
+            out.write(frame, 0, length);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+            socket = null;
+            out = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "tcp://" + host + ":" + port;
+    }
+}
@@ -0,0 +1,46 @@
+package com.vodafone.v2x.example.export;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Sends one datagram per frame. Only local send errors are retried; UDP itself is best effort, so receivers
+ * should expect gaps in the batch sequence numbers.
+ */
+public final class UdpExportSink implements ExportSink {
+    /** Largest UDP payload over IPv4. */
+    static final int MAX_DATAGRAM = 65_507;
+
+    private final String host;
+    private final int port;
+    private final DatagramChannel channel;
+
+    public UdpExportSink(String host, int port) throws IOException {
+        this.host = host;
+        this.port = port;
+        this.channel = DatagramChannel.open();
+        channel.connect(new InetSocketAddress(host, port));
+    }
+
+    @Override
+    public void write(byte[] frame, int length) throws IOException {
+        channel.write(ByteBuffer.wrap(frame, 0, length));
+    }
+
+    @Override
+    public int maxFrameSize() {
+        return MAX_DATAGRAM;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "udp://" + host + ":" + port;
+    }
+}
@@ -0,0 +1,16 @@
+package com.vodafone.v2x.example.geo;
+
+import java.util.List;
+
+/**
+ * Notified when the vehicle's tile neighbourhood changes, on the location provider thread.
+ */
+@FunctionalInterface
+public interface TileSubscriptionListener {
+
+    /**
+     * @param subscribe   groups of the tiles that entered the neighbourhood
+     * @param unsubscribe groups of the tiles that left it
+     */
+    void onTilesChanged(List<String> subscribe, List<String> unsubscribe);
+}
@@ -0,0 +1,213 @@
+package com.vodafone.v2x.example.geo;
+
+import com.vodafone.v2x.example.location.LocationFixListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Follows the vehicle across Web Mercator tiles and keeps the set of tile groups it should listen to: its home
+ * tile and {@code ring} tiles in every direction around it (a 3x3 block for a ring of 1).
+ *
+ * <p>The home tile only changes once a fix lies more than {@code hysteresisM} outside it, so driving along a
+ * tile edge does not flip subscriptions back and forth. On every change the listeners get the groups to add and
+ * to drop. The current block is also published as a latitude/longitude box, so {@link #contains} costs four
+ * comparisons and can filter received CAMs on the pipeline thread.
+ *
+ * <p>Group names come from a pattern with the placeholders {@code {group}} (the configured base group),
+ * {@code {z}}, {@code {x}}, {@code {y}} and {@code {quadkey}}.
+ */
+public class TileSubscriptionManager implements LocationFixListener {
+    private static final Logger logger = LoggerFactory.getLogger(TileSubscriptionManager.class);
+    private static final double EARTH_CIRCUMFERENCE_M = 40_075_016.686;
+    /** Web Mercator latitude limit; tiles do not extend beyond it. */
+    private static final double MAX_LATITUDE = 85.05112878;
+    public static final int MAX_ZOOM = 22;
+
+    /**
+     * Home tile, the tile range [minX, maxX] x [minY, maxY] around it and the box they cover; y grows southwards.
+     * Published as one immutable value so readers on other threads never see a home tile from another block.
+     */
+    private record TileBlock(int homeX, int homeY, int minX, int maxX, int minY, int maxY,
+                             double south, double north, double west, double east) {
+
+        boolean containsTile(int x, int y) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+        }
+    }
+
+    private final int zoom;
+    private final int tilesPerAxis;
+    private final int ring;
+    private final double hysteresisM;
+    private final String groupPattern;
+    private final String baseGroup;
+    private volatile TileSubscriptionListener[] listeners = new TileSubscriptionListener[0];
+
+    private volatile TileBlock block;
+    private volatile long homeChanges;
+
+    /**
+     * @param zoom         tile zoom level; a tile edge is about {@code 40000 km / 2^zoom} at the equator
+     * @param ring         neighbour tiles in each direction around the home tile
+     * @param hysteresisM  how far outside the home tile a fix must be before the home tile changes
+     * @param groupPattern group name pattern, see the class comment
+     * @param baseGroup    value of the {@code {group}} placeholder
+     */
+    public TileSubscriptionManager(int zoom, int ring, double hysteresisM, String groupPattern, String baseGroup) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("zoom must be between 0 and " + MAX_ZOOM + ": " + zoom);
+        }
+        if (ring < 0 || hysteresisM < 0) {
+            throw new IllegalArgumentException("ring and hysteresisM must not be negative");
+        }
+        this.zoom = zoom;
+        this.tilesPerAxis = 1 << zoom;
+        this.ring = ring;
+        this.hysteresisM = hysteresisM;
+        this.groupPattern = groupPattern;
+        this.baseGroup = baseGroup;
+    }
+
+    public synchronized TileSubscriptionManager addListener(TileSubscriptionListener listener) {
+        TileSubscriptionListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+        return this;
+    }
+
+    @Override
+    public void onFix(double latitude, double longitude, long timestampMs) {
+        double clampedLatitude = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double fx = tileX(longitude);
+        double fy = tileY(clampedLatitude);
+        TileBlock current = block;
+        if (current != null) {
+            double tileSizeM = EARTH_CIRCUMFERENCE_M * Math.cos(Math.toRadians(clampedLatitude)) / tilesPerAxis;
+            double margin = hysteresisM / tileSizeM;
+            int homeX = current.homeX();
+            int homeY = current.homeY();
+            if (fx >= homeX - margin && fx < homeX + 1 + margin && fy >= homeY - margin && fy < homeY + 1 + margin) {
+                return;
+            }
+        }
+        moveTo(clamp((int) Math.floor(fx)), clamp((int) Math.floor(fy)), current);
+    }
+
+    private void moveTo(int x, int y, TileBlock previous) {
+        int minX = clamp(x - ring);
+        int maxX = clamp(x + ring);
+        int minY = clamp(y - ring);
+        int maxY = clamp(y + ring);
+        TileBlock next = new TileBlock(x, y, minX, maxX, minY, maxY,
+            latitudeOf(maxY + 1), latitudeOf(minY), longitudeOf(minX), longitudeOf(maxX + 1));
+
+        List<String> subscribe = new ArrayList<>();
+        List<String> unsubscribe = new ArrayList<>();
+        for (int ty = minY; ty <= maxY; ty++) {
+            for (int tx = minX; tx <= maxX; tx++) {
+                if (previous == null || !previous.containsTile(tx, ty)) {
+                    subscribe.add(groupName(tx, ty));
+                }
+            }
+        }
+        if (previous != null) {
+            for (int ty = previous.minY(); ty <= previous.maxY(); ty++) {
+                for (int tx = previous.minX(); tx <= previous.maxX(); tx++) {
+                    if (!next.containsTile(tx, ty)) {
+                        unsubscribe.add(groupName(tx, ty));
+                    }
+                }
+            }
+            homeChanges++;
+        }
+        block = next;
+        logger.info("Home tile {}/{}/{} ({}): +{} -{} tile groups", zoom, x, y, quadkey(x, y),
+            subscribe.size(), unsubscribe.size());
+        for (TileSubscriptionListener listener : listeners) {
+            listener.onTilesChanged(subscribe, unsubscribe);
+        }
+    }
+
+    /**
+     * Whether a position lies in the current tile block; {@code true} for everything until the first fix.
+     */
+    public boolean contains(double latitude, double longitude) {
+        TileBlock current = block;
+        return current == null
+            || (latitude >= current.south() && latitude < current.north()
+                && longitude >= current.west() && longitude < current.east());
+    }
+
+    /** Groups of every tile in the current block, home tile first. */
+    public List<String> currentGroups() {
+        TileBlock current = block;
+        List<String> groups = new ArrayList<>();
+        if (current != null) {
+            groups.add(groupName(current.homeX(), current.homeY()));
+            for (int ty = current.minY(); ty <= current.maxY(); ty++) {
+                for (int tx = current.minX(); tx <= current.maxX(); tx++) {
+                    if (tx != current.homeX() || ty != current.homeY()) {
+                        groups.add(groupName(tx, ty));
+                    }
+                }
+            }
+        }
+        return groups;
+    }
+
+    /** Group of the home tile, or {@code null} before the first fix. */
+    public String homeGroup() {
+        TileBlock current = block;
+        return current != null ? groupName(current.homeX(), current.homeY()) : null;
+    }
+
+    /** Number of times the home tile changed after the first fix. */
+    public long getHomeChanges() {
+        return homeChanges;
+    }
+
+    String groupName(int x, int y) {
+        return groupPattern
+            .replace("{group}", baseGroup)
+            .replace("{z}", Integer.toString(zoom))
+            .replace("{x}", Integer.toString(x))
+            .replace("{y}", Integer.toString(y))
+            .replace("{quadkey}", quadkey(x, y));
+    }
+
+    /** Bing-style quadkey: one base-4 digit per zoom level, most significant first. */
+    String quadkey(int x, int y) {
+        char[] digits = new char[zoom];
+        for (int level = zoom; level > 0; level--) {
+            int mask = 1 << (level - 1);
+            int digit = ((x & mask) != 0 ? 1 : 0) + ((y & mask) != 0 ? 2 : 0);
+            digits[zoom - level] = (char) ('0' + digit);
+        }
+        return new String(digits);
+    }
+
+    private double tileX(double longitude) {
+        return (longitude + 180.0) / 360.0 * tilesPerAxis;
+    }
+
+    private double tileY(double latitude) {
+        double phi = Math.toRadians(latitude);
+        return (1.0 - Math.log(Math.tan(phi) + 1.0 / Math.cos(phi)) / Math.PI) / 2.0 * tilesPerAxis;
+    }
+
+    private double longitudeOf(int x) {
+        return x * 360.0 / tilesPerAxis - 180.0;
+    }
+
+    private double latitudeOf(int y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1.0 - 2.0 * y / tilesPerAxis))));
+    }
+
+    private int clamp(int tile) {
+        return Math.max(0, Math.min(tilesPerAxis - 1, tile));
+    }
+}
@@ -1,41 +1,179 @@
 package com.vodafone.v2x.example.handlers;
 
+import com.vodafone.v2x.example.delta.CamDeltaListener;
+import com.vodafone.v2x.example.delta.CamDeltaTracker;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.station.StationTable;
 import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
 import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
 import com.vodafone.v2xsdk4javav2.facade.events.EventType;
-import com.vodafone.v2xsdk4javav2.facade.events.EventCamListChanged;
-import com.vodafone.v2xsdk4javav2.facade.records.cam.CAMRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class CAMHandler implements EventListener {
+public class CAMHandler implements EventListener, CamDeltaListener {
     private static final Logger logger = LoggerFactory.getLogger(CAMHandler.class);
-    private long ownStationId = -1;  // Will be set from first received message
+    private final StationTable stationTable;
+    private final CamDeltaTracker deltaTracker = new CamDeltaTracker();
+    private final RecordLogSampler logSampler;
+    private final long summaryIntervalMs;
+    private volatile long ownStationId = -1;  // Will be set from first received message
+    private long eventTimeMs;
+
+    // Counters for the current summary interval
+    private long summaryStartMs = -1;
+    private long added;
+    private long removed;
+    private long ownUpdates;
+    private long otherUpdates;
+    private long suppressedAtSummary;
+
+    public CAMHandler(StationTable stationTable) {
+        this(stationTable, RecordLogSampler.all(), 0);
+    }
+
+    /**
+     * @param logSampler        decides which changed CAMs get their own log line
+     * @param summaryIntervalMs period of the aggregated summary line; 0 disables it
+     */
+    public CAMHandler(StationTable stationTable, RecordLogSampler logSampler, long summaryIntervalMs) {
+        this.stationTable = stationTable;
+        this.logSampler = logSampler;
+        this.summaryIntervalMs = summaryIntervalMs;
+        deltaTracker.addListener(this);
+    }
 
     @Override
     public void onMessageBusEvent(BaseEvent baseEvent) {
         if (baseEvent.getEventType() == EventType.CAM_LIST_CHANGED) {
-            EventCamListChanged event = (EventCamListChanged) baseEvent;
-
-            for (CAMRecord cam : event.getList()) {
-                // Detect own station ID from first message
-                if (ownStationId == -1) {
-                    ownStationId = cam.getStationID();
-                    logger.info("Detected own Station ID: {}", ownStationId);
-                }
-
-                // Check if this is our own message (echo)
-                boolean isOwnMessage = (cam.getStationID() == ownStationId);
-                String origin = isOwnMessage ? "[OWN]" : "[OTHER]";
-
-                logger.info("{} CAM - StationID: {}, Position: ({}, {}), Speed: {} km/h, Heading: {}°",
-                    origin,
-                    cam.getStationID(),
-                    cam.getLatitude(),
-                    cam.getLongitude(),
-                    cam.getSpeedInKmH(),
-                    cam.getHeadingInDegree());
-            }
+            eventTimeMs = System.currentTimeMillis();
+
+            // Only stations that changed since the previous list reach the callbacks below
+            deltaTracker.onMessageBusEvent(baseEvent);
+
+            // Evict stations that have gone quiet; only the timer wheel buckets that elapsed are visited
+            stationTable.expire(eventTimeMs);
+            maybeLogSummary();
+        }
+    }
+
+    /**
+     * Processes a CAM list that has already been decoded, exactly as if it had arrived in a
+     * {@code CAM_LIST_CHANGED} event. Used to drive the handler without the SDK (replay, benchmarks).
+     */
+    public void onCamList(CamSample[] cams, int count) {
+        eventTimeMs = System.currentTimeMillis();
+
+        deltaTracker.beginSnapshot();
+        for (int i = 0; i < count; i++) {
+            deltaTracker.accept(cams[i]);
+        }
+        deltaTracker.endSnapshot();
+
+        stationTable.expire(eventTimeMs);
+        maybeLogSummary();
+    }
+
+    @Override
+    public void onCamAdded(CamSample cam) {
+        added++;
+        onCamChanged(cam);
+    }
+
+    @Override
+    public void onCamUpdated(CamSample cam) {
+        onCamChanged(cam);
+    }
+
+    @Override
+    public void onCamUnchanged(CamSample cam) {
+        // Still transmitting, so keep it past the TTL; re-adds it if it was evicted or turned away earlier
+        if (!stationTable.touch(cam.getStationId(), eventTimeMs)) {
+            stationTable.update(cam.getStationId(), cam.getLatitude(), cam.getLongitude(), cam.getSpeedKmh(),
+                cam.getHeadingDeg(), eventTimeMs);
         }
     }
+
+    @Override
+    public void onCamRemoved(long stationId) {
+        stationTable.remove(stationId);
+        removed++;
+        if (logger.isDebugEnabled()) {
+            logger.debug("CAM - StationID: {} left the CAM list", stationId);
+        }
+    }
+
+    private void onCamChanged(CamSample cam) {
+        // Detect own station ID from first message
+        if (ownStationId == -1) {
+            ownStationId = cam.getStationId();
+            logger.info("Detected own Station ID: {}", ownStationId);
+        }
+
+        // Check if this is our own message (echo)
+        boolean isOwnMessage = (cam.getStationId() == ownStationId);
+        if (isOwnMessage) {
+            ownUpdates++;
+        } else {
+            otherUpdates++;
+        }
+
+        // Sampled before formatting: a suppressed line costs no boxing or varargs array
+        if (logSampler.shouldLog(cam.getStationId(), eventTimeMs)) {
+            logger.info("{} CAM - StationID: {}, Position: ({}, {}), Speed: {} km/h, Heading: {}°",
+                isOwnMessage ? "[OWN]" : "[OTHER]",
+                cam.getStationId(),
+                cam.getLatitude(),
+                cam.getLongitude(),
+                cam.getSpeedKmh(),
+                cam.getHeadingDeg());
+        }
+
+        stationTable.update(
+            cam.getStationId(),
+            cam.getLatitude(),
+            cam.getLongitude(),
+            cam.getSpeedKmh(),
+            cam.getHeadingDeg(),
+            eventTimeMs);
+    }
+
+    private void maybeLogSummary() {
+        if (summaryIntervalMs <= 0) {
+            return;
+        }
+        if (summaryStartMs < 0) {
+            summaryStartMs = eventTimeMs;
+            return;
+        }
+        long elapsedMs = eventTimeMs - summaryStartMs;
+        if (elapsedMs < summaryIntervalMs) {
+            return;
+        }
+        long updates = ownUpdates + otherUpdates;
+        long suppressed = logSampler.suppressedCount();
+        logger.info("CAM summary ({} s): {} stations live, {} new, {} left, {} updates ({}/s), own {} / other {}, "
+                + "{} lines suppressed",
+            elapsedMs / 1000, stationTable.size(), added, removed, updates, updates * 1000 / elapsedMs,
+            ownUpdates, otherUpdates, suppressed - suppressedAtSummary);
+        summaryStartMs = eventTimeMs;
+        added = 0;
+        removed = 0;
+        ownUpdates = 0;
+        otherUpdates = 0;
+        suppressedAtSummary = suppressed;
+    }
+
+    /**
+     * Station ID of this vehicle as detected from the first received CAM, or -1 while unknown.
+     */
+    public long getOwnStationId() {
+        return ownStationId;
+    }
+
+    /**
+     * Tracker feeding this handler; register further {@link CamDeltaListener}s here to receive the same deltas.
+     */
+    public CamDeltaTracker getDeltaTracker() {
+        return deltaTracker;
+    }
 }
@@ -1,40 +1,165 @@
 package com.vodafone.v2x.example.handlers;
 
+import com.vodafone.v2x.example.delta.DenmDeltaTracker;
+import com.vodafone.v2x.example.denm.DenmLifecycleCache;
+import com.vodafone.v2x.example.denm.DenmLifecycleListener;
+import com.vodafone.v2x.example.model.DenmSample;
 import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
 import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
 import com.vodafone.v2xsdk4javav2.facade.events.EventType;
-import com.vodafone.v2xsdk4javav2.facade.events.EventDenmListChanged;
-import com.vodafone.v2xsdk4javav2.facade.records.denm.DENMRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class DENMHandler implements EventListener {
+public class DENMHandler implements EventListener, DenmLifecycleListener {
     private static final Logger logger = LoggerFactory.getLogger(DENMHandler.class);
-    private long ownStationId = -1;  // Will be set from first received message
+    private final DenmDeltaTracker deltaTracker = new DenmDeltaTracker();
+    private final DenmLifecycleCache lifecycleCache;
+    private final RecordLogSampler logSampler;
+    private final long summaryIntervalMs;
+    private volatile long ownStationId = -1;  // Will be set from first received message
+    private long eventTimeMs;
+
+    // Counters for the current summary interval; lifecycle callbacks update them under the cache's lock
+    private long summaryStartMs = -1;
+    private long newCount;
+    private long updatedCount;
+    private long terminatedCount;
+    private long expiredCount;
+    private long ownCount;
+    private long otherCount;
+    private long suppressedAtSummary;
+
+    public DENMHandler(DenmLifecycleCache lifecycleCache) {
+        this(lifecycleCache, RecordLogSampler.all(), 0);
+    }
+
+    /**
+     * @param logSampler        decides which DENM lifecycle steps get their own log line, per originator
+     * @param summaryIntervalMs period of the aggregated summary line; 0 disables it
+     */
+    public DENMHandler(DenmLifecycleCache lifecycleCache, RecordLogSampler logSampler, long summaryIntervalMs) {
+        this.lifecycleCache = lifecycleCache;
+        this.logSampler = logSampler;
+        this.summaryIntervalMs = summaryIntervalMs;
+        // List deltas -> retransmission filter -> one callback per hazard lifecycle step
+        deltaTracker.addListener(lifecycleCache);
+        lifecycleCache.addListener(this);
+    }
 
     @Override
     public void onMessageBusEvent(BaseEvent baseEvent) {
         if (baseEvent.getEventType() == EventType.DENM_LIST_CHANGED) {
-            EventDenmListChanged event = (EventDenmListChanged) baseEvent;
-
-            for (DENMRecord denm : event.getList()) {
-                // Detect own station ID from first message
-                if (ownStationId == -1) {
-                    ownStationId = denm.getOriginatorID();
-                    logger.info("Detected own Station ID: {}", ownStationId);
-                }
-
-                // Check if this is our own message (echo)
-                boolean isOwnMessage = (denm.getOriginatorID() == ownStationId);
-                String origin = isOwnMessage ? "[OWN]" : "[OTHER]";
-
-                logger.info("{} DENM - StationID: {}, SeqNum: {}, CauseCode: {}, SubCauseCode: {}",
-                    origin,
-                    denm.getOriginatorID(),
-                    denm.getSequenceNumber(),
-                    denm.getCauseCode(),
-                    denm.getSubCauseCode());
-            }
+            eventTimeMs = System.currentTimeMillis();
+            deltaTracker.onMessageBusEvent(baseEvent);
+            maybeLogSummary();
+        }
+    }
+
+    /**
+     * Processes a DENM list that has already been decoded, exactly as if it had arrived in a
+     * {@code DENM_LIST_CHANGED} event. Used to drive the handler without the SDK (replay, benchmarks).
+     */
+    public void onDenmList(DenmSample[] denms, int count) {
+        eventTimeMs = System.currentTimeMillis();
+        deltaTracker.beginSnapshot();
+        for (int i = 0; i < count; i++) {
+            deltaTracker.accept(denms[i]);
+        }
+        deltaTracker.endSnapshot();
+        maybeLogSummary();
+    }
+
+    @Override
+    public void onDenmNew(DenmSample denm) {
+        // Detect own station ID from first message
+        if (ownStationId == -1) {
+            ownStationId = denm.getOriginatorId();
+            logger.info("Detected own Station ID: {}", ownStationId);
+        }
+        newCount++;
+        log("DENM", denm, eventTimeMs);
+    }
+
+    @Override
+    public void onDenmUpdated(DenmSample denm) {
+        updatedCount++;
+        log("DENM updated", denm, eventTimeMs);
+    }
+
+    @Override
+    public void onDenmTerminated(DenmSample denm) {
+        terminatedCount++;
+        log("DENM terminated", denm, eventTimeMs);
+    }
+
+    @Override
+    public void onDenmExpired(DenmSample denm) {
+        // Called from the expiry thread, not for a received event
+        expiredCount++;
+        log("DENM expired", denm, System.currentTimeMillis());
+    }
+
+    private void log(String what, DenmSample denm, long nowMs) {
+        // Check if this is our own message (echo)
+        boolean isOwnMessage = (denm.getOriginatorId() == ownStationId);
+        if (isOwnMessage) {
+            ownCount++;
+        } else {
+            otherCount++;
+        }
+
+        if (logSampler.shouldLog(denm.getOriginatorId(), nowMs)) {
+            logger.info("{} {} - StationID: {}, SeqNum: {}, CauseCode: {}, SubCauseCode: {}",
+                isOwnMessage ? "[OWN]" : "[OTHER]",
+                what,
+                denm.getOriginatorId(),
+                denm.getSequenceNumber(),
+                denm.getCauseCode(),
+                denm.getSubCauseCode());
+        }
+    }
+
+    private void maybeLogSummary() {
+        if (summaryIntervalMs <= 0) {
+            return;
         }
+        synchronized (lifecycleCache) {
+            logSummary();
+        }
+    }
+
+    private void logSummary() {
+        if (summaryStartMs < 0) {
+            summaryStartMs = eventTimeMs;
+            return;
+        }
+        long elapsedMs = eventTimeMs - summaryStartMs;
+        if (elapsedMs < summaryIntervalMs) {
+            return;
+        }
+        long suppressed = logSampler.suppressedCount();
+        logger.info("DENM summary ({} s): {} tracked, {} new, {} updated, {} terminated, {} expired, "
+                + "own {} / other {}, {} lines suppressed",
+            elapsedMs / 1000, lifecycleCache.size(), newCount, updatedCount, terminatedCount, expiredCount,
+            ownCount, otherCount, suppressed - suppressedAtSummary);
+        summaryStartMs = eventTimeMs;
+        newCount = 0;
+        updatedCount = 0;
+        terminatedCount = 0;
+        expiredCount = 0;
+        ownCount = 0;
+        otherCount = 0;
+        suppressedAtSummary = suppressed;
+    }
+
+    /**
+     * Tracker feeding this handler; register further {@code DenmDeltaListener}s here to receive the raw deltas.
+     */
+    public DenmDeltaTracker getDeltaTracker() {
+        return deltaTracker;
+    }
+
+    public DenmLifecycleCache getLifecycleCache() {
+        return lifecycleCache;
     }
 }
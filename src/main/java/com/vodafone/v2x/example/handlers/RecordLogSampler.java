@@ -0,0 +1,90 @@
+package com.vodafone.v2x.example.handlers;
+
+import com.vodafone.v2x.example.util.LongIntHashMap;
+
+/**
+ * Decides which received records get their own log line, so logging keeps up at thousands of records per
+ * second.
+ *
+ * <p>In {@link Mode#SAMPLED} mode each station is logged at most once per {@code stationIntervalMs}. The last
+ * time a station was logged is kept in a slot array indexed through a {@link LongIntHashMap}. When all slots are
+ * taken the table is cleared, which at worst lets one extra line per station through. Every record that is not
+ * logged is counted, so the handlers' summary lines can report it. Not thread-safe; each handler owns one.
+ */
+public final class RecordLogSampler {
+
+    public enum Mode {
+        /** One line per record. */
+        ALL,
+        /** At most one line per station and interval. */
+        SAMPLED,
+        /** No per-record lines; only the periodic summary. */
+        SUMMARY
+    }
+
+    private final Mode mode;
+    private final long stationIntervalMs;
+    private final LongIntHashMap slots;
+    private final long[] lastLoggedMs;
+    private int used;
+    private long suppressed;
+
+    /**
+     * @param stationIntervalMs minimum time between two lines for the same station in {@link Mode#SAMPLED} mode
+     * @param capacity          stations tracked at once in {@link Mode#SAMPLED} mode
+     */
+    public RecordLogSampler(Mode mode, long stationIntervalMs, int capacity) {
+        if (mode == Mode.SAMPLED && capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.mode = mode;
+        this.stationIntervalMs = stationIntervalMs;
+        int tracked = mode == Mode.SAMPLED ? capacity : 0;
+        this.slots = new LongIntHashMap(tracked);
+        this.lastLoggedMs = new long[tracked];
+    }
+
+    /** Logs every record, as the handlers always did. */
+    public static RecordLogSampler all() {
+        return new RecordLogSampler(Mode.ALL, 0, 0);
+    }
+
+    /**
+     * Whether a record from {@code stationId} received at {@code nowMs} should be logged. Counts it as suppressed
+     * if not.
+     */
+    public boolean shouldLog(long stationId, long nowMs) {
+        switch (mode) {
+            case ALL:
+                return true;
+            case SUMMARY:
+                suppressed++;
+                return false;
+            default:
+                break;
+        }
+        int slot = slots.get(stationId);
+        if (slot == LongIntHashMap.MISSING) {
+            if (used == lastLoggedMs.length) {
+                slots.clear();
+                used = 0;
+            }
+            slot = used++;
+            slots.put(stationId, slot);
+        } else if (nowMs - lastLoggedMs[slot] < stationIntervalMs) {
+            suppressed++;
+            return false;
+        }
+        lastLoggedMs[slot] = nowMs;
+        return true;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /** Records not logged so far. */
+    public long suppressedCount() {
+        return suppressed;
+    }
+}
@@ -0,0 +1,57 @@
+package com.vodafone.v2x.example.jfr;
+
+import com.vodafone.v2xsdk4javav2.facade.V2XSDK;
+import com.vodafone.v2xsdk4javav2.facade.enums.DENMType;
+import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One {@code denmTrigger} or {@code denmTerminate} call. Use {@link #trigger} and {@link #terminate} in place of
+ * the SDK methods.
+ */
+@Name("com.vodafone.v2x.DenmOperation")
+@Label("DENM Operation")
+@Category({"V2X", "Messages"})
+@Description("DENM trigger or terminate call into the SDK")
+public final class DenmOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("DENM Type")
+    String denmType;
+
+    @Label("Sequence Number")
+    long sequenceNumber;
+
+    /** {@link V2XSDK#denmTrigger}, recorded. */
+    public static long trigger(V2XSDK sdk, DENMType type, GnssLocation location) {
+        DenmOperationEvent event = new DenmOperationEvent();
+        event.begin();
+        long sequenceNumber = sdk.denmTrigger(type, location);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "trigger";
+            event.denmType = type.name();
+            event.sequenceNumber = sequenceNumber;
+            event.commit();
+        }
+        return sequenceNumber;
+    }
+
+    /** {@link V2XSDK#denmTerminate}, recorded. */
+    public static void terminate(V2XSDK sdk, long sequenceNumber) {
+        DenmOperationEvent event = new DenmOperationEvent();
+        event.begin();
+        sdk.denmTerminate(sequenceNumber);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "terminate";
+            event.sequenceNumber = sequenceNumber;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.vodafone.v2x.example.jfr;
+
+import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
+import com.vodafone.v2xsdk4javav2.facade.events.EventCamListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventDenmListChanged;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One {@code onMessageBusEvent} call on a pipeline listener; the event duration is the listener's run time.
+ */
+@Name("com.vodafone.v2x.HandlerDispatch")
+@Label("Handler Dispatch")
+@Category({"V2X", "Messages"})
+@Description("SDK event handed to one pipeline listener")
+public final class HandlerDispatchEvent extends Event {
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Listener")
+    String listener;
+
+    @Label("Event Type")
+    String eventType;
+
+    @Label("List Size")
+    @Description("Records in the CAM or DENM list, -1 for other events")
+    int listSize;
+
+    /** Fills in the fields and commits if the event passed its threshold. */
+    public void commit(String pipeline, Object listener, BaseEvent event) {
+        end();
+        if (shouldCommit()) {
+            this.pipeline = pipeline;
+            this.listener = listener.getClass().getSimpleName();
+            this.eventType = String.valueOf(event.getEventType());
+            this.listSize = event instanceof EventCamListChanged cam ? cam.getList().size()
+                : event instanceof EventDenmListChanged denm ? denm.getList().size() : -1;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.vodafone.v2x.example.jfr;
+
+import com.vodafone.v2x.example.metrics.HistogramSnapshot;
+import com.vodafone.v2x.example.metrics.LatencyHistogram;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarizes a flight recording of the application into per-stage latency tables.
+ *
+ * <p>Prints the service state transitions in order, then count and duration percentiles for every handler
+ * (by pipeline and listener), location fixes, DENM triggers and terminates, and GC pauses, and finally how many
+ * handler dispatches overlapped a GC pause. Usage: {@code JfrSummary <recording.jfr>}.
+ */
+public final class JfrSummary {
+    private static final String GC_PAUSE = "jdk.GCPhasePause";
+
+    private record Transition(Instant time, String line) {
+    }
+
+    /** Durations and list sizes of one stage. */
+    private static final class Stage {
+        final LatencyHistogram durations;
+        long records;
+
+        Stage(String name) {
+            durations = new LatencyHistogram(name, name, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private final Map<String, Stage> stages = new TreeMap<>();
+    private final List<Transition> transitions = new ArrayList<>();
+    private long[] pauseStarts = new long[64];
+    private long[] pauseEnds = new long[64];
+    private int pauses;
+    private long[] dispatchStarts = new long[1024];
+    private long[] dispatchEnds = new long[1024];
+    private int dispatches;
+
+    private JfrSummary() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrSummary <recording.jfr>");
+            System.exit(2);
+        }
+        JfrSummary summary = new JfrSummary();
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                summary.add(recording.readEvent());
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read " + args[0] + ": " + e);
+            System.exit(1);
+        }
+        summary.print();
+    }
+
+    private void add(RecordedEvent event) {
+        String name = event.getEventType().getName();
+        long nanos = event.getDuration().toNanos();
+        switch (name) {
+            case "com.vodafone.v2x.ServiceState" -> transitions.add(new Transition(event.getStartTime(),
+                String.format(Locale.ROOT, "%s  %-5s %-16s %d ms", event.getStartTime(), event.getString("service"),
+                    event.getString("state"), event.getDuration("elapsed").toMillis())));
+            case "com.vodafone.v2x.HandlerDispatch" -> {
+                Stage stage = stage("dispatch " + event.getString("pipeline") + "/" + event.getString("listener"));
+                stage.durations.record(nanos);
+                stage.records += Math.max(0, event.getInt("listSize"));
+                if (dispatches == dispatchStarts.length) {
+                    dispatchStarts = Arrays.copyOf(dispatchStarts, dispatches * 2);
+                    dispatchEnds = Arrays.copyOf(dispatchEnds, dispatches * 2);
+                }
+                dispatchStarts[dispatches] = epochNanos(event.getStartTime());
+                dispatchEnds[dispatches++] = epochNanos(event.getEndTime());
+            }
+            case "com.vodafone.v2x.LocationFix" -> {
+                stage("location fix").durations.record(nanos);
+                stage("location fix: sdk").durations.record(event.getDuration("sdkTime").toNanos());
+            }
+            case "com.vodafone.v2x.DenmOperation" -> stage("denm " + event.getString("operation")).durations
+                .record(nanos);
+            case GC_PAUSE -> {
+                stage("gc pause").durations.record(nanos);
+                if (pauses == pauseStarts.length) {
+                    pauseStarts = Arrays.copyOf(pauseStarts, pauses * 2);
+                    pauseEnds = Arrays.copyOf(pauseEnds, pauses * 2);
+                }
+                pauseStarts[pauses] = epochNanos(event.getStartTime());
+                pauseEnds[pauses++] = epochNanos(event.getEndTime());
+            }
+            default -> {
+                // not summarized
+            }
+        }
+    }
+
+    private Stage stage(String name) {
+        return stages.computeIfAbsent(name, Stage::new);
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private void print() {
+        System.out.println("Service states");
+        if (transitions.isEmpty()) {
+            System.out.println("  none recorded");
+        }
+        transitions.sort(Comparator.comparing(Transition::time));
+        for (Transition transition : transitions) {
+            System.out.println("  " + transition.line());
+        }
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-40s %10s %10s %10s %10s %10s %10s %10s%n",
+            "Stage (us)", "count", "p50", "p90", "p99", "p99.9", "max", "records");
+        for (Map.Entry<String, Stage> entry : stages.entrySet()) {
+            HistogramSnapshot snapshot = entry.getValue().durations.snapshot();
+            System.out.printf(Locale.ROOT, "%-40s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10s%n",
+                entry.getKey(), snapshot.count(), micros(snapshot.percentile(0.5)),
+                micros(snapshot.percentile(0.9)), micros(snapshot.percentile(0.99)),
+                micros(snapshot.percentile(0.999)), micros(snapshot.max()),
+                entry.getKey().startsWith("dispatch ") ? Long.toString(entry.getValue().records) : "");
+        }
+        if (pauses > 0 && dispatches > 0) {
+            int overlapping = overlappingDispatches();
+            System.out.println();
+            System.out.printf(Locale.ROOT, "%d of %d dispatches (%.2f%%) overlapped one of %d GC pauses%n",
+                overlapping, dispatches, 100.0 * overlapping / dispatches, pauses);
+        } else if (pauses == 0) {
+            System.out.println();
+            System.out.println("No " + GC_PAUSE + " events; record with settings=profile to line up GC pauses");
+        }
+    }
+
+    private int overlappingDispatches() {
+        // Pauses do not overlap each other, so sorting by start sorts them by end too
+        long[][] sorted = new long[pauses][];
+        for (int i = 0; i < pauses; i++) {
+            sorted[i] = new long[] {pauseStarts[i], pauseEnds[i]};
+        }
+        Arrays.sort(sorted, (a, b) -> Long.compare(a[0], b[0]));
+        long[] ends = new long[pauses];
+        long[] starts = new long[pauses];
+        for (int i = 0; i < pauses; i++) {
+            starts[i] = sorted[i][0];
+            ends[i] = sorted[i][1];
+        }
+        int overlapping = 0;
+        for (int i = 0; i < dispatches; i++) {
+            // First pause ending after the dispatch started
+            int index = Arrays.binarySearch(ends, dispatchStarts[i]);
+            index = index < 0 ? -index - 1 : index;
+            if (index < pauses && starts[index] < dispatchEnds[i]) {
+                overlapping++;
+            }
+        }
+        return overlapping;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
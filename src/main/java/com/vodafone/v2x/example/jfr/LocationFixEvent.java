@@ -0,0 +1,49 @@
+package com.vodafone.v2x.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import jdk.jfr.Timestamp;
+
+/**
+ * One location fix: {@code notifyFreshLocation} into the SDK, then the fix listeners. The event duration covers
+ * both; {@code sdkTime} is the SDK's share.
+ */
+@Name("com.vodafone.v2x.LocationFix")
+@Label("Location Fix")
+@Category({"V2X", "Location"})
+@Description("Location fix passed to the SDK and the fix listeners")
+public final class LocationFixEvent extends Event {
+    @Label("Latitude")
+    double latitude;
+
+    @Label("Longitude")
+    double longitude;
+
+    @Label("Fix Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long fixTime;
+
+    @Label("SDK Time")
+    @Description("Time spent in notifyFreshLocation")
+    @Timespan(Timespan.NANOSECONDS)
+    long sdkTime;
+
+    public void setSdkTime(long nanos) {
+        this.sdkTime = nanos;
+    }
+
+    /** Fills in the fields and commits if the event passed its threshold. */
+    public void commit(double latitude, double longitude, long fixTimeMs) {
+        end();
+        if (shouldCommit()) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.fixTime = fixTimeMs;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.vodafone.v2x.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * An SDK service reached a state during startup, reconnect or shutdown.
+ */
+@Name("com.vodafone.v2x.ServiceState")
+@Label("Service State")
+@Category({"V2X", "Lifecycle"})
+@Description("SDK service state transition")
+public final class ServiceStateEvent extends Event {
+    @Label("Service")
+    @Description("V2X, CAM, DENM or MQTT")
+    String service;
+
+    @Label("State")
+    String state;
+
+    @Label("Elapsed")
+    @Description("Time the transition took, if measured")
+    @Timespan(Timespan.MILLISECONDS)
+    long elapsed;
+
+    /** Records that {@code service} reached {@code state} after {@code elapsedMs}. */
+    public static void emit(String service, String state, long elapsedMs) {
+        ServiceStateEvent event = new ServiceStateEvent();
+        if (event.isEnabled()) {
+            event.service = service;
+            event.state = state;
+            event.elapsed = elapsedMs;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.vodafone.v2x.example.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Watches the SDK connectivity state and restores the connection when the SDK does not manage to on its own.
+ *
+ * <p>A disconnect is first left to the SDK's own MQTT reconnect for {@code graceMs}. After that the
+ * {@code reconnect} action runs; while it keeps failing, attempts are spaced by exponential backoff from
+ * {@code backoffInitialMs} up to {@code backoffMaxMs} with equal jitter (half fixed, half random), so a fleet
+ * losing the broker at the same moment does not reconnect in lockstep. {@code onRestored} runs after every
+ * successful attempt. Everything runs on one daemon thread, so attempts never overlap.
+ */
+public class ConnectivityWatchdog implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectivityWatchdog.class);
+
+    private final BooleanSupplier connected;
+    private final Callable<Boolean> reconnect;
+    private final Runnable onRestored;
+    private final long graceMs;
+    private final long backoffInitialMs;
+    private final long backoffMaxMs;
+    private final ScheduledExecutorService scheduler;
+
+    private long disconnectedSinceMs = -1;
+    private long nextAttemptMs;
+    private int attempt;
+    private volatile long disconnects;
+    private volatile long reconnects;
+    private volatile long failedAttempts;
+
+    /**
+     * @param connected  current connectivity, polled every {@code intervalMs}
+     * @param reconnect  one reconnect attempt; returns whether the connection is back
+     * @param onRestored runs after a successful {@code reconnect}, e.g. to replay state the restart lost
+     */
+    public ConnectivityWatchdog(BooleanSupplier connected, Callable<Boolean> reconnect, Runnable onRestored,
+                                long intervalMs, long graceMs, long backoffInitialMs, long backoffMaxMs) {
+        if (backoffInitialMs <= 0 || backoffMaxMs < backoffInitialMs) {
+            throw new IllegalArgumentException(
+                "Invalid backoff: initial " + backoffInitialMs + " ms, max " + backoffMaxMs + " ms");
+        }
+        this.connected = connected;
+        this.reconnect = reconnect;
+        this.onRestored = onRestored;
+        this.graceMs = graceMs;
+        this.backoffInitialMs = backoffInitialMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connectivity-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        try {
+            long nowMs = System.currentTimeMillis();
+            if (connected.getAsBoolean()) {
+                if (disconnectedSinceMs >= 0) {
+                    logger.info("Connectivity restored after {} ms", nowMs - disconnectedSinceMs);
+                    disconnectedSinceMs = -1;
+                    attempt = 0;
+                }
+                return;
+            }
+            if (disconnectedSinceMs < 0) {
+                disconnectedSinceMs = nowMs;
+                nextAttemptMs = nowMs + graceMs;
+                disconnects++;
+                logger.warn("Connectivity lost; waiting {} ms for the SDK to reconnect", graceMs);
+                return;
+            }
+            if (nowMs < nextAttemptMs) {
+                return;
+            }
+            attempt++;
+            logger.info("Reconnect attempt {} after {} ms disconnected", attempt, nowMs - disconnectedSinceMs);
+            boolean restored;
+            try {
+                restored = reconnect.call();
+            } catch (Exception e) {
+                logger.warn("Reconnect attempt {} failed: {}", attempt, e.toString());
+                restored = false;
+            }
+            if (restored) {
+                reconnects++;
+                logger.info("Reconnected after {} attempt(s), {} ms disconnected", attempt,
+                    System.currentTimeMillis() - disconnectedSinceMs);
+                disconnectedSinceMs = -1;
+                attempt = 0;
+                onRestored.run();
+            } else {
+                failedAttempts++;
+                long delayMs = backoffMs(attempt, backoffInitialMs, backoffMaxMs,
+                    ThreadLocalRandom.current().nextDouble());
+                nextAttemptMs = System.currentTimeMillis() + delayMs;
+                logger.warn("Still disconnected; next reconnect attempt in {} ms", delayMs);
+            }
+        } catch (RuntimeException e) {
+            // A failing check must not cancel the periodic task
+            logger.error("Connectivity watchdog error", e);
+        }
+    }
+
+    /**
+     * Delay before attempt {@code attempt + 1}: {@code initialMs * 2^(attempt - 1)} capped at {@code maxMs}, of
+     * which the upper half is scaled by {@code random} in [0, 1).
+     */
+    static long backoffMs(int attempt, long initialMs, long maxMs, double random) {
+        int doublings = Math.min(Math.max(attempt - 1, 0), Long.numberOfLeadingZeros(initialMs) - 1);
+        long ceilingMs = Math.min(maxMs, initialMs << doublings);
+        long halfMs = ceilingMs / 2;
+        return ceilingMs - halfMs + (long) (halfMs * random);
+    }
+
+    /** Times connectivity was lost. */
+    public long getDisconnects() {
+        return disconnects;
+    }
+
+    /** Reconnects that needed a service restart. */
+    public long getReconnects() {
+        return reconnects;
+    }
+
+    public long getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
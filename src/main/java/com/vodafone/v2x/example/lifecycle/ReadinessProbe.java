@@ -0,0 +1,81 @@
+package com.vodafone.v2x.example.lifecycle;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link CompletableFuture}-based readiness checks for SDK state transitions.
+ *
+ * <p>The SDK publishes no events for its service and connectivity states, so {@link #when} polls the condition
+ * every {@code pollIntervalMs} (a few milliseconds) on one shared daemon thread, and completes as soon as it
+ * holds instead of on the next one-second boundary. Every future completes with the milliseconds it took, so
+ * callers can report time-to-ready per stage. {@link #run} starts blocking SDK calls in parallel.
+ */
+public class ReadinessProbe implements AutoCloseable {
+    private final long pollIntervalMs;
+    private final ScheduledExecutorService poller;
+    private final ExecutorService starter;
+
+    public ReadinessProbe(long pollIntervalMs) {
+        if (pollIntervalMs <= 0) {
+            throw new IllegalArgumentException("pollIntervalMs must be positive: " + pollIntervalMs);
+        }
+        this.pollIntervalMs = pollIntervalMs;
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sdk-readiness");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.starter = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "sdk-start");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Completes with the milliseconds until {@code condition} first held, or exceptionally with a
+     * {@link java.util.concurrent.TimeoutException} after {@code timeoutMs}, or with whatever the condition threw.
+     */
+    public CompletableFuture<Long> when(BooleanSupplier condition, long timeoutMs) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<Long> ready = new CompletableFuture<>();
+        ScheduledFuture<?> poll = poller.scheduleWithFixedDelay(() -> {
+            try {
+                if (condition.getAsBoolean()) {
+                    ready.complete(elapsedMs(startNanos));
+                }
+            } catch (RuntimeException e) {
+                ready.completeExceptionally(e);
+            }
+        }, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        ready.whenComplete((elapsed, failure) -> poll.cancel(false));
+        return ready.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a blocking call on its own thread and completes with the milliseconds it took.
+     */
+    public CompletableFuture<Long> run(Runnable action) {
+        long startNanos = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            action.run();
+            return elapsedMs(startNanos);
+        }, starter);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        starter.shutdownNow();
+    }
+}
@@ -0,0 +1,197 @@
+package com.vodafone.v2x.example.loadgen;
+
+import com.vodafone.v2x.example.config.AppConfig;
+import com.vodafone.v2x.example.lifecycle.ReadinessProbe;
+import com.vodafone.v2x.example.location.FakeLocationProvider;
+import com.vodafone.v2x.example.location.ListenableLocationProvider;
+import com.vodafone.v2x.example.location.route.Route;
+import com.vodafone.v2x.example.location.route.RouteSimulatorLocationProvider;
+import com.vodafone.v2x.example.loopback.HostRedirect;
+import com.vodafone.v2x.example.metrics.HistogramSnapshot;
+import com.vodafone.v2x.example.metrics.LatencyHistogram;
+import com.vodafone.v2x.example.util.Logging;
+import com.vodafone.v2xsdk4javav2.facade.enums.StepInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load-generation mode: starts {@code loadgen.vehicles} simulated vehicles, each with its own location provider,
+ * SDK instance and MQTT client ID, and reports aggregate transmit and receive rates.
+ *
+ * <p>Each vehicle runs on its own virtual thread, so a few thousand vehicles cost a few thousand small stacks
+ * rather than a platform thread each (the SDK's own MQTT threads are still platform threads). Vehicles are
+ * started at {@code loadgen.ramp.per.second} so the broker sees a ramp rather than a connection storm, and the
+ * run stops {@code loadgen.duration.seconds} after the first vehicle starts.
+ *
+ * <p>With {@code location.route.file} set the vehicles drive that route instead of standing still, spread evenly
+ * along it; their fixes all come from {@code loadgen.route.threads} shared threads.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+    private static final long REPORT_INTERVAL_SECONDS = 5;
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    /** Everything a {@link SimulatedVehicle} needs from the configuration. */
+    record Settings(StepInstance stepInstance, String applicationId, String applicationToken, String group,
+                    boolean camEnabled, boolean denmEnabled, long denmIntervalMs, long serviceTimeoutMs) {
+    }
+
+    private final AppConfig config;
+    private final LoadStats stats = new LoadStats();
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+
+    public LoadGenerator(AppConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) {
+        try {
+            AppConfig config = new AppConfig();
+            // Before any vehicle's SDK resolves the broker host
+            if (!config.getMqttRedirect().isEmpty()) {
+                HostRedirect.install(config.getStepInstance().getMqttHost(), config.getMqttRedirect());
+                logger.info("MQTT redirect: {} -> {}", config.getStepInstance().getMqttHost(),
+                    config.getMqttRedirect());
+            }
+            new LoadGenerator(config).run();
+            Logging.stop();
+        } catch (Exception e) {
+            logger.error("Load generator error", e);
+            Logging.stop();
+            System.exit(1);
+        }
+    }
+
+    public void run() throws IOException {
+        int vehicles = config.getLoadVehicles();
+        double rampPerSecond = config.getLoadRampPerSecond();
+        long durationNanos = TimeUnit.SECONDS.toNanos(config.getLoadDurationSeconds());
+        Settings settings = new Settings(config.getStepInstance(), config.getApplicationId(),
+            config.getApplicationToken(), config.getGroup(), config.isCamServiceEnabled(),
+            config.isDenmServiceEnabled(), TimeUnit.SECONDS.toMillis(config.getLoadDenmIntervalSeconds()),
+            config.getStartupServiceTimeoutMs());
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        logger.info("=== V2X Load Generator ===");
+        logger.info("  STEP Instance: {}, {}, {}", settings.stepInstance(), settings.stepInstance().getMqttHost(),
+            settings.stepInstance().getMqttPort());
+        logger.info("  Vehicles: {}, ramp {}/s, duration {} s, DENM every {} s, spread {} m",
+            vehicles, rampPerSecond, config.getLoadDurationSeconds(), config.getLoadDenmIntervalSeconds(),
+            config.getLoadSpreadM());
+        logger.info("  CAM Service: {}, DENM Service: {}, client IDs {}-{}-<n>",
+            settings.camEnabled() ? "ENABLED" : "DISABLED", settings.denmEnabled() ? "ENABLED" : "DISABLED",
+            config.getMqttClientId(), runId);
+
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + durationNanos;
+        LoadStats.Snapshot initial = stats.snapshot(startNanos);
+        AtomicReference<LoadStats.Snapshot> previous = new AtomicReference<>(initial);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "loadgen-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            LoadStats.Snapshot now = stats.snapshot(System.nanoTime());
+            logger.info("  {}", now.ratesSince(previous.getAndSet(now)));
+        }, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        Route route = null;
+        ScheduledExecutorService fixScheduler = null;
+        LatencyHistogram fixJitter = new LatencyHistogram("location.fix.jitter", "Route simulator fix lateness",
+            TimeUnit.NANOSECONDS);
+        if (!config.getRouteFile().isEmpty()) {
+            route = Route.read(Path.of(config.getRouteFile()), config.isRouteLoop());
+            fixScheduler = RouteSimulatorLocationProvider.newFixScheduler(config.getLoadRouteThreads());
+            logger.info("  Route: {} ({} m), {} fixes/s, {} fix threads", config.getRouteFile(),
+                Math.round(route.length()), config.getRouteRateHz(), config.getLoadRouteThreads());
+        }
+
+        // One poller thread checks every vehicle's service state, so none of them waits for a one-second tick
+        ReadinessProbe readiness = new ReadinessProbe(config.getStartupPollIntervalMs());
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("loadgen-vehicle-", 0).factory());
+        try {
+            // Start times are fixed up front so a slow SDK constructor does not stretch the ramp
+            long rampIntervalNanos = rampPerSecond > 0 ? (long) (1e9 / rampPerSecond) : 0;
+            for (int i = 0; i < vehicles && System.nanoTime() < deadlineNanos; i++) {
+                long startAt = startNanos + i * rampIntervalNanos;
+                long wait;
+                while ((wait = startAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                double[] position = position(i, vehicles);
+                ListenableLocationProvider locationProvider = route != null
+                    ? new RouteSimulatorLocationProvider(route, config.getRouteSpeedProfile(), config.getRouteRateHz(),
+                        i * route.length() / vehicles, fixScheduler).recordJitter(fixJitter)
+                    : new FakeLocationProvider(position[0], position[1], Thread.ofVirtual().name("loadgen-fix-" + i));
+                executor.execute(new SimulatedVehicle(i, config.getMqttClientId() + "-" + runId + "-" + i,
+                    locationProvider, position[0], position[1], settings, readiness, stats, stopSignal));
+            }
+
+            long remaining;
+            while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Load generator interrupted, stopping vehicles");
+        } finally {
+            stopSignal.countDown();
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Vehicles still stopping after {} s, interrupting", STOP_TIMEOUT_SECONDS);
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            readiness.close();
+            reporter.shutdownNow();
+            if (fixScheduler != null) {
+                fixScheduler.shutdownNow();
+            }
+        }
+
+        LoadStats.Snapshot end = stats.snapshot(System.nanoTime());
+        logger.info("=== Load run finished ===");
+        logger.info("  Average over run: {}", end.ratesSince(initial));
+        logger.info("  Totals: fixes {}, DENMs triggered {}, CAM records received {}, DENM records received {}",
+            end.fixes(), end.denmsTriggered(), end.camRecords(), end.denmRecords());
+        if (route != null) {
+            HistogramSnapshot jitter = fixJitter.snapshot();
+            logger.info("  Fix jitter: p50 {} us, p99 {} us, p99.9 {} us, max {} us",
+                TimeUnit.NANOSECONDS.toMicros(jitter.percentile(0.5)),
+                TimeUnit.NANOSECONDS.toMicros(jitter.percentile(0.99)),
+                TimeUnit.NANOSECONDS.toMicros(jitter.percentile(0.999)),
+                TimeUnit.NANOSECONDS.toMicros(jitter.max()));
+        }
+    }
+
+    /**
+     * Spreads the vehicles evenly over a disc of radius {@code loadgen.spread.m} around the test location
+     * (Vogel's sunflower spiral), so any two runs with the same vehicle count use the same positions.
+     */
+    private double[] position(int index, int count) {
+        double radiusM = config.getLoadSpreadM() * Math.sqrt((index + 0.5) / count);
+        double angle = index * GOLDEN_ANGLE;
+        double latitude = config.getTestLatitude() + radiusM * Math.sin(angle) / METERS_PER_DEGREE_LAT;
+        double longitude = config.getTestLongitude() + radiusM * Math.cos(angle)
+            / (METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(config.getTestLatitude())));
+        return new double[] {latitude, longitude};
+    }
+}
@@ -0,0 +1,47 @@
+package com.vodafone.v2x.example.loadgen;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregate counters shared by every {@link SimulatedVehicle}. Counters are {@link LongAdder}s, so hundreds of
+ * vehicle and SDK threads can increment them without contending on one cache line.
+ */
+final class LoadStats {
+    final LongAdder vehiclesStarted = new LongAdder();
+    final LongAdder vehiclesRunning = new LongAdder();
+    final LongAdder vehiclesFailed = new LongAdder();
+    final LongAdder fixes = new LongAdder();
+    final LongAdder denmsTriggered = new LongAdder();
+    final LongAdder denmTriggerFailures = new LongAdder();
+    final LongAdder camEvents = new LongAdder();
+    final LongAdder camRecords = new LongAdder();
+    final LongAdder denmEvents = new LongAdder();
+    final LongAdder denmRecords = new LongAdder();
+
+    Snapshot snapshot(long atNanos) {
+        return new Snapshot(atNanos, vehiclesStarted.sum(), vehiclesRunning.sum(), vehiclesFailed.sum(),
+            fixes.sum(), denmsTriggered.sum(), denmTriggerFailures.sum(), camEvents.sum(), camRecords.sum(),
+            denmEvents.sum(), denmRecords.sum());
+    }
+
+    /** Point-in-time copy of the counters; rates are computed between two snapshots. */
+    record Snapshot(long atNanos, long vehiclesStarted, long vehiclesRunning, long vehiclesFailed, long fixes,
+                    long denmsTriggered, long denmTriggerFailures, long camEvents, long camRecords,
+                    long denmEvents, long denmRecords) {
+
+        String ratesSince(Snapshot earlier) {
+            double seconds = Math.max(1e-9, (atNanos - earlier.atNanos) / 1e9);
+            return String.format(
+                "vehicles %d running / %d started / %d failed | tx: fixes %.1f/s, DENM %.2f/s (%d failed)"
+                    + " | rx: CAM %.1f events/s %.1f records/s, DENM %.1f events/s %.1f records/s",
+                vehiclesRunning, vehiclesStarted, vehiclesFailed,
+                (fixes - earlier.fixes) / seconds,
+                (denmsTriggered - earlier.denmsTriggered) / seconds,
+                denmTriggerFailures,
+                (camEvents - earlier.camEvents) / seconds,
+                (camRecords - earlier.camRecords) / seconds,
+                (denmEvents - earlier.denmEvents) / seconds,
+                (denmRecords - earlier.denmRecords) / seconds);
+        }
+    }
+}
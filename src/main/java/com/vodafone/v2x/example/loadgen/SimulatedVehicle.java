@@ -0,0 +1,189 @@
+package com.vodafone.v2x.example.loadgen;
+
+import com.vodafone.v2x.example.jfr.DenmOperationEvent;
+import com.vodafone.v2x.example.lifecycle.ReadinessProbe;
+import com.vodafone.v2x.example.location.ListenableLocationProvider;
+import com.vodafone.v2xsdk4javav2.facade.SDKConfiguration;
+import com.vodafone.v2xsdk4javav2.facade.V2XSDK;
+import com.vodafone.v2xsdk4javav2.facade.enums.*;
+import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
+import com.vodafone.v2xsdk4javav2.facade.events.EventCamListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventDenmListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
+import com.vodafone.v2xsdk4javav2.facade.events.EventType;
+import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * One simulated vehicle: its own location provider, SDK instance and MQTT client ID, sending CAMs and triggering
+ * a DENM every {@code denmIntervalMs} until the run is stopped. Meant to run on a virtual thread; everything it
+ * does between SDK calls is blocking waits.
+ */
+final class SimulatedVehicle implements Runnable, EventListener {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedVehicle.class);
+
+    private final int index;
+    private final String clientId;
+    private final ListenableLocationProvider locationProvider;
+    private volatile double latitude;
+    private volatile double longitude;
+    private final LoadGenerator.Settings settings;
+    private final ReadinessProbe readiness;
+    private final LoadStats stats;
+    private final CountDownLatch stopSignal;
+
+    private V2XSDK sdk;
+
+    /**
+     * @param latitude  start position; DENMs are triggered at the latest fix from {@code locationProvider}
+     */
+    SimulatedVehicle(int index, String clientId, ListenableLocationProvider locationProvider, double latitude,
+                     double longitude, LoadGenerator.Settings settings, ReadinessProbe readiness, LoadStats stats,
+                     CountDownLatch stopSignal) {
+        this.index = index;
+        this.clientId = clientId;
+        this.locationProvider = locationProvider;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.settings = settings;
+        this.readiness = readiness;
+        this.stats = stats;
+        this.stopSignal = stopSignal;
+    }
+
+    @Override
+    public void run() {
+        stats.vehiclesStarted.increment();
+        boolean running = false;
+        try {
+            start();
+            stats.vehiclesRunning.increment();
+            running = true;
+
+            long sequenceNumber = -1;
+            while (!stopSignal.await(settings.denmIntervalMs(), TimeUnit.MILLISECONDS)) {
+                if (settings.denmEnabled()) {
+                    long previous = sequenceNumber;
+                    sequenceNumber = triggerDenm();
+                    if (previous >= 0) {
+                        DenmOperationEvent.terminate(sdk, previous);
+                    }
+                }
+            }
+            if (sequenceNumber >= 0) {
+                DenmOperationEvent.terminate(sdk, sequenceNumber);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            stats.vehiclesFailed.increment();
+            logger.warn("Vehicle {} ({}) failed: {}", index, clientId, e.toString());
+        } finally {
+            if (running) {
+                stats.vehiclesRunning.decrement();
+            }
+            stop();
+        }
+    }
+
+    private void start() throws InterruptedException {
+        locationProvider.addFixListener((lat, lon, timestampMs) -> {
+            latitude = lat;
+            longitude = lon;
+            stats.fixes.increment();
+        });
+
+        SDKConfiguration.SDKConfigurationBuilder configBuilder = SDKConfiguration.builder()
+            .stepInstance(settings.stepInstance())
+            .applicationID(settings.applicationId())
+            .applicationToken(settings.applicationToken())
+            .mqttClientID(clientId)
+            .stationType(StationType.PASSENGER_CAR);
+        if (settings.camEnabled()) {
+            configBuilder
+                .camServiceMode(ServiceMode.TxAndRx)
+                .camPublishGroup(settings.group())
+                .camSubscribeGroup(settings.group());
+        }
+        if (settings.denmEnabled()) {
+            configBuilder
+                .denmServiceMode(ServiceMode.TxAndRx)
+                .denmPublishGroup(settings.group())
+                .denmSubscribeGroup(settings.group());
+        }
+
+        sdk = new V2XSDK(locationProvider, configBuilder.build());
+        sdk.setSDKLogLevel(LogLevel.INFO);
+        sdk.startV2XService();
+        CompletableFuture<Long> serviceUp = readiness.when(
+            () -> sdk.getV2XServiceState() == V2XServiceState.UP_AND_RUNNING, settings.serviceTimeoutMs());
+        try {
+            serviceUp.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Service initialization timeout");
+            }
+            throw new IllegalStateException("Service initialization failed", e.getCause());
+        } finally {
+            // Stops the poll if this vehicle was interrupted while waiting
+            serviceUp.cancel(false);
+        }
+
+        if (settings.camEnabled()) {
+            sdk.subscribe(this, EventType.CAM_LIST_CHANGED);
+            sdk.startCAMService();
+        }
+        if (settings.denmEnabled()) {
+            sdk.subscribe(this, EventType.DENM_LIST_CHANGED);
+            sdk.startDENMService();
+        }
+        logger.debug("Vehicle {} ({}) running at ({}, {})", index, clientId, latitude, longitude);
+    }
+
+    private long triggerDenm() {
+        GnssLocation eventLocation = new GnssLocation(latitude, longitude, 50.0, 0.0F, 0.0f, 2.0f,
+            sdk.getUTCTimeInMs());
+        long sequenceNumber = DenmOperationEvent.trigger(sdk, DENMType.ACCIDENT_UNSECUREDACCIDENT, eventLocation);
+        if (sequenceNumber >= 0) {
+            stats.denmsTriggered.increment();
+        } else {
+            stats.denmTriggerFailures.increment();
+        }
+        return sequenceNumber;
+    }
+
+    private void stop() {
+        if (sdk != null) {
+            try {
+                if (settings.camEnabled()) {
+                    sdk.stopCAMService();
+                }
+                if (settings.denmEnabled()) {
+                    sdk.stopDENMService();
+                }
+                sdk.stopV2XService();
+            } catch (Exception e) {
+                logger.warn("Vehicle {} ({}) did not stop cleanly: {}", index, clientId, e.toString());
+            }
+        }
+        locationProvider.turnOff();
+    }
+
+    @Override
+    public void onMessageBusEvent(BaseEvent baseEvent) {
+        if (baseEvent instanceof EventCamListChanged event) {
+            stats.camEvents.increment();
+            stats.camRecords.add(event.getList().size());
+        } else if (baseEvent instanceof EventDenmListChanged event) {
+            stats.denmEvents.increment();
+            stats.denmRecords.add(event.getList().size());
+        }
+    }
+}
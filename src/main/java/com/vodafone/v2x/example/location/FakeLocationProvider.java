@@ -1,30 +1,38 @@
 package com.vodafone.v2x.example.location;
 
-import com.vodafone.v2xsdk4javav2.facade.locationprovider.LocationProvider;
 import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public  class FakeLocationProvider extends LocationProvider implements Runnable {
+public  class FakeLocationProvider extends ListenableLocationProvider implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(FakeLocationProvider.class);
     
     private final double latitude;
     private final double longitude;
+    private final Thread.Builder threadBuilder;
     private Thread locationThread;
     private volatile boolean running;
     
     public FakeLocationProvider(double latitude, double longitude) {
+        this(latitude, longitude, Thread.ofPlatform().name("FakeLocationProvider"));
+    }
+
+    /**
+     * @param threadBuilder builds the provider thread, e.g. {@code Thread.ofVirtual()} when many providers run in
+     *                      one JVM
+     */
+    public FakeLocationProvider(double latitude, double longitude, Thread.Builder threadBuilder) {
         this.latitude = latitude;
         this.longitude = longitude;
+        this.threadBuilder = threadBuilder;
         this.running = false;
     }
-    
+
     @Override
     public boolean turnOn() {
         if (!running) {
             running = true;
-            locationThread = new Thread(this, "FakeLocationProvider");
-            locationThread.start();
+            locationThread = threadBuilder.start(this);
             logger.info("Fake location provider started");
         }
         return false;
@@ -47,6 +55,24 @@ public  class FakeLocationProvider extends LocationProvider implements Runnable
         }
     }
     
+    /**
+     * Hands one fix at the fixed coordinates to the SDK and the fix listeners. Called once a second by the
+     * provider thread; public so the fix path can be driven directly (benchmarks).
+     */
+    public void publishFix(long timestamp) {
+        GnssLocation location = new GnssLocation(
+            latitude,
+            longitude,
+            50.0,
+            0.0F,
+            0.0f,
+            2.0f,
+            timestamp
+        );
+
+        publish(location, latitude, longitude, timestamp);
+    }
+
     @Override
     public void run() {
         logger.info("Location provider thread started - providing fixed coordinates: ({}, {})", 
@@ -54,19 +80,7 @@ public  class FakeLocationProvider extends LocationProvider implements Runnable
         
         while (running) {
             try {
-                long timestamp = System.currentTimeMillis();
-                
-                GnssLocation location = new GnssLocation(
-                    latitude,
-                    longitude,
-                        50.0,
-                        0.0F,
-                    0.0f,
-                    2.0f,
-                    timestamp
-                );
-                
-                super.notifyFreshLocation(location);
+                publishFix(System.currentTimeMillis());
                 
                 Thread.sleep(1000);
                 
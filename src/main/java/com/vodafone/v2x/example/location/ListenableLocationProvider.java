@@ -0,0 +1,38 @@
+package com.vodafone.v2x.example.location;
+
+import com.vodafone.v2x.example.jfr.LocationFixEvent;
+import com.vodafone.v2xsdk4javav2.facade.locationprovider.LocationProvider;
+import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base for the application's location providers: hands each fix to the SDK, then to the registered
+ * {@link LocationFixListener}s.
+ */
+public abstract class ListenableLocationProvider extends LocationProvider {
+    private final List<LocationFixListener> fixListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener called after each fix has been passed to the SDK.
+     */
+    public void addFixListener(LocationFixListener listener) {
+        fixListeners.add(listener);
+    }
+
+    protected void publish(GnssLocation location, double latitude, double longitude, long timestampMs) {
+        LocationFixEvent event = new LocationFixEvent();
+        event.begin();
+        boolean traced = event.isEnabled();
+        long start = traced ? System.nanoTime() : 0L;
+        notifyFreshLocation(location);
+        if (traced) {
+            event.setSdkTime(System.nanoTime() - start);
+        }
+        for (LocationFixListener listener : fixListeners) {
+            listener.onFix(latitude, longitude, timestampMs);
+        }
+        event.commit(latitude, longitude, timestampMs);
+    }
+}
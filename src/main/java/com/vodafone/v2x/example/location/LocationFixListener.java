@@ -0,0 +1,10 @@
+package com.vodafone.v2x.example.location;
+
+/**
+ * Notified with every fix a location provider hands to the SDK, on the provider's thread.
+ */
+@FunctionalInterface
+public interface LocationFixListener {
+
+    void onFix(double latitude, double longitude, long timestampMs);
+}
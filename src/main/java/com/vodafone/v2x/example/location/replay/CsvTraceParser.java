@@ -0,0 +1,40 @@
+package com.vodafone.v2x.example.location.replay;
+
+/**
+ * Parses {@code timestamp_ms,latitude,longitude[,altitude_m[,speed_mps[,heading_deg[,accuracy_m]]]]}, with the
+ * timestamp in epoch milliseconds. Header and {@code #} comment lines are skipped because their first field is
+ * not a number; missing trailing columns are left unset.
+ */
+final class CsvTraceParser implements TraceParser {
+    private static final byte SEPARATOR = ',';
+
+    @Override
+    public boolean parse(MappedLineReader line, TraceFix fix) {
+        fix.reset();
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        fix.timestampMs = line.fieldAsLong();
+        if (fix.timestampMs < 0 || !line.nextField(SEPARATOR)) {
+            return false;
+        }
+        fix.latitude = line.fieldAsDouble();
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        fix.longitude = line.fieldAsDouble();
+        if (line.nextField(SEPARATOR)) {
+            fix.altitudeM = line.fieldAsDouble();
+        }
+        if (line.nextField(SEPARATOR)) {
+            fix.speedMps = line.fieldAsDouble();
+        }
+        if (line.nextField(SEPARATOR)) {
+            fix.headingDeg = line.fieldAsDouble();
+        }
+        if (line.nextField(SEPARATOR)) {
+            fix.accuracyM = line.fieldAsDouble();
+        }
+        return !Double.isNaN(fix.latitude) && !Double.isNaN(fix.longitude);
+    }
+}
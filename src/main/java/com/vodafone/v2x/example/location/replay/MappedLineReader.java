@@ -0,0 +1,291 @@
+package com.vodafone.v2x.example.location.replay;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a text file line by line through a sliding memory-mapped window, without creating a {@code String} or
+ * {@code byte[]} per line.
+ *
+ * <p>Only {@link #WINDOW_SIZE} bytes are mapped at a time and the window slides forward when a line would cross
+ * its end, so a trace of any length is read with constant heap and bounded address space; the page cache does
+ * the buffering. The current line and a field cursor over it are exposed as offsets into the window, with
+ * allocation-free number parsing. Not thread-safe.
+ */
+final class MappedLineReader implements AutoCloseable {
+    static final long WINDOW_SIZE = 64L << 20;
+    /** Longer lines are skipped; no GNSS sentence or trace row comes close. */
+    static final int MAX_LINE_LENGTH = 4096;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLimit;
+
+    private int position;
+    private int lineStart;
+    private int lineEnd;
+    private int fieldStart;
+    private int fieldEnd;
+    private int fieldCursor;
+    private long linesRead;
+
+    MappedLineReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        map(0);
+    }
+
+    /**
+     * Advances to the next non-empty line, without its line terminator.
+     *
+     * @return {@code false} at end of file
+     */
+    boolean nextLine() throws IOException {
+        while (true) {
+            if (windowStart + position >= fileSize) {
+                return false;
+            }
+            int end = findLineEnd(position);
+            if (end < 0) {
+                if (windowStart + windowLimit < fileSize && position > 0) {
+                    // The line crosses the end of the window: slide the window to start at this line
+                    map(windowStart + position);
+                    continue;
+                }
+                // Overlong line, or a window that cannot hold it: skip to the next line terminator
+                position = skipLine(position);
+                continue;
+            }
+            lineStart = position;
+            position = end < windowLimit ? end + 1 : end;
+            lineEnd = end > lineStart && window.get(end - 1) == '\r' ? end - 1 : end;
+            fieldCursor = lineStart;
+            fieldStart = fieldEnd = lineStart;
+            if (lineEnd > lineStart) {
+                linesRead++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the {@code '\n'} ending the line at {@code from}, {@code windowLimit} if the line runs
+     * to end of file, or -1 if the window ends first or the line is too long.
+     */
+    private int findLineEnd(int from) {
+        int limit = (int) Math.min(windowLimit, (long) from + MAX_LINE_LENGTH);
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        if (limit == windowLimit && windowStart + windowLimit == fileSize) {
+            return windowLimit;
+        }
+        return -1;
+    }
+
+    private int skipLine(int from) throws IOException {
+        int i = from;
+        while (true) {
+            if (i >= windowLimit) {
+                if (windowStart + windowLimit >= fileSize) {
+                    return windowLimit;
+                }
+                map(windowStart + windowLimit);
+                i = 0;
+            }
+            if (window.get(i++) == '\n') {
+                return i;
+            }
+        }
+    }
+
+    /** Goes back to the start of the file. */
+    void rewind() throws IOException {
+        if (windowStart != 0) {
+            map(0);
+        }
+        position = 0;
+        lineStart = lineEnd = 0;
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        windowLimit = (int) Math.min(WINDOW_SIZE, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, windowLimit);
+        position = 0;
+    }
+
+    int lineLength() {
+        return lineEnd - lineStart;
+    }
+
+    /** Byte {@code index} of the current line. */
+    byte byteAt(int index) {
+        return window.get(lineStart + index);
+    }
+
+    /** Cuts the current line to its first {@code length} bytes, e.g. to drop a checksum suffix. */
+    void truncateLine(int length) {
+        lineEnd = Math.min(lineEnd, lineStart + length);
+    }
+
+    /**
+     * Moves the field cursor to the next {@code separator}-delimited field of the current line.
+     *
+     * @return {@code false} if the line has no more fields
+     */
+    boolean nextField(byte separator) {
+        if (fieldCursor > lineEnd) {
+            return false;
+        }
+        fieldStart = fieldCursor;
+        int i = fieldCursor;
+        while (i < lineEnd && window.get(i) != separator) {
+            i++;
+        }
+        fieldEnd = i;
+        fieldCursor = i + 1;
+        return true;
+    }
+
+    /** Skips {@code count} fields; returns {@code false} if the line ran out. */
+    boolean skipFields(byte separator, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!nextField(separator)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int fieldLength() {
+        return fieldEnd - fieldStart;
+    }
+
+    byte fieldByte(int index) {
+        return window.get(fieldStart + index);
+    }
+
+    boolean fieldEquals(String ascii) {
+        if (fieldLength() != ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (window.get(fieldStart + i) != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the current field as a plain decimal ({@code -12.345}, no exponent).
+     *
+     * @return the value, or {@code NaN} if the field is empty or malformed
+     */
+    double fieldAsDouble() {
+        int i = fieldStart;
+        int end = fieldEnd;
+        while (i < end && window.get(i) == ' ') {
+            i++;
+        }
+        while (end > i && window.get(end - 1) == ' ') {
+            end--;
+        }
+        if (i == end) {
+            return Double.NaN;
+        }
+        boolean negative = false;
+        byte first = window.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                // Digits beyond long precision only matter past the 18th significant figure; drop them
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else if (fractionDigits < 0) {
+                    return Double.NaN;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the current field as a non-negative integer.
+     *
+     * @return the value, or -1 if the field is empty or not all digits
+     */
+    long fieldAsLong() {
+        if (fieldStart == fieldEnd || fieldEnd - fieldStart > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = fieldStart; i < fieldEnd; i++) {
+            byte b = window.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /** Parses {@code length} digits of the current field starting at {@code offset}, or -1 if not digits. */
+    int fieldDigits(int offset, int length) {
+        if (offset + length > fieldLength()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = fieldStart + offset; i < fieldStart + offset + length; i++) {
+            byte b = window.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /** Number of non-empty lines returned by {@link #nextLine} so far, across rewinds. */
+    long linesRead() {
+        return linesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mapping itself is released when the buffer is collected; closing the channel does not unmap it
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,203 @@
+package com.vodafone.v2x.example.location.replay;
+
+import java.time.LocalDate;
+
+/**
+ * Parses NMEA 0183 logs from any talker ({@code GP}, {@code GN}, {@code GL}, ...).
+ *
+ * <p>A fix is produced for every valid {@code RMC} sentence, which carries date, time, position, speed and
+ * course. Altitude comes from a {@code GGA} sentence with the same time of day, which receivers emit just before
+ * the {@code RMC}. Sentences with a bad checksum and all other sentence types are skipped.
+ */
+final class NmeaTraceParser implements TraceParser {
+    private static final byte SEPARATOR = ',';
+    private static final double KNOTS_TO_MPS = 1852.0 / 3600.0;
+    private static final long MS_PER_DAY = 86_400_000L;
+
+    private long ggaTimeOfDayMs = -1;
+    private double ggaAltitudeM = Double.NaN;
+    private int cachedDate = -1;
+    private long cachedEpochDay;
+    private double lastHeadingDeg = Double.NaN;
+    private long checksumErrors;
+
+    @Override
+    public boolean parse(MappedLineReader line, TraceFix fix) {
+        if (line.lineLength() < 7 || line.byteAt(0) != '$' || !checksumValid(line)) {
+            return false;
+        }
+        if (!line.nextField(SEPARATOR) || line.fieldLength() != 6) {
+            return false;
+        }
+        byte t0 = line.fieldByte(3);
+        byte t1 = line.fieldByte(4);
+        byte t2 = line.fieldByte(5);
+        if (t0 == 'G' && t1 == 'G' && t2 == 'A') {
+            parseGga(line);
+            return false;
+        }
+        if (t0 == 'R' && t1 == 'M' && t2 == 'C') {
+            return parseRmc(line, fix);
+        }
+        return false;
+    }
+
+    /** $--GGA,time,lat,N,lon,E,quality,satellites,hdop,altitude,M,... */
+    private void parseGga(MappedLineReader line) {
+        ggaTimeOfDayMs = -1;
+        if (!line.nextField(SEPARATOR)) {
+            return;
+        }
+        long timeOfDayMs = timeOfDayMs(line);
+        if (!line.skipFields(SEPARATOR, 5) || line.fieldAsLong() <= 0) {
+            // Missing or zero fix quality
+            return;
+        }
+        if (line.skipFields(SEPARATOR, 3)) {
+            ggaAltitudeM = line.fieldAsDouble();
+            ggaTimeOfDayMs = timeOfDayMs;
+        }
+    }
+
+    /** $--RMC,time,status,lat,N,lon,E,speed_knots,course,ddmmyy,... */
+    private boolean parseRmc(MappedLineReader line, TraceFix fix) {
+        fix.reset();
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        long timeOfDayMs = timeOfDayMs(line);
+        if (timeOfDayMs < 0 || !line.nextField(SEPARATOR) || line.fieldLength() != 1 || line.fieldByte(0) != 'A') {
+            return false;
+        }
+        line.nextField(SEPARATOR);
+        fix.latitude = degrees(line.fieldAsDouble());
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        if (line.fieldLength() == 1 && line.fieldByte(0) == 'S') {
+            fix.latitude = -fix.latitude;
+        }
+        line.nextField(SEPARATOR);
+        fix.longitude = degrees(line.fieldAsDouble());
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        if (line.fieldLength() == 1 && line.fieldByte(0) == 'W') {
+            fix.longitude = -fix.longitude;
+        }
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        fix.speedMps = line.fieldAsDouble() * KNOTS_TO_MPS;
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        // Receivers leave the course empty when stationary; keep the last one rather than snapping to north
+        double course = line.fieldAsDouble();
+        if (!Double.isNaN(course)) {
+            lastHeadingDeg = course;
+        }
+        fix.headingDeg = lastHeadingDeg;
+        if (!line.nextField(SEPARATOR)) {
+            return false;
+        }
+        long epochDay = epochDay(line);
+        if (epochDay < 0) {
+            return false;
+        }
+        fix.timestampMs = epochDay * MS_PER_DAY + timeOfDayMs;
+        fix.altitudeM = timeOfDayMs == ggaTimeOfDayMs ? ggaAltitudeM : Double.NaN;
+        return !Double.isNaN(fix.latitude) && !Double.isNaN(fix.longitude);
+    }
+
+    /** hhmmss[.sss] of the current field in milliseconds, or -1. */
+    private static long timeOfDayMs(MappedLineReader line) {
+        int hours = line.fieldDigits(0, 2);
+        int minutes = line.fieldDigits(2, 2);
+        int seconds = line.fieldDigits(4, 2);
+        if (hours < 0 || minutes < 0 || seconds < 0) {
+            return -1;
+        }
+        int millis = 0;
+        if (line.fieldLength() > 7 && line.fieldByte(6) == '.') {
+            int scale = 100;
+            for (int i = 7; i < line.fieldLength() && scale > 0; i++, scale /= 10) {
+                int digit = line.fieldByte(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                millis += digit * scale;
+            }
+        }
+        return ((hours * 60L + minutes) * 60L + seconds) * 1000L + millis;
+    }
+
+    /** ddmmyy of the current field as days since the epoch, or -1. Two-digit years 80-99 are 19xx. */
+    private long epochDay(MappedLineReader line) {
+        int day = line.fieldDigits(0, 2);
+        int month = line.fieldDigits(2, 2);
+        int year = line.fieldDigits(4, 2);
+        if (day < 1 || month < 1 || month > 12 || year < 0) {
+            return -1;
+        }
+        int date = (year * 100 + month) * 100 + day;
+        if (date != cachedDate) {
+            try {
+                cachedEpochDay = LocalDate.of(year < 80 ? 2000 + year : 1900 + year, month, day).toEpochDay();
+            } catch (RuntimeException e) {
+                return -1;
+            }
+            cachedDate = date;
+        }
+        return cachedEpochDay;
+    }
+
+    /** NMEA (d)ddmm.mmmm to decimal degrees. */
+    private static double degrees(double nmea) {
+        double wholeDegrees = Math.floor(nmea / 100);
+        return wholeDegrees + (nmea - wholeDegrees * 100) / 60.0;
+    }
+
+    /** Verifies and strips a {@code *hh} checksum suffix; sentences without one are accepted as they are. */
+    private boolean checksumValid(MappedLineReader line) {
+        int length = line.lineLength();
+        if (line.byteAt(length - 3) != '*') {
+            return true;
+        }
+        int expected = (hexValue(line.byteAt(length - 2)) << 4) | hexValue(line.byteAt(length - 1));
+        int actual = 0;
+        for (int i = 1; i < length - 3; i++) {
+            actual ^= line.byteAt(i);
+        }
+        if (expected != actual) {
+            checksumErrors++;
+            return false;
+        }
+        line.truncateLine(length - 3);
+        return true;
+    }
+
+    private static int hexValue(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        return 0x100;
+    }
+
+    long checksumErrors() {
+        return checksumErrors;
+    }
+
+    @Override
+    public void reset() {
+        ggaTimeOfDayMs = -1;
+        ggaAltitudeM = Double.NaN;
+        lastHeadingDeg = Double.NaN;
+    }
+}
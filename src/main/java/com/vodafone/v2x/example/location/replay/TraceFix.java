@@ -0,0 +1,24 @@
+package com.vodafone.v2x.example.location.replay;
+
+/**
+ * One fix decoded from a trace. Reused for every line, so parsing does not allocate.
+ */
+final class TraceFix {
+    long timestampMs;
+    double latitude;
+    double longitude;
+    double altitudeM;
+    double speedMps;
+    double headingDeg;
+    double accuracyM;
+
+    void reset() {
+        timestampMs = -1;
+        latitude = Double.NaN;
+        longitude = Double.NaN;
+        altitudeM = Double.NaN;
+        speedMps = Double.NaN;
+        headingDeg = Double.NaN;
+        accuracyM = Double.NaN;
+    }
+}
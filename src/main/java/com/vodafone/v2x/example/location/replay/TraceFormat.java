@@ -0,0 +1,24 @@
+package com.vodafone.v2x.example.location.replay;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Supported GNSS trace formats.
+ */
+public enum TraceFormat {
+    /** NMEA 0183: fixes from {@code RMC} sentences, altitude from the preceding {@code GGA}. */
+    NMEA,
+    /** {@code timestamp_ms,latitude,longitude[,altitude_m[,speed_mps[,heading_deg[,accuracy_m]]]]} per line. */
+    CSV;
+
+    /** Guesses the format from the file extension: {@code .csv} is CSV, anything else NMEA. */
+    public static TraceFormat forFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") ? CSV : NMEA;
+    }
+
+    TraceParser newParser() {
+        return this == CSV ? new CsvTraceParser() : new NmeaTraceParser();
+    }
+}
@@ -0,0 +1,17 @@
+package com.vodafone.v2x.example.location.replay;
+
+/**
+ * Decodes the current line of a {@link MappedLineReader} into a {@link TraceFix}. Parsers may carry state
+ * between lines (NMEA spreads one fix over several sentences).
+ */
+interface TraceParser {
+
+    /**
+     * @return {@code true} if the line completed a fix with at least timestamp, latitude and longitude set
+     */
+    boolean parse(MappedLineReader line, TraceFix fix);
+
+    /** Forgets any state carried between lines, e.g. when the trace is rewound. */
+    default void reset() {
+    }
+}
@@ -0,0 +1,223 @@
+package com.vodafone.v2x.example.location.replay;
+
+import com.vodafone.v2x.example.location.ListenableLocationProvider;
+import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded GNSS trace (NMEA or CSV, see {@link TraceFormat}) to the SDK with the trace's own timing,
+ * so CAM generation sees real heading, speed and distance changes.
+ *
+ * <p>The trace is memory-mapped and parsed in place one line at a time, so multi-hour drives replay in constant
+ * heap. Fixes are released at their recorded offsets divided by {@code speedFactor} and stamped with the
+ * wall-clock time they are released at; speed is multiplied by the same factor so position, speed and time stay
+ * consistent at faster-than-real-time replay. Fixes closer together than {@code 1 / maxRateHz} of replay time are
+ * dropped, and speed or heading missing from the trace are derived from consecutive positions.
+ */
+public class TraceReplayLocationProvider extends ListenableLocationProvider implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(TraceReplayLocationProvider.class);
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+    private static final float DEFAULT_ACCURACY_M = 2.0f;
+    /** Fix rate ceiling; the SDK generates CAMs at 10 Hz at most. */
+    public static final int MAX_RATE_HZ = 10;
+
+    private final Path tracePath;
+    private final TraceFormat format;
+    private final double speedFactor;
+    private final long minIntervalNanos;
+    private final boolean loop;
+    private final Thread.Builder threadBuilder;
+    private Thread replayThread;
+    private volatile boolean running;
+
+    private final TraceFix fix = new TraceFix();
+    private boolean havePrevious;
+    private long previousTimestampMs;
+    private double previousLatitude;
+    private double previousLongitude;
+    private double previousHeadingDeg;
+    private volatile long fixesPublished;
+    private volatile long fixesDropped;
+
+    /**
+     * @param speedFactor replay speed, 1.0 for real time
+     * @param maxRateHz   highest fix rate handed to the SDK, 1 to {@value #MAX_RATE_HZ}
+     * @param loop        start over at the end of the trace instead of stopping
+     */
+    public TraceReplayLocationProvider(Path tracePath, TraceFormat format, double speedFactor, int maxRateHz,
+                                       boolean loop) {
+        this(tracePath, format, speedFactor, maxRateHz, loop, Thread.ofPlatform().name("TraceReplayLocationProvider"));
+    }
+
+    public TraceReplayLocationProvider(Path tracePath, TraceFormat format, double speedFactor, int maxRateHz,
+                                       boolean loop, Thread.Builder threadBuilder) {
+        if (!(speedFactor > 0)) {
+            throw new IllegalArgumentException("speedFactor must be positive: " + speedFactor);
+        }
+        if (maxRateHz < 1 || maxRateHz > MAX_RATE_HZ) {
+            throw new IllegalArgumentException("maxRateHz must be between 1 and " + MAX_RATE_HZ + ": " + maxRateHz);
+        }
+        this.tracePath = tracePath;
+        this.format = format;
+        this.speedFactor = speedFactor;
+        this.minIntervalNanos = TimeUnit.SECONDS.toNanos(1) / maxRateHz;
+        this.loop = loop;
+        this.threadBuilder = threadBuilder;
+    }
+
+    @Override
+    public boolean turnOn() {
+        if (!running) {
+            running = true;
+            replayThread = threadBuilder.start(this);
+            logger.info("Trace replay location provider started: {} ({}, {}x)", tracePath, format, speedFactor);
+        }
+        return false;
+    }
+
+    @Override
+    public void turnOff() {
+        if (running) {
+            running = false;
+            if (replayThread != null) {
+                try {
+                    replayThread.interrupt();
+                    replayThread.join(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Interrupted while stopping trace replay");
+                }
+            }
+            logger.info("Trace replay location provider stopped: {} fixes published, {} dropped by rate limit",
+                fixesPublished, fixesDropped);
+        }
+    }
+
+    @Override
+    public void run() {
+        TraceParser parser = format.newParser();
+        try (MappedLineReader reader = new MappedLineReader(tracePath)) {
+            boolean anchored = false;
+            long anchorTraceMs = 0;
+            long anchorNanos = 0;
+            long anchorWallMs = 0;
+            long lastReleaseNanos = 0;
+
+            while (running) {
+                if (!reader.nextLine()) {
+                    if (!loop || fixesPublished == 0) {
+                        logger.info("End of trace {} after {} lines", tracePath, reader.linesRead());
+                        break;
+                    }
+                    reader.rewind();
+                    parser.reset();
+                    havePrevious = false;
+                    anchored = false;
+                    continue;
+                }
+                if (!parser.parse(reader, fix)) {
+                    continue;
+                }
+                if (!anchored) {
+                    anchorTraceMs = fix.timestampMs;
+                    anchorNanos = Math.max(System.nanoTime(), lastReleaseNanos + minIntervalNanos);
+                    anchorWallMs = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(
+                        anchorNanos - System.nanoTime());
+                    anchored = true;
+                } else if (fix.timestampMs < previousTimestampMs) {
+                    // Out-of-order line; replay never goes back in time
+                    fixesDropped++;
+                    continue;
+                }
+
+                long releaseNanos = anchorNanos + (long) ((fix.timestampMs - anchorTraceMs) * 1e6 / speedFactor);
+                if (havePrevious && releaseNanos - lastReleaseNanos < minIntervalNanos) {
+                    fixesDropped++;
+                    continue;
+                }
+                sleepUntil(releaseNanos);
+                lastReleaseNanos = releaseNanos;
+                publishFix(anchorWallMs + TimeUnit.NANOSECONDS.toMillis(releaseNanos - anchorNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.debug("Trace replay thread interrupted");
+        } catch (IOException e) {
+            logger.error("Cannot read trace {}", tracePath, e);
+        }
+        running = false;
+    }
+
+    private void publishFix(long timestampMs) {
+        deriveMissingMotion();
+        GnssLocation location = new GnssLocation(
+            fix.latitude,
+            fix.longitude,
+            Double.isNaN(fix.altitudeM) ? 0.0 : fix.altitudeM,
+            (float) (fix.speedMps * speedFactor),
+            (float) fix.headingDeg,
+            Double.isNaN(fix.accuracyM) ? DEFAULT_ACCURACY_M : (float) fix.accuracyM,
+            timestampMs
+        );
+        publish(location, fix.latitude, fix.longitude, timestampMs);
+        fixesPublished++;
+
+        havePrevious = true;
+        previousTimestampMs = fix.timestampMs;
+        previousLatitude = fix.latitude;
+        previousLongitude = fix.longitude;
+        previousHeadingDeg = fix.headingDeg;
+    }
+
+    /** Fills in speed and heading from the previous published fix when the trace does not carry them. */
+    private void deriveMissingMotion() {
+        boolean needSpeed = Double.isNaN(fix.speedMps);
+        boolean needHeading = Double.isNaN(fix.headingDeg);
+        if (!needSpeed && !needHeading) {
+            return;
+        }
+        if (!havePrevious || fix.timestampMs <= previousTimestampMs) {
+            if (needSpeed) {
+                fix.speedMps = 0.0;
+            }
+            if (needHeading) {
+                fix.headingDeg = havePrevious ? previousHeadingDeg : 0.0;
+            }
+            return;
+        }
+        double meanLatitude = Math.toRadians((fix.latitude + previousLatitude) / 2);
+        double north = Math.toRadians(fix.latitude - previousLatitude) * EARTH_RADIUS_M;
+        double east = Math.toRadians(fix.longitude - previousLongitude) * EARTH_RADIUS_M * Math.cos(meanLatitude);
+        double distanceM = Math.hypot(north, east);
+        if (needSpeed) {
+            fix.speedMps = distanceM * 1000.0 / (fix.timestampMs - previousTimestampMs);
+        }
+        if (needHeading) {
+            // Keep the last heading while standing still instead of turning on GNSS jitter
+            fix.headingDeg = distanceM < 0.5
+                ? previousHeadingDeg
+                : (Math.toDegrees(Math.atan2(east, north)) + 360.0) % 360.0;
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long wait;
+        while ((wait = deadlineNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    public long getFixesPublished() {
+        return fixesPublished;
+    }
+
+    /** Fixes skipped because they came faster than the rate limit or out of order. */
+    public long getFixesDropped() {
+        return fixesDropped;
+    }
+}
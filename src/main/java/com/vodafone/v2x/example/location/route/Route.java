@@ -0,0 +1,213 @@
+package com.vodafone.v2x.example.location.route;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A polyline of waypoints, projected once onto a local plane (metres east and north of the first waypoint) so
+ * that following it costs a few multiplications per fix.
+ *
+ * <p>Each leg may carry its own speed limit. Through a corner the heading turns gradually over
+ * {@value #CORNER_BLEND_M} m either side of the waypoint (less on short legs), as along an arc tangent to both
+ * legs; {@link #cornerRadius} is the radius of that arc, from which the simulator derives the corner speed.
+ * Positions stay on the polyline. A looped route also has a leg from the
+ * last waypoint back to the first. The route is immutable and shared by any number of simulated vehicles.
+ */
+public final class Route {
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+    /** Distance before and after a waypoint over which the heading turns. */
+    static final double CORNER_BLEND_M = 15.0;
+
+    private final double originLatitude;
+    private final double originLongitude;
+    private final double metresPerDegreeLon;
+    private final boolean loop;
+    private final int legs;
+    // Per waypoint (and per leg starting there)
+    private final double[] x;
+    private final double[] y;
+    private final double[] start;
+    private final double[] length;
+    private final double[] bearingDeg;
+    private final double[] speedLimitMps;
+    private final double[] cornerRadius;
+    private final double[] blend;
+    private final double totalLength;
+
+    /**
+     * @param speedLimitsKmh speed limit of the leg starting at each waypoint, {@code NaN} for the profile's cruise
+     *                       speed; may be {@code null}
+     * @param loop           drive back to the first waypoint and start over at the end
+     */
+    public Route(double[] latitudes, double[] longitudes, double[] speedLimitsKmh, boolean loop) {
+        int waypoints = latitudes.length;
+        if (waypoints < 2 || longitudes.length != waypoints
+            || (speedLimitsKmh != null && speedLimitsKmh.length != waypoints)) {
+            throw new IllegalArgumentException("A route needs at least two waypoints with matching columns");
+        }
+        this.loop = loop;
+        this.legs = loop ? waypoints : waypoints - 1;
+        this.originLatitude = latitudes[0];
+        this.originLongitude = longitudes[0];
+        this.metresPerDegreeLon = Math.toRadians(1) * EARTH_RADIUS_M * Math.cos(Math.toRadians(originLatitude));
+        double metresPerDegreeLat = Math.toRadians(1) * EARTH_RADIUS_M;
+
+        x = new double[waypoints + 1];
+        y = new double[waypoints + 1];
+        for (int i = 0; i < waypoints; i++) {
+            x[i] = (longitudes[i] - originLongitude) * metresPerDegreeLon;
+            y[i] = (latitudes[i] - originLatitude) * metresPerDegreeLat;
+        }
+        // Closing point, so leg i always runs from point i to point i + 1
+        x[waypoints] = x[0];
+        y[waypoints] = y[0];
+
+        start = new double[legs + 1];
+        length = new double[legs];
+        bearingDeg = new double[legs];
+        speedLimitMps = new double[legs];
+        for (int i = 0; i < legs; i++) {
+            double east = x[i + 1] - x[i];
+            double north = y[i + 1] - y[i];
+            length[i] = Math.hypot(east, north);
+            if (length[i] == 0) {
+                throw new IllegalArgumentException("Waypoints " + i + " and " + (i + 1) + " coincide");
+            }
+            bearingDeg[i] = (Math.toDegrees(Math.atan2(east, north)) + 360.0) % 360.0;
+            start[i + 1] = start[i] + length[i];
+            speedLimitMps[i] = speedLimitsKmh != null ? speedLimitsKmh[i] / 3.6 : Double.NaN;
+        }
+        totalLength = start[legs];
+
+        // Corner at the start of each leg, between the previous leg and this one
+        cornerRadius = new double[legs];
+        blend = new double[legs];
+        for (int i = 0; i < legs; i++) {
+            int previous = i > 0 ? i - 1 : loop ? legs - 1 : -1;
+            if (previous < 0) {
+                cornerRadius[i] = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double turn = Math.toRadians(Math.abs(turnDeg(bearingDeg[previous], bearingDeg[i])));
+            blend[i] = Math.min(CORNER_BLEND_M, Math.min(length[previous], length[i]) / 2);
+            cornerRadius[i] = turn < 1e-6 ? Double.POSITIVE_INFINITY : blend[i] / Math.tan(turn / 2);
+        }
+    }
+
+    /**
+     * Reads {@code latitude,longitude[,speed_limit_kmh]} rows; blank lines, {@code #} comments and a header are
+     * skipped.
+     */
+    public static Route read(Path file, boolean loop) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        double[] latitudes = new double[lines.size()];
+        double[] longitudes = new double[lines.size()];
+        double[] limits = new double[lines.size()];
+        int count = 0;
+        for (String line : lines) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",");
+            try {
+                latitudes[count] = Double.parseDouble(fields[0].strip());
+                longitudes[count] = Double.parseDouble(fields[1].strip());
+                limits[count] = fields.length > 2 && !fields[2].isBlank()
+                    ? Double.parseDouble(fields[2].strip()) : Double.NaN;
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                if (count == 0) {
+                    // Header row
+                    continue;
+                }
+                throw new IOException("Bad route row in " + file + ": " + line, e);
+            }
+            count++;
+        }
+        return new Route(Arrays.copyOf(latitudes, count), Arrays.copyOf(longitudes, count),
+            Arrays.copyOf(limits, count), loop);
+    }
+
+    /** Signed turn from one bearing to another, -180 to 180 degrees, positive clockwise. */
+    static double turnDeg(double fromDeg, double toDeg) {
+        double turn = (toDeg - fromDeg) % 360.0;
+        if (turn > 180.0) {
+            turn -= 360.0;
+        } else if (turn < -180.0) {
+            turn += 360.0;
+        }
+        return turn;
+    }
+
+    public int legs() {
+        return legs;
+    }
+
+    public boolean isLoop() {
+        return loop;
+    }
+
+    /** Route length in metres, including the closing leg of a loop. */
+    public double length() {
+        return totalLength;
+    }
+
+    /**
+     * Leg containing {@code distance}, searching forward from {@code hint} (the previous leg), so following the
+     * route is amortised O(1).
+     */
+    int legAt(double distance, int hint) {
+        int leg = distance >= start[hint] ? hint : 0;
+        while (leg < legs - 1 && distance >= start[leg + 1]) {
+            leg++;
+        }
+        return leg;
+    }
+
+    double legStart(int leg) {
+        return start[leg];
+    }
+
+    double legEnd(int leg) {
+        return start[leg + 1];
+    }
+
+    double bearingDeg(int leg) {
+        return bearingDeg[leg];
+    }
+
+    /** Speed limit of a leg in m/s, or {@code NaN} for the cruise speed. */
+    double speedLimitMps(int leg) {
+        return speedLimitMps[leg];
+    }
+
+    /** Radius of the corner at the start of a leg, infinite for a straight continuation or the first leg. */
+    double cornerRadius(int leg) {
+        return cornerRadius[leg];
+    }
+
+    /** Distance before and after the start of a leg over which the heading turns. */
+    double blend(int leg) {
+        return blend[leg];
+    }
+
+    /** Local east coordinate of a point {@code along} metres into a leg. */
+    double x(int leg, double along) {
+        return x[leg] + (x[leg + 1] - x[leg]) * (along / length[leg]);
+    }
+
+    double y(int leg, double along) {
+        return y[leg] + (y[leg + 1] - y[leg]) * (along / length[leg]);
+    }
+
+    double latitude(double y) {
+        return originLatitude + Math.toDegrees(y / EARTH_RADIUS_M);
+    }
+
+    double longitude(double x) {
+        return originLongitude + x / metresPerDegreeLon;
+    }
+}
@@ -0,0 +1,238 @@
+package com.vodafone.v2x.example.location.route;
+
+import com.vodafone.v2x.example.location.ListenableLocationProvider;
+import com.vodafone.v2x.example.metrics.LatencyHistogram;
+import com.vodafone.v2xsdk4javav2.facade.models.GnssLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives a simulated vehicle along a {@link Route}: accelerates to the leg's speed limit, brakes ahead of corners
+ * and slower legs, turns its heading through corners and stops at the end of an open route.
+ *
+ * <p>Fixes come from a periodic task on a shared {@link ScheduledExecutorService} rather than a thread per
+ * provider, so thousands of vehicles can share a few threads (see {@link #newFixScheduler}). Each provider starts
+ * at a random phase within the fix period so their ticks spread evenly over the period, and the motion is
+ * integrated over the measured time between ticks, up to a few periods, so a late tick does not distort speed or
+ * position. The motion state is plain fields updated in place; the only allocation per fix is the SDK's
+ * {@link GnssLocation}.
+ */
+public class RouteSimulatorLocationProvider extends ListenableLocationProvider {
+    private static final Logger logger = LoggerFactory.getLogger(RouteSimulatorLocationProvider.class);
+    private static final double ALTITUDE_M = 50.0;
+    private static final float ACCURACY_M = 2.0f;
+    /** Fix rate ceiling. */
+    public static final int MAX_RATE_HZ = 20;
+    /** Longest step integrated at once, in fix periods, so a stalled scheduler does not make the vehicle jump. */
+    private static final int MAX_STEP_PERIODS = 4;
+
+    private final Route route;
+    private final SpeedProfile profile;
+    private final ScheduledExecutorService scheduler;
+    private final long periodNanos;
+    private ScheduledFuture<?> task;
+    private volatile LatencyHistogram jitterNs;
+
+    // Motion state, only touched by the fix task; turnOn resets the tick count before scheduling it
+    private double distance;
+    private double speed;
+    private double headingDeg;
+    private int leg;
+    private long ticks;
+    private long firstTickNanos;
+    private long lastTickNanos;
+    private volatile long fixesPublished;
+
+    /**
+     * @param rateHz         fixes per second, 1 to {@value #MAX_RATE_HZ}
+     * @param startDistanceM where on the route the vehicle starts, e.g. spread out when many vehicles share one
+     *                       route
+     * @param scheduler      runs the fix task; shared between providers
+     */
+    public RouteSimulatorLocationProvider(Route route, SpeedProfile profile, int rateHz, double startDistanceM,
+                                          ScheduledExecutorService scheduler) {
+        if (rateHz < 1 || rateHz > MAX_RATE_HZ) {
+            throw new IllegalArgumentException("rateHz must be between 1 and " + MAX_RATE_HZ + ": " + rateHz);
+        }
+        this.route = route;
+        this.profile = profile;
+        this.scheduler = scheduler;
+        this.periodNanos = TimeUnit.SECONDS.toNanos(1) / rateHz;
+        double start = startDistanceM % route.length();
+        this.distance = start < 0 ? start + route.length() : start;
+        this.leg = route.legAt(distance, 0);
+        updateHeading();
+    }
+
+    /**
+     * Scheduler for the fix tasks of many providers: {@code threads} daemon threads; cancelled tasks are removed
+     * right away so stopped vehicles do not pile up in its queue.
+     */
+    public static ScheduledExecutorService newFixScheduler(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread thread = new Thread(r, "route-fix-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Records how late each fix is against its ideal schedule, in nanoseconds, into {@code histogram}. Several
+     * providers may share one histogram.
+     */
+    public RouteSimulatorLocationProvider recordJitter(LatencyHistogram histogram) {
+        this.jitterNs = histogram;
+        return this;
+    }
+
+    @Override
+    public synchronized boolean turnOn() {
+        if (task == null) {
+            // After a turnOff, start a fresh schedule instead of integrating across the pause
+            ticks = 0;
+            long phase = ThreadLocalRandom.current().nextLong(periodNanos);
+            task = scheduler.scheduleAtFixedRate(this::tick, phase, periodNanos, TimeUnit.NANOSECONDS);
+            logger.debug("Route simulator started at {} m of {} m, {} fixes/s", Math.round(distance),
+                Math.round(route.length()), TimeUnit.SECONDS.toNanos(1) / periodNanos);
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void turnOff() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+            logger.debug("Route simulator stopped after {} fixes", fixesPublished);
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            if (ticks == 0) {
+                firstTickNanos = now;
+            } else {
+                step(Math.min(now - lastTickNanos, MAX_STEP_PERIODS * periodNanos) / 1e9);
+                LatencyHistogram histogram = jitterNs;
+                if (histogram != null) {
+                    histogram.record(now - (firstTickNanos + ticks * periodNanos));
+                }
+            }
+            lastTickNanos = now;
+            ticks++;
+            publishFix(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // A failing listener must not cancel the periodic task
+            logger.warn("Route simulator fix failed", e);
+        }
+    }
+
+    /** Advances the vehicle by {@code dt} seconds. */
+    private void step(double dt) {
+        double allowed = allowedSpeed();
+        speed = speed < allowed
+            ? Math.min(allowed, speed + profile.accelerationMps2() * dt)
+            : Math.max(allowed, speed - profile.decelerationMps2() * dt);
+        distance += speed * dt;
+        if (distance >= route.length()) {
+            if (route.isLoop()) {
+                distance -= route.length();
+                leg = 0;
+            } else {
+                distance = route.length();
+                speed = 0;
+            }
+        }
+        leg = route.legAt(distance, leg);
+        updateHeading();
+    }
+
+    /**
+     * Highest speed that still lets the vehicle brake down to every corner and slower leg ahead in time, looking
+     * only as far as it could need to brake.
+     */
+    private double allowedSpeed() {
+        double allowed = legSpeed(leg);
+        if (distance - route.legStart(leg) < route.blend(leg)) {
+            allowed = Math.min(allowed, cornerSpeed(leg));
+        }
+        double deceleration = profile.decelerationMps2();
+        double fastest = Math.max(speed, allowed);
+        double brakingDistance = fastest * fastest / (2 * deceleration);
+        double ahead = route.legEnd(leg) - distance;
+        int next = leg;
+        for (int i = 0; i < route.legs() && ahead <= brakingDistance; i++) {
+            next++;
+            if (next == route.legs()) {
+                if (!route.isLoop()) {
+                    return Math.min(allowed, Math.sqrt(2 * deceleration * ahead));
+                }
+                next = 0;
+            }
+            double target = Math.min(legSpeed(next), cornerSpeed(next));
+            double beforeCorner = Math.max(0, ahead - route.blend(next));
+            allowed = Math.min(allowed, Math.sqrt(target * target + 2 * deceleration * beforeCorner));
+            ahead += route.legEnd(next) - route.legStart(next);
+        }
+        return allowed;
+    }
+
+    private double legSpeed(int leg) {
+        double limit = route.speedLimitMps(leg);
+        return Double.isNaN(limit) ? profile.cruiseMps() : limit;
+    }
+
+    private double cornerSpeed(int leg) {
+        return Math.sqrt(profile.lateralAccelMps2() * route.cornerRadius(leg));
+    }
+
+    /** Turns the heading gradually from the leg's bearing to the next one across the corner's blend distance. */
+    private void updateHeading() {
+        double along = distance - route.legStart(leg);
+        double heading = route.bearingDeg(leg);
+        double blendIn = route.blend(leg);
+        int next = leg + 1 < route.legs() ? leg + 1 : route.isLoop() ? 0 : -1;
+        double toEnd = route.legEnd(leg) - distance;
+        if (along < blendIn) {
+            int previous = leg > 0 ? leg - 1 : route.legs() - 1;
+            double fraction = 0.5 - 0.5 * along / blendIn;
+            heading -= Route.turnDeg(route.bearingDeg(previous), heading) * fraction;
+        } else if (next >= 0 && toEnd < route.blend(next)) {
+            double fraction = 0.5 - 0.5 * toEnd / route.blend(next);
+            heading += Route.turnDeg(heading, route.bearingDeg(next)) * fraction;
+        }
+        headingDeg = (heading + 360.0) % 360.0;
+    }
+
+    private void publishFix(long timestampMs) {
+        double along = distance - route.legStart(leg);
+        double latitude = route.latitude(route.y(leg, along));
+        double longitude = route.longitude(route.x(leg, along));
+        GnssLocation location = new GnssLocation(
+            latitude,
+            longitude,
+            ALTITUDE_M,
+            (float) speed,
+            (float) headingDeg,
+            ACCURACY_M,
+            timestampMs
+        );
+        publish(location, latitude, longitude, timestampMs);
+        fixesPublished++;
+    }
+
+    public long getFixesPublished() {
+        return fixesPublished;
+    }
+}
@@ -0,0 +1,27 @@
+package com.vodafone.v2x.example.location.route;
+
+/**
+ * How a simulated vehicle drives a {@link Route}.
+ *
+ * @param cruiseMps         speed on legs without their own limit, m/s
+ * @param accelerationMps2  longitudinal acceleration, m/s²
+ * @param decelerationMps2  braking, m/s²; the vehicle brakes early enough to reach each corner at corner speed
+ * @param lateralAccelMps2  lateral acceleration allowed through corners, m/s²; lower means slower corners
+ */
+public record SpeedProfile(double cruiseMps, double accelerationMps2, double decelerationMps2,
+                           double lateralAccelMps2) {
+
+    public SpeedProfile {
+        if (!(cruiseMps > 0) || !(accelerationMps2 > 0) || !(decelerationMps2 > 0) || !(lateralAccelMps2 > 0)) {
+            throw new IllegalArgumentException("Speed profile values must be positive: cruise " + cruiseMps
+                + ", acceleration " + accelerationMps2 + ", deceleration " + decelerationMps2 + ", lateral "
+                + lateralAccelMps2);
+        }
+    }
+
+    /** Speed profile with the cruise speed in km/h. */
+    public static SpeedProfile ofKmh(double cruiseKmh, double accelerationMps2, double decelerationMps2,
+                                     double lateralAccelMps2) {
+        return new SpeedProfile(cruiseKmh / 3.6, accelerationMps2, decelerationMps2, lateralAccelMps2);
+    }
+}
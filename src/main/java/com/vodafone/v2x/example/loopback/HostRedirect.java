@@ -0,0 +1,32 @@
+package com.vodafone.v2x.example.loopback;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Points a host name at another address for this JVM only, through a generated hosts file and
+ * {@code jdk.net.hosts.file}.
+ *
+ * <p>The SDK takes its MQTT endpoint from the {@code StepInstance} enum, so redirecting the instance's host name is
+ * the only way to connect it to a {@link LocalMqttBroker}. With the property set the JVM resolves names from that
+ * file alone, so this is meant for offline runs. It must be installed before the first name lookup.
+ */
+public final class HostRedirect {
+
+    private HostRedirect() {
+    }
+
+    /** Resolves {@code host} to {@code address} from now on and returns the generated hosts file. */
+    public static Path install(String host, String address) throws IOException {
+        Path hosts = Files.createTempFile("v2x-hosts", ".txt");
+        hosts.toFile().deleteOnExit();
+        Files.write(hosts, List.of(
+            address + " " + host,
+            "127.0.0.1 localhost",
+            "::1 localhost"));
+        System.setProperty("jdk.net.hosts.file", hosts.toString());
+        return hosts;
+    }
+}
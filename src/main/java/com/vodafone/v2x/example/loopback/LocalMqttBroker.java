@@ -0,0 +1,330 @@
+package com.vodafone.v2x.example.loopback;
+
+import com.vodafone.v2x.example.util.Logging;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process MQTT 3.1.1 broker for offline tests: every PUBLISH is delivered to every connection with a matching
+ * subscription, the publisher included, as STEP does for a shared group.
+ *
+ * <p>Only what a loopback test needs is implemented: any client ID and credentials are accepted, subscriptions
+ * are granted and delivered at QoS 0, QoS 1 and 2 publishes are acknowledged, and retained messages and wills are
+ * ignored. Each connection has a reader and a writer virtual thread and a bounded outbound queue. A subscriber
+ * whose queue is full blocks the publishing connection's reader, so a slow consumer pushes back on publishers
+ * through TCP instead of losing messages.
+ *
+ * <p>With a PKCS#12 key store the broker speaks TLS, which is what the SDK expects on the STEP port; see
+ * {@code step.mqtt.redirect}. Run standalone: {@code LocalMqttBroker <port> [keystore.p12 <password>]}.
+ */
+public final class LocalMqttBroker implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LocalMqttBroker.class);
+    private static final int OUTBOUND_QUEUE_SIZE = 16_384;
+    private static final byte[] CONNACK_ACCEPTED = {(byte) (MqttCodec.CONNACK << 4), 2, 0, 0};
+    private static final byte[] PINGRESP = {(byte) (MqttCodec.PINGRESP << 4), 0};
+
+    private record Subscription(Connection connection, String filter) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    /**
+     * Starts a plain TCP broker.
+     *
+     * @param port 0 for an ephemeral port, see {@link #getPort}
+     */
+    public LocalMqttBroker(InetAddress address, int port) throws IOException {
+        this(new ServerSocket());
+        bindAndStart(address, port);
+    }
+
+    /** Starts a TLS broker with the server certificate in {@code sslContext}. */
+    public LocalMqttBroker(InetAddress address, int port, SSLContext sslContext) throws IOException {
+        this(sslContext.getServerSocketFactory().createServerSocket());
+        bindAndStart(address, port);
+    }
+
+    private LocalMqttBroker(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        this.acceptor = Thread.ofPlatform().name("mqtt-broker-accept").daemon().unstarted(this::acceptLoop);
+    }
+
+    private void bindAndStart(InetAddress address, int port) throws IOException {
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(address, port));
+        acceptor.start();
+        logger.info("Local MQTT broker listening on {}:{}", address.getHostAddress(), getPort());
+    }
+
+    /** TLS context for a PKCS#12 key store holding the server key and certificate. */
+    public static SSLContext sslContext(Path keyStore, char[] password) throws IOException {
+        try (InputStream in = Files.newInputStream(keyStore)) {
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(in, password);
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(store, password);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keyManagers.getKeyManagers(), null, null);
+            return context;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Cannot load key store " + keyStore, e);
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** PUBLISH packets received from clients. */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /** PUBLISH packets queued to subscribers. */
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                connection.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Accept failed: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    private void route(String topic, byte[] packet) throws InterruptedException {
+        published.increment();
+        for (Subscription subscription : subscriptions) {
+            if (MqttCodec.matches(subscription.filter(), topic)) {
+                subscription.connection().send(packet);
+                delivered.increment();
+            }
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final BlockingQueue<byte[]> outbound = new ArrayBlockingQueue<>(OUTBOUND_QUEUE_SIZE);
+        private Thread writer;
+        private String clientId = "?";
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void start() {
+            writer = Thread.ofVirtual().name("mqtt-broker-writer").start(this::writeLoop);
+            Thread.ofVirtual().name("mqtt-broker-reader").start(this::readLoop);
+        }
+
+        void send(byte[] packet) throws InterruptedException {
+            if (!socket.isClosed()) {
+                outbound.put(packet);
+            }
+        }
+
+        private void readLoop() {
+            try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+                MqttCodec.Packet packet;
+                while ((packet = MqttCodec.read(in)) != null) {
+                    if (!handle(packet)) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.debug("Connection {} lost: {}", clientId, e.toString());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                disconnect();
+            }
+        }
+
+        /** Returns {@code false} when the client disconnects. */
+        private boolean handle(MqttCodec.Packet packet) throws InterruptedException, IOException {
+            byte[] body = packet.body();
+            switch (packet.type()) {
+                case MqttCodec.CONNECT -> {
+                    // Protocol name, level, flags and keep-alive precede the client ID
+                    int offset = 2 + MqttCodec.getShort(body, 0) + 4;
+                    clientId = MqttCodec.getString(body, offset);
+                    logger.debug("Client {} connected from {}", clientId, socket.getRemoteSocketAddress());
+                    send(CONNACK_ACCEPTED);
+                }
+                case MqttCodec.PUBLISH -> {
+                    int qos = (packet.flags() >>> 1) & 0x03;
+                    int topicLength = MqttCodec.getShort(body, 0);
+                    String topic = MqttCodec.getString(body, 0);
+                    int payloadOffset = 2 + topicLength;
+                    if (qos > 0) {
+                        int packetId = MqttCodec.getShort(body, payloadOffset);
+                        payloadOffset += 2;
+                        send(MqttCodec.withPacketId(qos == 1 ? MqttCodec.PUBACK << 4 : MqttCodec.PUBREC << 4,
+                            packetId));
+                    }
+                    if (qos == 0 && packet.flags() == 0) {
+                        // Already the QoS 0 form subscribers get; forward as is
+                        route(topic, MqttCodec.packet(packet.header(), body, body.length));
+                    } else {
+                        byte[] payload = new byte[body.length - payloadOffset];
+                        System.arraycopy(body, payloadOffset, payload, 0, payload.length);
+                        route(topic, MqttCodec.publish(topic, payload));
+                    }
+                }
+                case MqttCodec.PUBREL -> send(MqttCodec.withPacketId(MqttCodec.PUBCOMP << 4,
+                    MqttCodec.getShort(body, 0)));
+                case MqttCodec.SUBSCRIBE -> {
+                    int packetId = MqttCodec.getShort(body, 0);
+                    int offset = 2;
+                    byte[] granted = new byte[body.length];
+                    int count = 0;
+                    while (offset < body.length) {
+                        String filter = MqttCodec.getString(body, offset);
+                        offset += 2 + MqttCodec.getShort(body, offset) + 1;
+                        subscriptions.add(new Subscription(this, filter));
+                        granted[count++] = 0;
+                        logger.debug("Client {} subscribed to {}", clientId, filter);
+                    }
+                    byte[] suback = new byte[2 + count];
+                    MqttCodec.putShort(suback, 0, packetId);
+                    System.arraycopy(granted, 0, suback, 2, count);
+                    send(MqttCodec.packet(MqttCodec.SUBACK << 4, suback, suback.length));
+                }
+                case MqttCodec.UNSUBSCRIBE -> {
+                    int offset = 2;
+                    while (offset < body.length) {
+                        String filter = MqttCodec.getString(body, offset);
+                        offset += 2 + MqttCodec.getShort(body, offset);
+                        subscriptions.removeIf(s -> s.connection() == this && s.filter().equals(filter));
+                    }
+                    send(MqttCodec.withPacketId(MqttCodec.UNSUBACK << 4, MqttCodec.getShort(body, 0)));
+                }
+                case MqttCodec.PINGREQ -> send(PINGRESP);
+                case MqttCodec.DISCONNECT -> {
+                    return false;
+                }
+                default -> {
+                    // PUBACK/PUBREC/PUBCOMP never arrive: we only deliver at QoS 0
+                }
+            }
+            return true;
+        }
+
+        private void writeLoop() {
+            try (OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024)) {
+                while (true) {
+                    byte[] packet = outbound.take();
+                    // Write whatever is queued before paying for a flush
+                    while (packet != null) {
+                        out.write(packet);
+                        packet = outbound.poll();
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                logger.debug("Write to {} failed: {}", clientId, e.toString());
+            } catch (InterruptedException e) {
+                // disconnected
+            } finally {
+                closeSocket();
+                // A dead writer must not leave publishers blocked on a full queue
+                outbound.clear();
+            }
+        }
+
+        void disconnect() {
+            subscriptions.removeIf(s -> s.connection() == this);
+            connections.remove(this);
+            closeSocket();
+            writer.interrupt();
+            outbound.clear();
+            logger.debug("Client {} disconnected", clientId);
+        }
+
+        private void closeSocket() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Error closing broker socket: {}", e.toString());
+        }
+        for (Connection connection : connections) {
+            connection.closeSocket();
+        }
+        logger.info("Local MQTT broker stopped: {} published, {} delivered", getPublished(), getDelivered());
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Usage: LocalMqttBroker <port> [keystore.p12 <password>]");
+            System.exit(2);
+        }
+        try {
+            int port = Integer.parseInt(args[0]);
+            InetAddress loopback = InetAddress.getLoopbackAddress();
+            LocalMqttBroker broker = args.length == 3
+                ? new LocalMqttBroker(loopback, port, sslContext(Path.of(args[1]), args[2].toCharArray()))
+                : new LocalMqttBroker(loopback, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                broker.close();
+                Logging.stop();
+            }, "shutdown-hook"));
+            broker.acceptor.join();
+        } catch (Exception e) {
+            logger.error("Broker error", e);
+            Logging.stop();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.vodafone.v2x.example.loopback;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal MQTT 3.1.1 client for the {@link LoopbackHarness}: clean session, no keep-alive, QoS 0 only.
+ *
+ * <p>{@link #publish} buffers; call {@link #flush} to send, so a publisher can batch as many messages per system
+ * call as it likes. {@link #subscribe} starts a reader thread that hands every received message to the
+ * {@link MessageHandler}.
+ */
+final class LocalMqttClient implements AutoCloseable {
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+
+    @FunctionalInterface
+    interface MessageHandler {
+        /** Called on the reader thread; {@code payload} is a view into {@code body} valid during the call. */
+        void onMessage(String topic, byte[] body, int payloadOffset, int payloadLength);
+    }
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private int nextPacketId = 1;
+    private Thread reader;
+
+    LocalMqttClient(String host, int port, String clientId) throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+        in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+        out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+
+        byte[] id = clientId.getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[12 + id.length];
+        byte[] protocol = {0, 4, 'M', 'Q', 'T', 'T', 4, 0x02, 0, 0};
+        System.arraycopy(protocol, 0, body, 0, protocol.length);
+        MqttCodec.putShort(body, 10, id.length);
+        System.arraycopy(id, 0, body, 12, id.length);
+        out.write(MqttCodec.packet(MqttCodec.CONNECT << 4, body, body.length));
+        out.flush();
+        MqttCodec.Packet connack = MqttCodec.read(in);
+        if (connack == null || connack.type() != MqttCodec.CONNACK || connack.body()[1] != 0) {
+            socket.close();
+            throw new IOException("MQTT connect refused for " + clientId);
+        }
+    }
+
+    /** Subscribes to {@code filter} and starts delivering messages to {@code handler}. */
+    synchronized void subscribe(String filter, MessageHandler handler) throws IOException {
+        if (reader != null) {
+            throw new IllegalStateException("Already subscribed");
+        }
+        byte[] topic = filter.getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[5 + topic.length];
+        MqttCodec.putShort(body, 0, nextPacketId++);
+        MqttCodec.putShort(body, 2, topic.length);
+        System.arraycopy(topic, 0, body, 4, topic.length);
+        out.write(MqttCodec.packet((MqttCodec.SUBSCRIBE << 4) | 0x02, body, body.length));
+        out.flush();
+        MqttCodec.Packet suback = MqttCodec.read(in);
+        if (suback == null || suback.type() != MqttCodec.SUBACK) {
+            throw new IOException("MQTT subscribe to " + filter + " failed");
+        }
+        reader = Thread.ofPlatform().name("mqtt-client-reader").daemon().start(() -> readLoop(handler));
+    }
+
+    private void readLoop(MessageHandler handler) {
+        try {
+            MqttCodec.Packet packet;
+            while ((packet = MqttCodec.read(in)) != null) {
+                if (packet.type() == MqttCodec.PUBLISH) {
+                    byte[] body = packet.body();
+                    int topicLength = MqttCodec.getShort(body, 0);
+                    int payloadOffset = 2 + topicLength;
+                    handler.onMessage(MqttCodec.getString(body, 0), body, payloadOffset,
+                        body.length - payloadOffset);
+                }
+            }
+        } catch (IOException e) {
+            // closed
+        }
+    }
+
+    /** Buffers a QoS 0 publish. */
+    synchronized void publish(String topic, byte[] payload) throws IOException {
+        out.write(MqttCodec.publish(topic, payload));
+    }
+
+    synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            out.write(new byte[] {(byte) (MqttCodec.DISCONNECT << 4), 0});
+            out.flush();
+        } catch (IOException e) {
+            // closing anyway
+        }
+        socket.close();
+        if (reader != null) {
+            try {
+                reader.join(CONNECT_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
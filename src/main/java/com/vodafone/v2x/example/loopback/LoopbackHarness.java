@@ -0,0 +1,352 @@
+package com.vodafone.v2x.example.loopback;
+
+import com.vodafone.v2x.example.denm.DenmLifecycleCache;
+import com.vodafone.v2x.example.handlers.CAMHandler;
+import com.vodafone.v2x.example.handlers.DENMHandler;
+import com.vodafone.v2x.example.handlers.RecordLogSampler;
+import com.vodafone.v2x.example.metrics.HistogramSnapshot;
+import com.vodafone.v2x.example.metrics.LatencyHistogram;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.model.DenmSample;
+import com.vodafone.v2x.example.station.StationTable;
+import com.vodafone.v2x.example.util.Logging;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline end-to-end throughput and latency test: simulated vehicles publish CAMs and DENMs through a
+ * {@link LocalMqttBroker} on localhost, and a subscriber decodes them into the application's {@link CAMHandler}
+ * and {@link DENMHandler}. No STEP account, SDK connection or network access is involved.
+ *
+ * <p>Scenarios:
+ * <ul>
+ *   <li>{@code latency}: every vehicle publishes a CAM at {@code --rate} Hz, as on the road; reports publish to
+ *       receive latency percentiles.</li>
+ *   <li>{@code throughput}: publishers send as fast as the broker and subscriber take it; reports the sustained
+ *       receive rate.</li>
+ * </ul>
+ * Like the SDK's {@code CAM_LIST_CHANGED} events, the subscriber hands the handlers the whole list of latest CAMs
+ * every {@value #SNAPSHOT_INTERVAL_MS} ms; the handler time is reported as well. Messages carry their
+ * {@link System#nanoTime()} send time, which is comparable because everything runs in one JVM.
+ *
+ * <p>{@code --min-throughput} (for {@code throughput}) and {@code --max-p99-us} (for {@code latency}) turn the run
+ * into a regression gate: the process exits with status 1 when a scenario misses its limit or loses messages.
+ */
+public class LoopbackHarness {
+    private static final Logger logger = LoggerFactory.getLogger(LoopbackHarness.class);
+    private static final long SNAPSHOT_INTERVAL_MS = 100;
+    private static final int DENM_EVERY_ROUNDS = 50;
+    private static final int ACTIVE_DENMS = 64;
+    private static final int CAM_PAYLOAD_SIZE = 56;
+    private static final int DENM_PAYLOAD_SIZE = 32;
+    private static final double CENTER_LAT = 48.866667;
+    private static final double CENTER_LON = 2.333333;
+    private static final String TOPIC_ROOT = "loopback/";
+
+    /** Parameters of one run. */
+    public record Settings(int vehicles, double rateHz, int publishers, long warmupSeconds, long seconds,
+                    double minThroughput, long maxP99Micros) {
+    }
+
+    /** Outcome of one scenario. */
+    public record Result(String scenario, long sent, long received, long lost, double seconds,
+                  HistogramSnapshot latencyMicros, HistogramSnapshot handlerMicros) {
+
+        /** Messages received per second during the measurement. */
+        public double throughput() {
+            return received / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "%s: %d sent, %d received in %.1f s (%.0f msg/s), %d lost; latency us p50 %d, p99 %d, p99.9 %d, "
+                    + "max %d; handler us p50 %d, p99 %d",
+                scenario, sent, received, seconds, throughput(), lost, latencyMicros.percentile(0.5),
+                latencyMicros.percentile(0.99), latencyMicros.percentile(0.999), latencyMicros.max(),
+                handlerMicros.percentile(0.5), handlerMicros.percentile(0.99));
+        }
+    }
+
+    private final Settings settings;
+    private final LongAdder sent = new LongAdder();
+
+    public LoopbackHarness(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) {
+        List<String> scenarios = new ArrayList<>();
+        int vehicles = 1000;
+        double rateHz = 10;
+        int publishers = 4;
+        long warmupSeconds = 2;
+        long seconds = 10;
+        double minThroughput = 0;
+        long maxP99Micros = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "latency", "throughput" -> scenarios.add(args[i]);
+                    case "all" -> scenarios.addAll(List.of("latency", "throughput"));
+                    case "--vehicles" -> vehicles = Integer.parseInt(args[++i]);
+                    case "--rate" -> rateHz = Double.parseDouble(args[++i]);
+                    case "--publishers" -> publishers = Integer.parseInt(args[++i]);
+                    case "--warmup-seconds" -> warmupSeconds = Long.parseLong(args[++i]);
+                    case "--seconds" -> seconds = Long.parseLong(args[++i]);
+                    case "--min-throughput" -> minThroughput = Double.parseDouble(args[++i]);
+                    case "--max-p99-us" -> maxP99Micros = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoopbackHarness [latency|throughput|all] [--vehicles N] [--rate HZ] "
+                + "[--publishers N] [--warmup-seconds S] [--seconds S] [--min-throughput MSG_PER_S] "
+                + "[--max-p99-us US]");
+            System.exit(2);
+        }
+        if (scenarios.isEmpty()) {
+            scenarios.addAll(List.of("latency", "throughput"));
+        }
+
+        try {
+            LoopbackHarness harness = new LoopbackHarness(new Settings(vehicles, rateHz, publishers, warmupSeconds,
+                seconds, minThroughput, maxP99Micros));
+            boolean passed = true;
+            for (String scenario : scenarios) {
+                Result result = harness.run(scenario);
+                logger.info("{}", result);
+                passed &= harness.check(result);
+            }
+            Logging.stop();
+            if (!passed) {
+                System.exit(1);
+            }
+        } catch (Exception e) {
+            logger.error("Loopback harness error", e);
+            Logging.stop();
+            System.exit(1);
+        }
+    }
+
+    /** Checks a result against the gates, logging each miss. */
+    boolean check(Result result) {
+        boolean passed = true;
+        if (result.lost() > 0) {
+            logger.error("{}: {} messages lost", result.scenario(), result.lost());
+            passed = false;
+        }
+        boolean paced = result.scenario().equals("latency");
+        if (!paced && settings.minThroughput() > 0 && result.throughput() < settings.minThroughput()) {
+            logger.error("{}: throughput {} msg/s below the minimum of {}", result.scenario(),
+                Math.round(result.throughput()), settings.minThroughput());
+            passed = false;
+        }
+        long p99 = result.latencyMicros().percentile(0.99);
+        if (paced && settings.maxP99Micros() > 0 && p99 > settings.maxP99Micros()) {
+            logger.error("{}: p99 latency {} us above the maximum of {} us", result.scenario(), p99,
+                settings.maxP99Micros());
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * Runs one scenario against a fresh broker and fresh handlers.
+     *
+     * @param scenario {@code latency} or {@code throughput}
+     */
+    public Result run(String scenario) throws IOException, InterruptedException {
+        boolean paced = scenario.equals("latency");
+        logger.info("=== Loopback {}: {} vehicles{}, {} publishers, {} s after {} s warm-up ===", scenario,
+            settings.vehicles(), paced ? " at " + settings.rateHz() + " Hz" : "", settings.publishers(),
+            settings.seconds(), settings.warmupSeconds());
+
+        sent.reset();
+        try (LocalMqttBroker broker = new LocalMqttBroker(InetAddress.getLoopbackAddress(), 0)) {
+            Receiver receiver = new Receiver(settings.vehicles());
+            try (LocalMqttClient subscriber = new LocalMqttClient("127.0.0.1", broker.getPort(), "loopback-rx")) {
+                subscriber.subscribe(TOPIC_ROOT + "#", receiver::onMessage);
+
+                Publisher[] publishers = new Publisher[settings.publishers()];
+                Thread[] threads = new Thread[publishers.length];
+                for (int p = 0; p < publishers.length; p++) {
+                    publishers[p] = new Publisher(p, broker.getPort(), paced);
+                    threads[p] = Thread.ofPlatform().name("loopback-tx-" + p).start(publishers[p]);
+                }
+
+                Thread.sleep(TimeUnit.SECONDS.toMillis(settings.warmupSeconds()));
+                long sentBefore = sent.sum();
+                long receivedBefore = receiver.received.sum();
+                receiver.measure(true);
+                long startNanos = System.nanoTime();
+                Thread.sleep(TimeUnit.SECONDS.toMillis(settings.seconds()));
+                receiver.measure(false);
+                double elapsed = (System.nanoTime() - startNanos) / 1e9;
+                long sentInWindow = sent.sum() - sentBefore;
+                long receivedInWindow = receiver.received.sum() - receivedBefore;
+
+                for (Publisher publisher : publishers) {
+                    publisher.running = false;
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                // Let everything in flight arrive before counting losses
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (receiver.received.sum() < sent.sum() && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                return new Result(scenario, sentInWindow, receivedInWindow, sent.sum() - receiver.received.sum(),
+                    elapsed, receiver.latency.snapshot(), receiver.handlerTime.snapshot());
+            }
+        }
+    }
+
+    /** Publishes CAMs for every {@code publishers}-th vehicle over its own connection, plus a DENM now and then. */
+    private final class Publisher implements Runnable {
+        private final int index;
+        private final int port;
+        private final boolean paced;
+        private final ByteBuffer cam = ByteBuffer.allocate(CAM_PAYLOAD_SIZE);
+        private final ByteBuffer denm = ByteBuffer.allocate(DENM_PAYLOAD_SIZE);
+        private volatile boolean running = true;
+
+        Publisher(int index, int port, boolean paced) {
+            this.index = index;
+            this.port = port;
+            this.paced = paced;
+        }
+
+        @Override
+        public void run() {
+            String camTopic = TOPIC_ROOT + "cam/" + index;
+            String denmTopic = TOPIC_ROOT + "denm/" + index;
+            long periodNanos = (long) (1e9 / settings.rateHz());
+            long nextRound = System.nanoTime();
+            long denmSequence = 0;
+            try (LocalMqttClient client = new LocalMqttClient("127.0.0.1", port, "loopback-tx-" + index)) {
+                for (long round = 0; running; round++) {
+                    long nowMs = System.currentTimeMillis();
+                    for (int vehicle = index; vehicle < settings.vehicles(); vehicle += settings.publishers()) {
+                        double offset = vehicle * 1e-5 + round * 1e-6;
+                        cam.clear();
+                        cam.putLong(vehicle).putDouble(CENTER_LAT + offset).putDouble(CENTER_LON + offset)
+                            .putDouble(50.0).putDouble(90.0).putLong(nowMs).putLong(System.nanoTime());
+                        client.publish(camTopic, cam.array());
+                        sent.increment();
+                    }
+                    if (round % DENM_EVERY_ROUNDS == 0) {
+                        denm.clear();
+                        denm.putLong(index).putLong(denmSequence++).putInt(2).putInt(0).putLong(System.nanoTime());
+                        client.publish(denmTopic, denm.array());
+                        sent.increment();
+                    }
+                    client.flush();
+                    if (paced) {
+                        nextRound += periodNanos;
+                        long wait;
+                        while ((wait = nextRound - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Publisher {} failed", index, e);
+            }
+        }
+    }
+
+    /**
+     * Decodes received messages into the latest CAM per station and the most recent DENMs, and hands both lists to
+     * fresh handlers every {@value #SNAPSHOT_INTERVAL_MS} ms. Runs on the subscriber's reader thread.
+     */
+    private static final class Receiver {
+        final LongAdder received = new LongAdder();
+        final LatencyHistogram latency =
+            new LatencyHistogram("loopback.latency", "Publish to receive latency", TimeUnit.MICROSECONDS);
+        final LatencyHistogram handlerTime =
+            new LatencyHistogram("loopback.handler.time", "Handler time per snapshot", TimeUnit.MICROSECONDS);
+
+        private final CAMHandler camHandler;
+        private final DENMHandler denmHandler;
+        private final int[] slotOfStation;
+        private final CamSample[] cams;
+        private int camCount;
+        private final DenmSample[] denms = new DenmSample[ACTIVE_DENMS];
+        private int denmCount;
+        private int nextDenm;
+        private long nextSnapshotNanos;
+        private volatile boolean measuring;
+
+        Receiver(int vehicles) {
+            RecordLogSampler.Mode mode = RecordLogSampler.Mode.SUMMARY;
+            camHandler = new CAMHandler(new StationTable(vehicles, TimeUnit.SECONDS.toMillis(5)),
+                new RecordLogSampler(mode, 1000, vehicles), 0);
+            denmHandler = new DENMHandler(new DenmLifecycleCache(4096, 600_000, 60_000),
+                new RecordLogSampler(mode, 1000, 4096), 0);
+            slotOfStation = new int[vehicles];
+            Arrays.fill(slotOfStation, -1);
+            cams = new CamSample[vehicles];
+            for (int i = 0; i < vehicles; i++) {
+                cams[i] = new CamSample();
+            }
+            for (int i = 0; i < denms.length; i++) {
+                denms[i] = new DenmSample();
+            }
+        }
+
+        void measure(boolean on) {
+            measuring = on;
+        }
+
+        void onMessage(String topic, byte[] body, int offset, int length) {
+            ByteBuffer payload = ByteBuffer.wrap(body, offset, length);
+            long sentNanos;
+            if (topic.startsWith("cam/", TOPIC_ROOT.length()) && length == CAM_PAYLOAD_SIZE) {
+                int station = (int) payload.getLong();
+                int slot = slotOfStation[station];
+                if (slot < 0) {
+                    slot = camCount++;
+                    slotOfStation[station] = slot;
+                }
+                cams[slot].set(station, payload.getDouble(), payload.getDouble(), payload.getDouble(),
+                    payload.getDouble(), payload.getLong());
+                sentNanos = payload.getLong();
+            } else if (topic.startsWith("denm/", TOPIC_ROOT.length()) && length == DENM_PAYLOAD_SIZE) {
+                denms[nextDenm].set(payload.getLong(), payload.getLong(), payload.getInt(), payload.getInt());
+                nextDenm = (nextDenm + 1) % denms.length;
+                denmCount = Math.min(denmCount + 1, denms.length);
+                sentNanos = payload.getLong();
+            } else {
+                return;
+            }
+            long nowNanos = System.nanoTime();
+            received.increment();
+            if (measuring) {
+                latency.record(TimeUnit.NANOSECONDS.toMicros(nowNanos - sentNanos));
+            }
+
+            if (nowNanos - nextSnapshotNanos >= 0) {
+                nextSnapshotNanos = nowNanos + TimeUnit.MILLISECONDS.toNanos(SNAPSHOT_INTERVAL_MS);
+                camHandler.onCamList(cams, camCount);
+                denmHandler.onDenmList(denms, denmCount);
+                if (measuring) {
+                    handlerTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - nowNanos));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.vodafone.v2x.example.loopback;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The subset of MQTT 3.1.1 framing that {@link LocalMqttBroker} and {@link LocalMqttClient} speak: fixed header
+ * with variable-length remaining length, length-prefixed UTF-8 strings and 16-bit packet identifiers.
+ */
+final class MqttCodec {
+    static final int CONNECT = 1;
+    static final int CONNACK = 2;
+    static final int PUBLISH = 3;
+    static final int PUBACK = 4;
+    static final int PUBREC = 5;
+    static final int PUBREL = 6;
+    static final int PUBCOMP = 7;
+    static final int SUBSCRIBE = 8;
+    static final int SUBACK = 9;
+    static final int UNSUBSCRIBE = 10;
+    static final int UNSUBACK = 11;
+    static final int PINGREQ = 12;
+    static final int PINGRESP = 13;
+    static final int DISCONNECT = 14;
+
+    /** Largest packet accepted; CAMs and DENMs are a few hundred bytes. */
+    static final int MAX_PACKET_SIZE = 1 << 20;
+
+    /** One control packet: first header byte and the bytes after the remaining length. */
+    record Packet(int header, byte[] body) {
+
+        int type() {
+            return (header >>> 4) & 0x0F;
+        }
+
+        int flags() {
+            return header & 0x0F;
+        }
+    }
+
+    private MqttCodec() {
+    }
+
+    /** Reads the next packet, or returns {@code null} at a clean end of stream. */
+    static Packet read(InputStream in) throws IOException {
+        int header = in.read();
+        if (header < 0) {
+            return null;
+        }
+        int length = 0;
+        int multiplier = 1;
+        int digit;
+        do {
+            digit = in.read();
+            if (digit < 0) {
+                throw new EOFException("Truncated MQTT header");
+            }
+            length += (digit & 0x7F) * multiplier;
+            multiplier <<= 7;
+            if (multiplier > 1 << 21 && (digit & 0x80) != 0) {
+                throw new IOException("Malformed MQTT remaining length");
+            }
+        } while ((digit & 0x80) != 0);
+        if (length > MAX_PACKET_SIZE) {
+            throw new IOException("MQTT packet too large: " + length + " bytes");
+        }
+        return new Packet(header, in.readNBytes(length));
+    }
+
+    /** A complete packet with the given header byte and body. */
+    static byte[] packet(int header, byte[] body, int bodyLength) {
+        int lengthBytes = bodyLength < 128 ? 1 : bodyLength < 16_384 ? 2 : bodyLength < 2_097_152 ? 3 : 4;
+        byte[] packet = new byte[1 + lengthBytes + bodyLength];
+        packet[0] = (byte) header;
+        int position = 1;
+        int remaining = bodyLength;
+        do {
+            int digit = remaining & 0x7F;
+            remaining >>>= 7;
+            packet[position++] = (byte) (remaining > 0 ? digit | 0x80 : digit);
+        } while (remaining > 0);
+        System.arraycopy(body, 0, packet, position, bodyLength);
+        return packet;
+    }
+
+    /** A QoS 0 PUBLISH packet. */
+    static byte[] publish(String topic, byte[] payload) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[2 + topicBytes.length + payload.length];
+        putShort(body, 0, topicBytes.length);
+        System.arraycopy(topicBytes, 0, body, 2, topicBytes.length);
+        System.arraycopy(payload, 0, body, 2 + topicBytes.length, payload.length);
+        return packet(PUBLISH << 4, body, body.length);
+    }
+
+    /** A packet whose body is just a packet identifier (PUBACK, PUBREC, PUBCOMP, UNSUBACK, ...). */
+    static byte[] withPacketId(int header, int packetId) {
+        byte[] body = new byte[2];
+        putShort(body, 0, packetId);
+        return packet(header, body, 2);
+    }
+
+    static int getShort(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    static void putShort(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 8);
+        bytes[offset + 1] = (byte) value;
+    }
+
+    /** The length-prefixed string at {@code offset}; its length in bytes is {@code 2 + getShort(bytes, offset)}. */
+    static String getString(byte[] bytes, int offset) {
+        return new String(bytes, offset + 2, getShort(bytes, offset), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether a topic matches a subscription filter, with {@code +} for one level and a trailing {@code #} for any
+     * number of levels, including none.
+     */
+    static boolean matches(String filter, String topic) {
+        int f = 0;
+        int t = 0;
+        while (f < filter.length()) {
+            char c = filter.charAt(f);
+            if (c == '#') {
+                return true;
+            }
+            if (c == '+') {
+                while (t < topic.length() && topic.charAt(t) != '/') {
+                    t++;
+                }
+                f++;
+                continue;
+            }
+            if (t >= topic.length()) {
+                // "a/#" also matches "a"
+                return filter.startsWith("/#", f) && filter.length() == f + 2;
+            }
+            if (c != topic.charAt(t)) {
+                return false;
+            }
+            f++;
+            t++;
+        }
+        return t == topic.length();
+    }
+}
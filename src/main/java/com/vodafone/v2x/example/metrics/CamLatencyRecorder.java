@@ -0,0 +1,44 @@
+package com.vodafone.v2x.example.metrics;
+
+import com.vodafone.v2x.example.delta.CamDeltaListener;
+import com.vodafone.v2x.example.model.CamSample;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Records CAM receive latency, from the sender's generation time to the moment the handler sees the CAM, for
+ * every CAM that is new or changed. Both ends are UTC milliseconds, so the figure includes any clock offset
+ * between the sender and the SDK's time source.
+ */
+public class CamLatencyRecorder implements CamDeltaListener {
+    private final LatencyHistogram latencyMs;
+    private final LongSupplier utcClockMs;
+
+    /**
+     * @param utcClockMs current UTC time in milliseconds, normally {@code sdk::getUTCTimeInMs}
+     */
+    public CamLatencyRecorder(LatencyHistogram latencyMs, LongSupplier utcClockMs) {
+        this.latencyMs = latencyMs;
+        this.utcClockMs = utcClockMs;
+    }
+
+    @Override
+    public void onCamAdded(CamSample cam) {
+        record(cam);
+    }
+
+    @Override
+    public void onCamUpdated(CamSample cam) {
+        record(cam);
+    }
+
+    @Override
+    public void onCamRemoved(long stationId) {
+    }
+
+    private void record(CamSample cam) {
+        if (cam.getGenerationTimeMs() != CamSample.UNKNOWN_TIME) {
+            latencyMs.record(utcClockMs.getAsLong() - cam.getGenerationTimeMs());
+        }
+    }
+}
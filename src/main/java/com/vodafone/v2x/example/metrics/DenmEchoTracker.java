@@ -0,0 +1,100 @@
+package com.vodafone.v2x.example.metrics;
+
+import com.vodafone.v2x.example.delta.DenmDeltaListener;
+import com.vodafone.v2x.example.model.DenmSample;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures DENM trigger-to-echo latency: the time from {@code denmTrigger} returning a sequence number to that
+ * DENM first appearing in our own received DENM list.
+ *
+ * <p>Our originator ID is not known up front; it is learned from the first echo whose sequence number matches a
+ * pending trigger, after which only DENMs from that originator match. Triggers without an echo within
+ * {@code timeoutMs} are counted as missing. Triggers are rare, so pending entries live in two small arrays under
+ * a lock.
+ */
+public class DenmEchoTracker implements DenmDeltaListener {
+    private static final int MAX_PENDING = 64;
+    private static final long NONE = -1L;
+    private static final int NONE_INDEX = -1;
+
+    private final LatencyHistogram latencyMs;
+    private final RateCounter missing;
+    private final LongSupplier utcClockMs;
+    private final long timeoutMs;
+    private final long[] pendingSequenceNumbers = new long[MAX_PENDING];
+    private final long[] pendingSinceMs = new long[MAX_PENDING];
+    private long ownOriginatorId = NONE;
+
+    public DenmEchoTracker(LatencyHistogram latencyMs, RateCounter missing, LongSupplier utcClockMs, long timeoutMs) {
+        this.latencyMs = latencyMs;
+        this.missing = missing;
+        this.utcClockMs = utcClockMs;
+        this.timeoutMs = timeoutMs;
+        Arrays.fill(pendingSequenceNumbers, NONE);
+    }
+
+    /**
+     * Call with the sequence number returned by {@code denmTrigger} and the UTC time it was called at.
+     */
+    public synchronized void onTriggered(long sequenceNumber, long triggeredAtMs) {
+        if (sequenceNumber < 0) {
+            return;
+        }
+        expire(triggeredAtMs);
+        int free = NONE_INDEX;
+        int oldest = 0;
+        for (int i = 0; i < MAX_PENDING; i++) {
+            if (pendingSequenceNumbers[i] == NONE) {
+                free = i;
+                break;
+            }
+            if (pendingSinceMs[i] < pendingSinceMs[oldest]) {
+                oldest = i;
+            }
+        }
+        if (free == NONE_INDEX) {
+            // More outstanding triggers than we track: give up on the oldest
+            missing.increment();
+            free = oldest;
+        }
+        pendingSequenceNumbers[free] = sequenceNumber;
+        pendingSinceMs[free] = triggeredAtMs;
+    }
+
+    @Override
+    public synchronized void onDenmAdded(DenmSample denm) {
+        long now = utcClockMs.getAsLong();
+        if (ownOriginatorId != NONE && denm.getOriginatorId() != ownOriginatorId) {
+            return;
+        }
+        for (int i = 0; i < MAX_PENDING; i++) {
+            if (pendingSequenceNumbers[i] == denm.getSequenceNumber()) {
+                latencyMs.record(now - pendingSinceMs[i]);
+                pendingSequenceNumbers[i] = NONE;
+                ownOriginatorId = denm.getOriginatorId();
+                break;
+            }
+        }
+        expire(now);
+    }
+
+    @Override
+    public void onDenmUpdated(DenmSample denm) {
+    }
+
+    @Override
+    public void onDenmRemoved(long originatorId, long sequenceNumber) {
+    }
+
+    private void expire(long nowMs) {
+        for (int i = 0; i < MAX_PENDING; i++) {
+            if (pendingSequenceNumbers[i] != NONE && nowMs - pendingSinceMs[i] > timeoutMs) {
+                pendingSequenceNumbers[i] = NONE;
+                missing.increment();
+            }
+        }
+    }
+}
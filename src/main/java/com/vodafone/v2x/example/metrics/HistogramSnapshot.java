@@ -0,0 +1,80 @@
+package com.vodafone.v2x.example.metrics;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram}'s buckets. Percentiles and the maximum are reported as the upper
+ * bound of the bucket they fall in, i.e. at most ~3% high and never low.
+ */
+public final class HistogramSnapshot {
+    static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[LatencyHistogram.BUCKETS], 0);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+
+    HistogramSnapshot(long[] counts, long sum) {
+        this.counts = counts;
+        this.sum = sum;
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.count = total;
+    }
+
+    HistogramSnapshot minus(HistogramSnapshot earlier) {
+        long[] difference = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            difference[i] = Math.max(0, counts[i] - earlier.counts[i]);
+        }
+        return new HistogramSnapshot(difference, sum - earlier.sum);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    public double mean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.99
+     * @return the value below which {@code quantile} of the recorded values fall, or 0 if empty
+     */
+    public long percentile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return LatencyHistogram.upperBoundOf(i);
+            }
+        }
+        return max();
+    }
+
+    public long max() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return LatencyHistogram.upperBoundOf(i);
+            }
+        }
+        return 0;
+    }
+
+    /** Number of values at or below {@code value}, to bucket resolution. */
+    public long countAtOrBelow(long value) {
+        long total = 0;
+        for (int i = 0; i < counts.length && LatencyHistogram.upperBoundOf(i) <= value; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,144 @@
+package com.vodafone.v2x.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of non-negative durations, for percentiles at a fixed ~3% relative error.
+ *
+ * <p>Values below 64 get a bucket each; above that, every power-of-two range is split into 32 equal buckets, so
+ * 1888 {@code long} counters cover the whole {@code long} range. {@link #record} is one array increment and one
+ * {@link LongAdder} add, safe from any number of threads. Readers take a {@link HistogramSnapshot}; the registry
+ * also keeps the difference between two consecutive {@link #rotate rotations} so percentiles can be reported for
+ * the last window as well as since start.
+ */
+public final class LatencyHistogram implements LatencyHistogramMXBean {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+    static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS;
+
+    private final String name;
+    private final String help;
+    private final TimeUnit unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private HistogramSnapshot lastRotation = HistogramSnapshot.EMPTY;
+    private volatile HistogramSnapshot window = HistogramSnapshot.EMPTY;
+
+    /**
+     * @param unit unit of the recorded values
+     */
+    public LatencyHistogram(String name, String help, TimeUnit unit) {
+        this.name = name;
+        this.help = help;
+        this.unit = unit;
+    }
+
+    /** Records one value; negative values (clock skew) count as zero. */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        counts.getAndIncrement(bucketOf(v));
+        sum.add(v);
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return LINEAR_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS
+            + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /** Largest value that falls into {@code bucket}. */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int offset = bucket - LINEAR_BUCKETS;
+        int shift = offset / SUB_BUCKETS + 1;
+        long lower = (long) (SUB_BUCKETS + offset % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /** Counts since creation. Buckets are read one by one, so a snapshot taken under load may be off by a few. */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(copy, sum.sum());
+    }
+
+    /** Closes the current window; {@link #window()} then covers the time since the previous rotation. */
+    synchronized void rotate() {
+        HistogramSnapshot now = snapshot();
+        window = now.minus(lastRotation);
+        lastRotation = now;
+    }
+
+    /** Counts recorded between the last two {@link #rotate rotations}. */
+    public HistogramSnapshot window() {
+        return window;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String help() {
+        return help;
+    }
+
+    public TimeUnit unit() {
+        return unit;
+    }
+
+    @Override
+    public String getUnit() {
+        return unit.name();
+    }
+
+    @Override
+    public long getCount() {
+        return snapshot().count();
+    }
+
+    @Override
+    public long getWindowCount() {
+        return window.count();
+    }
+
+    @Override
+    public double getWindowMean() {
+        return window.mean();
+    }
+
+    @Override
+    public long getWindowP50() {
+        return window.percentile(0.50);
+    }
+
+    @Override
+    public long getWindowP90() {
+        return window.percentile(0.90);
+    }
+
+    @Override
+    public long getWindowP99() {
+        return window.percentile(0.99);
+    }
+
+    @Override
+    public long getWindowP999() {
+        return window.percentile(0.999);
+    }
+
+    @Override
+    public long getWindowMax() {
+        return window.max();
+    }
+}
@@ -0,0 +1,26 @@
+package com.vodafone.v2x.example.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}. Window attributes cover the last completed metrics window
+ * ({@code metrics.window.seconds}); values are in {@link #getUnit()}.
+ */
+public interface LatencyHistogramMXBean {
+
+    String getUnit();
+
+    long getCount();
+
+    long getWindowCount();
+
+    double getWindowMean();
+
+    long getWindowP50();
+
+    long getWindowP90();
+
+    long getWindowP99();
+
+    long getWindowP999();
+
+    long getWindowMax();
+}
@@ -0,0 +1,30 @@
+package com.vodafone.v2x.example.metrics;
+
+import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
+import com.vodafone.v2xsdk4javav2.facade.events.EventCamListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventDenmListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
+
+/**
+ * Counts {@code *_LIST_CHANGED} events and the records they carry.
+ */
+public class MessageRateRecorder implements EventListener {
+    private final RateCounter events;
+    private final RateCounter records;
+
+    public MessageRateRecorder(RateCounter events, RateCounter records) {
+        this.events = events;
+        this.records = records;
+    }
+
+    @Override
+    public void onMessageBusEvent(BaseEvent baseEvent) {
+        if (baseEvent instanceof EventCamListChanged event) {
+            events.increment();
+            records.add(event.getList().size());
+        } else if (baseEvent instanceof EventDenmListChanged event) {
+            events.increment();
+            records.add(event.getList().size());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.vodafone.v2x.example.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal scrape endpoint on the JDK's built-in HTTP server: {@code GET /metrics} returns
+ * {@link MetricsRegistry#toPrometheusText()}. One daemon thread serves requests.
+ */
+public class MetricsHttpServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public MetricsHttpServer(MetricsRegistry registry, String host, int port) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Metrics endpoint: http://{}:{}/metrics", server.getAddress().getHostString(),
+            server.getAddress().getPort());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = registry.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Port actually bound. Differs from the constructor argument only if that was 0 (ephemeral port), which the
+     * application never passes: {@code metrics.http.port=0} disables the endpoint.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
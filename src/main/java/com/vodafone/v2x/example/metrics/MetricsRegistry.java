@@ -0,0 +1,181 @@
+package com.vodafone.v2x.example.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the application's histograms and counters, rotates their windows, registers them as MXBeans and renders
+ * them in the Prometheus text exposition format for {@link MetricsHttpServer}.
+ */
+public class MetricsRegistry implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final String JMX_DOMAIN = "com.vodafone.v2x.example";
+    private static final String PROMETHEUS_PREFIX = "v2x_";
+    /** Prometheus {@code le} bounds in seconds; finer detail is available from the window quantiles. */
+    private static final double[] BUCKET_BOUNDS_SECONDS = {
+        0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final double[] WINDOW_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final List<LatencyHistogram> histograms = new CopyOnWriteArrayList<>();
+    private final List<RateCounter> counters = new CopyOnWriteArrayList<>();
+    private final List<ObjectName> registeredBeans = new CopyOnWriteArrayList<>();
+    private final long windowSeconds;
+    private final boolean jmxEnabled;
+    private ScheduledExecutorService rotator;
+
+    /**
+     * @param windowSeconds length of the window that window percentiles and rates cover
+     * @param jmxEnabled    register every instrument as an MXBean
+     */
+    public MetricsRegistry(long windowSeconds, boolean jmxEnabled) {
+        this.windowSeconds = windowSeconds;
+        this.jmxEnabled = jmxEnabled;
+    }
+
+    public LatencyHistogram histogram(String name, String help, TimeUnit unit) {
+        LatencyHistogram histogram = new LatencyHistogram(name, help, unit);
+        histograms.add(histogram);
+        register("Latency", name, histogram);
+        return histogram;
+    }
+
+    public RateCounter counter(String name, String help) {
+        RateCounter counter = new RateCounter(name, help);
+        counters.add(counter);
+        register("Counter", name, counter);
+        return counter;
+    }
+
+    private void register(String type, String name, Object bean) {
+        if (!jmxEnabled) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, objectName);
+            registeredBeans.add(objectName);
+        } catch (JMException e) {
+            logger.warn("Cannot register {} {} with JMX: {}", type, name, e.toString());
+        }
+    }
+
+    public synchronized void start() {
+        if (rotator == null) {
+            rotator = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "metrics-window");
+                thread.setDaemon(true);
+                return thread;
+            });
+            rotator.scheduleAtFixedRate(this::rotate, windowSeconds, windowSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    void rotate() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.rotate();
+        }
+        for (RateCounter counter : counters) {
+            counter.rotate();
+        }
+    }
+
+    /**
+     * Renders every instrument: histograms as Prometheus histograms in seconds plus the last window's quantiles
+     * as a gauge, counters as {@code _total} counters.
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(8192);
+        for (LatencyHistogram histogram : histograms) {
+            String metric = PROMETHEUS_PREFIX + sanitize(histogram.name()) + "_seconds";
+            double secondsPerUnit = histogram.unit().toNanos(1) / 1e9;
+            HistogramSnapshot total = histogram.snapshot();
+
+            out.append("# HELP ").append(metric).append(' ').append(histogram.help()).append('\n');
+            out.append("# TYPE ").append(metric).append(" histogram\n");
+            for (double bound : BUCKET_BOUNDS_SECONDS) {
+                long boundInUnit = (long) Math.floor(bound / secondsPerUnit);
+                out.append(metric).append("_bucket{le=\"").append(bound).append("\"} ")
+                    .append(total.countAtOrBelow(boundInUnit)).append('\n');
+            }
+            out.append(metric).append("_bucket{le=\"+Inf\"} ").append(total.count()).append('\n');
+            out.append(metric).append("_sum ").append(total.sum() * secondsPerUnit).append('\n');
+            out.append(metric).append("_count ").append(total.count()).append('\n');
+
+            HistogramSnapshot window = histogram.window();
+            String windowMetric = metric + "_window";
+            out.append("# HELP ").append(windowMetric).append(' ').append(histogram.help())
+                .append(", quantiles over the last ").append(windowSeconds).append(" s window\n");
+            out.append("# TYPE ").append(windowMetric).append(" gauge\n");
+            for (double quantile : WINDOW_QUANTILES) {
+                out.append(windowMetric).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(window.percentile(quantile) * secondsPerUnit).append('\n');
+            }
+            out.append(windowMetric).append("{quantile=\"1.0\"} ").append(window.max() * secondsPerUnit).append('\n');
+        }
+        for (RateCounter counter : counters) {
+            String metric = PROMETHEUS_PREFIX + sanitize(counter.name()) + "_total";
+            out.append("# HELP ").append(metric).append(' ').append(counter.help()).append('\n');
+            out.append("# TYPE ").append(metric).append(" counter\n");
+            out.append(metric).append(' ').append(counter.getTotal()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String sanitize(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+    }
+
+    /** Logs one line per instrument with its figures since start. */
+    public void logSummary() {
+        for (LatencyHistogram histogram : histograms) {
+            HistogramSnapshot total = histogram.snapshot();
+            if (total.count() > 0) {
+                String unit = unitSymbol(histogram.unit());
+                logger.info("  {}: n={} p50={}{} p99={}{} max={}{}", histogram.name(), total.count(),
+                    total.percentile(0.5), unit, total.percentile(0.99), unit, total.max(), unit);
+            }
+        }
+        for (RateCounter counter : counters) {
+            logger.info("  {}: {}", counter.name(), counter.getTotal());
+        }
+    }
+
+    private static String unitSymbol(TimeUnit unit) {
+        return switch (unit) {
+            case NANOSECONDS -> "ns";
+            case MICROSECONDS -> "us";
+            case MILLISECONDS -> "ms";
+            case SECONDS -> "s";
+            default -> " " + unit.name().toLowerCase(Locale.ROOT);
+        };
+    }
+
+    @Override
+    public synchronized void close() {
+        if (rotator != null) {
+            rotator.shutdownNow();
+            rotator = null;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredBeans) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                logger.debug("Cannot unregister {}: {}", name, e.toString());
+            }
+        }
+        registeredBeans.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.vodafone.v2x.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic event counter with a per-window rate, safe to increment from any thread.
+ */
+public final class RateCounter implements RateCounterMXBean {
+    private final String name;
+    private final String help;
+    private final LongAdder total = new LongAdder();
+    private long lastRotationTotal;
+    private long lastRotationNanos = System.nanoTime();
+    private volatile double windowRate;
+
+    public RateCounter(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public void increment() {
+        total.increment();
+    }
+
+    public void add(long amount) {
+        total.add(amount);
+    }
+
+    synchronized void rotate() {
+        long now = System.nanoTime();
+        long current = total.sum();
+        double seconds = (now - lastRotationNanos) / 1e9;
+        windowRate = seconds > 0 ? (current - lastRotationTotal) / seconds : 0.0;
+        lastRotationTotal = current;
+        lastRotationNanos = now;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String help() {
+        return help;
+    }
+
+    @Override
+    public long getTotal() {
+        return total.sum();
+    }
+
+    @Override
+    public double getWindowRatePerSecond() {
+        return windowRate;
+    }
+}
@@ -0,0 +1,12 @@
+package com.vodafone.v2x.example.metrics;
+
+/**
+ * JMX view of a {@link RateCounter}.
+ */
+public interface RateCounterMXBean {
+
+    long getTotal();
+
+    /** Average rate over the last completed metrics window. */
+    double getWindowRatePerSecond();
+}
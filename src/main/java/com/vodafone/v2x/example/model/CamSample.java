@@ -0,0 +1,87 @@
+package com.vodafone.v2x.example.model;
+
+import com.vodafone.v2xsdk4javav2.facade.records.cam.CAMRecord;
+
+/**
+ * Mutable, reusable copy of the {@link CAMRecord} fields the application works with.
+ *
+ * <p>Stages decode each record into one long-lived instance instead of allocating per record; a sample passed
+ * to a listener is only valid for the duration of the callback.
+ */
+public final class CamSample {
+    /** {@link #getGenerationTimeMs()} of samples that did not come from the SDK. */
+    public static final long UNKNOWN_TIME = -1L;
+
+    private long stationId;
+    private double latitude;
+    private double longitude;
+    private double speedKmh;
+    private double headingDeg;
+    private long generationTimeMs;
+
+    public CamSample set(long stationId, double latitude, double longitude, double speedKmh, double headingDeg) {
+        return set(stationId, latitude, longitude, speedKmh, headingDeg, UNKNOWN_TIME);
+    }
+
+    public CamSample set(long stationId, double latitude, double longitude, double speedKmh, double headingDeg,
+                         long generationTimeMs) {
+        this.stationId = stationId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.speedKmh = speedKmh;
+        this.headingDeg = headingDeg;
+        this.generationTimeMs = generationTimeMs;
+        return this;
+    }
+
+    public CamSample copyFrom(CAMRecord cam) {
+        return set(cam.getStationID(), cam.getLatitude(), cam.getLongitude(), cam.getSpeedInKmH(),
+            cam.getHeadingInDegree(), cam.getGenerationUTCTime());
+    }
+
+    public long getStationId() {
+        return stationId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getSpeedKmh() {
+        return speedKmh;
+    }
+
+    public double getHeadingDeg() {
+        return headingDeg;
+    }
+
+    /** UTC time the sender generated the CAM, or {@link #UNKNOWN_TIME}. */
+    public long getGenerationTimeMs() {
+        return generationTimeMs;
+    }
+
+    /**
+     * Hash of every field except the generation time, used to detect whether a station's CAM changed between two
+     * snapshots; a retransmitted but otherwise identical CAM does not count as a change.
+     */
+    public long fingerprint() {
+        long h = stationId;
+        h = h * 31 + Double.doubleToLongBits(latitude);
+        h = h * 31 + Double.doubleToLongBits(longitude);
+        h = h * 31 + Double.doubleToLongBits(speedKmh);
+        h = h * 31 + Double.doubleToLongBits(headingDeg);
+        return Fingerprints.mix(h);
+    }
+
+    @Override
+    public String toString() {
+        return "CamSample{stationId=" + stationId
+            + ", position=(" + latitude + ", " + longitude + ")"
+            + ", speedKmh=" + speedKmh
+            + ", headingDeg=" + headingDeg + "}";
+    }
+}
@@ -0,0 +1,81 @@
+package com.vodafone.v2x.example.model;
+
+import com.vodafone.v2xsdk4javav2.facade.records.denm.DENMRecord;
+
+/**
+ * Mutable, reusable copy of the {@link DENMRecord} fields the application works with.
+ *
+ * <p>A DENM event is identified by its originating station and sequence number; {@link #key()} packs both into
+ * one {@code long} for primitive maps. A sample passed to a listener is only valid for the duration of the
+ * callback.
+ */
+public final class DenmSample {
+    private long originatorId;
+    private long sequenceNumber;
+    private int causeCode;
+    private int subCauseCode;
+
+    public DenmSample set(long originatorId, long sequenceNumber, int causeCode, int subCauseCode) {
+        this.originatorId = originatorId;
+        this.sequenceNumber = sequenceNumber;
+        this.causeCode = causeCode;
+        this.subCauseCode = subCauseCode;
+        return this;
+    }
+
+    public DenmSample copyFrom(DENMRecord denm) {
+        return set(denm.getOriginatorID(), denm.getSequenceNumber(), denm.getCauseCode(), denm.getSubCauseCode());
+    }
+
+    /**
+     * Packs an event identifier into a {@code long}. Station IDs are 32-bit and sequence numbers 16-bit in
+     * ETSI ITS, so the high and low halves never collide.
+     */
+    public static long key(long originatorId, long sequenceNumber) {
+        return (originatorId << 32) | (sequenceNumber & 0xFFFFFFFFL);
+    }
+
+    public static long originatorOf(long key) {
+        return key >>> 32;
+    }
+
+    public static long sequenceNumberOf(long key) {
+        return key & 0xFFFFFFFFL;
+    }
+
+    public long key() {
+        return key(originatorId, sequenceNumber);
+    }
+
+    public long getOriginatorId() {
+        return originatorId;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public int getCauseCode() {
+        return causeCode;
+    }
+
+    public int getSubCauseCode() {
+        return subCauseCode;
+    }
+
+    /** Hash of every field, used to detect whether a DENM changed between two snapshots. */
+    public long fingerprint() {
+        long h = key();
+        h = h * 31 + causeCode;
+        h = h * 31 + subCauseCode;
+        return Fingerprints.mix(h);
+    }
+
+    @Override
+    public String toString() {
+        return "DenmSample{originatorId=" + originatorId
+            + ", sequenceNumber=" + sequenceNumber
+            + ", causeCode=" + causeCode
+            + ", subCauseCode=" + subCauseCode + "}";
+    }
+}
@@ -0,0 +1,13 @@
+package com.vodafone.v2x.example.model;
+
+final class Fingerprints {
+    private Fingerprints() {
+    }
+
+    /** SplitMix64 finalizer: spreads a polynomial hash over all 64 bits. */
+    static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
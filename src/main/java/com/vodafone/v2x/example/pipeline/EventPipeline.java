@@ -0,0 +1,135 @@
+package com.vodafone.v2x.example.pipeline;
+
+import com.vodafone.v2x.example.jfr.HandlerDispatchEvent;
+import com.vodafone.v2x.example.metrics.LatencyHistogram;
+import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
+import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Decouples the SDK event-bus thread from the application handlers.
+ *
+ * <p>The pipeline is subscribed to the SDK in place of the handlers. {@link #onMessageBusEvent} only enqueues
+ * the event into a {@link RingBuffer}; a dedicated consumer thread drains it in batches and dispatches each
+ * event to the registered listeners, so slow handlers (logging, indexing) never stall the SDK.
+ */
+public class EventPipeline implements EventListener, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EventPipeline.class);
+
+    private final String name;
+    private final RingBuffer<BaseEvent> ringBuffer;
+    private final WaitStrategy waitStrategy;
+    private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
+    private final Consumer<BaseEvent> dispatcher = this::dispatch;
+    private volatile LatencyHistogram handlerTimeNs;
+    private Thread consumerThread;
+    private volatile boolean running;
+
+    public EventPipeline(String name, int capacity, int batchSize,
+                         WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        this.name = name;
+        this.waitStrategy = waitStrategy;
+        this.ringBuffer = new RingBuffer<>(capacity, batchSize, overflowPolicy, waitStrategy);
+    }
+
+    /**
+     * Registers a downstream listener. Listeners are invoked on the pipeline's consumer thread.
+     */
+    public EventPipeline addListener(EventListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Records the time the listeners take per event, in nanoseconds, into {@code histogram}.
+     */
+    public EventPipeline recordHandlerTime(LatencyHistogram histogram) {
+        this.handlerTimeNs = histogram;
+        return this;
+    }
+
+    public synchronized void start() {
+        if (!running) {
+            running = true;
+            consumerThread = new Thread(this::consume, name + "-pipeline");
+            consumerThread.setDaemon(true);
+            consumerThread.start();
+            logger.info("{} pipeline started (capacity {})", name, ringBuffer.capacity());
+        }
+    }
+
+    /**
+     * Called on the SDK event-bus thread: enqueue only.
+     */
+    @Override
+    public void onMessageBusEvent(BaseEvent baseEvent) {
+        ringBuffer.offer(baseEvent);
+    }
+
+    private void consume() {
+        int idleCount = 0;
+        while (running) {
+            if (ringBuffer.drain(dispatcher) > 0) {
+                idleCount = 0;
+            } else {
+                waitStrategy.idle(idleCount++);
+            }
+        }
+        // Deliver whatever was accepted before stop() so no queued event is silently lost.
+        while (ringBuffer.drain(dispatcher) > 0) {
+            // keep draining
+        }
+    }
+
+    private void dispatch(BaseEvent event) {
+        LatencyHistogram timer = handlerTimeNs;
+        long start = timer != null ? System.nanoTime() : 0L;
+        for (EventListener listener : listeners) {
+            try {
+                HandlerDispatchEvent dispatch = new HandlerDispatchEvent();
+                dispatch.begin();
+                listener.onMessageBusEvent(event);
+                dispatch.commit(name, listener, event);
+            } catch (Exception e) {
+                logger.error("{} pipeline listener failed on {}", name, event.getEventType(), e);
+            }
+        }
+        if (timer != null) {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+
+    public PipelineStats getStats() {
+        return new PipelineStats(
+            name,
+            ringBuffer.depth(),
+            ringBuffer.capacity(),
+            ringBuffer.publishedCount(),
+            ringBuffer.deliveredCount(),
+            ringBuffer.droppedCount(),
+            ringBuffer.coalescedCount());
+    }
+
+    /**
+     * Stops the consumer thread after draining queued events.
+     */
+    @Override
+    public synchronized void close() {
+        if (running) {
+            running = false;
+            ringBuffer.close();
+            try {
+                consumerThread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while stopping {} pipeline", name);
+            }
+            logger.info("{} pipeline stopped: {}", name, getStats());
+        }
+    }
+}
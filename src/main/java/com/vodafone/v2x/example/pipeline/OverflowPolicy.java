@@ -0,0 +1,17 @@
+package com.vodafone.v2x.example.pipeline;
+
+/**
+ * What the producer does when the ring buffer is full.
+ */
+public enum OverflowPolicy {
+    /** Discard the oldest queued event to make room for the new one. Never blocks the producer. */
+    DROP_OLDEST,
+    /**
+     * Park the new event in a single overflow slot, replacing any event already parked there. Suited to
+     * {@code *_LIST_CHANGED} events, where each event is a full snapshot that supersedes the previous one.
+     * Never blocks the producer.
+     */
+    COALESCE,
+    /** Wait for the consumer to free a slot. Lossless, but stalls the SDK thread under sustained overload. */
+    BLOCK
+}
@@ -0,0 +1,23 @@
+package com.vodafone.v2x.example.pipeline;
+
+/**
+ * Point-in-time counters of an {@link EventPipeline}.
+ *
+ * @param depth     events currently queued
+ * @param published events offered by the SDK thread
+ * @param delivered events handed to the listeners
+ * @param dropped   events discarded by {@link OverflowPolicy#DROP_OLDEST} (or a closed {@link OverflowPolicy#BLOCK})
+ * @param coalesced events superseded by a newer snapshot under {@link OverflowPolicy#COALESCE}
+ */
+public record PipelineStats(String name, int depth, int capacity, long published, long delivered,
+                            long dropped, long coalesced) {
+
+    @Override
+    public String toString() {
+        return "depth=" + depth + "/" + capacity
+            + ", published=" + published
+            + ", delivered=" + delivered
+            + ", dropped=" + dropped
+            + ", coalesced=" + coalesced;
+    }
+}
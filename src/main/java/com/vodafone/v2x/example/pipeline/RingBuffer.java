@@ -0,0 +1,194 @@
+package com.vodafone.v2x.example.pipeline;
+
+import java.io.Serial;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, preallocated single-producer / single-consumer ring buffer with batched draining.
+ *
+ * <p>The producer only writes a slot and publishes the head sequence. The consumer claims up to
+ * {@code batchSize} slots at a time by reading them and then moving the tail with a CAS; under
+ * {@link OverflowPolicy#DROP_OLDEST} the producer advances the same tail to discard the oldest entry, in which
+ * case the consumer's CAS fails and it simply re-reads from the new tail.
+ *
+ * <p>Slots are overwritten on wrap rather than cleared, so up to {@code capacity} already delivered items stay
+ * reachable until they are replaced.
+ *
+ * @param <T> element type
+ */
+public final class RingBuffer<T> {
+    private final Object[] slots;
+    private final int mask;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final WaitStrategy waitStrategy;
+
+    private final Sequence head = new Sequence();
+    private final Sequence tail = new Sequence();
+    private final AtomicReference<T> overflow = new AtomicReference<>();
+    private final Object[] batch;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param capacity       number of slots, rounded up to the next power of two
+     * @param batchSize      maximum number of items handed to the consumer per {@link #drain} call
+     * @param overflowPolicy behaviour when the buffer is full
+     * @param waitStrategy   how the producer waits under {@link OverflowPolicy#BLOCK}
+     */
+    public RingBuffer(int capacity, int batchSize, OverflowPolicy overflowPolicy, WaitStrategy waitStrategy) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30: " + capacity);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+        this.batchSize = Math.min(batchSize, size);
+        this.batch = new Object[this.batchSize];
+        this.overflowPolicy = overflowPolicy;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Publishes an item. Must only be called from the single producer thread.
+     *
+     * @return {@code false} if the item was discarded because the buffer was closed while blocking
+     */
+    public boolean offer(T item) {
+        published.lazySet(published.get() + 1);
+        long h = head.getPlain();
+        if (overflowPolicy == OverflowPolicy.COALESCE && overflow.get() != null) {
+            // Something newer than the ring contents is already parked; keep parking to preserve order.
+            park(item);
+            return true;
+        }
+
+        int idleCount = 0;
+        long t;
+        while (h - (t = tail.getAcquire()) > mask) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST:
+                    if (tail.compareAndSet(t, t + 1)) {
+                        dropped.incrementAndGet();
+                    }
+                    break;
+                case COALESCE:
+                    park(item);
+                    return true;
+                case BLOCK:
+                    if (closed) {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                    waitStrategy.idle(idleCount++);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy);
+            }
+        }
+
+        slots[(int) h & mask] = item;
+        head.setRelease(h + 1);
+        return true;
+    }
+
+    private void park(T item) {
+        if (overflow.getAndSet(item) != null) {
+            coalesced.incrementAndGet();
+        }
+    }
+
+    /**
+     * Hands up to {@code batchSize} queued items to {@code handler}, oldest first. Must only be called from the
+     * single consumer thread.
+     *
+     * @return number of items delivered
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super T> handler) {
+        long t;
+        long h;
+        int n;
+        do {
+            t = tail.getAcquire();
+            h = head.getAcquire();
+            n = (int) Math.min(h - t, batchSize);
+            for (int i = 0; i < n; i++) {
+                batch[i] = slots[(int) (t + i) & mask];
+            }
+        } while (n > 0 && !tail.compareAndSet(t, t + n));
+
+        if (n == 0) {
+            T parked = overflow.get();
+            // Only take the parked item once everything published before it has been consumed.
+            if (parked == null || head.getAcquire() != h || !overflow.compareAndSet(parked, null)) {
+                return 0;
+            }
+            batch[0] = parked;
+            n = 1;
+        }
+
+        try {
+            for (int i = 0; i < n; i++) {
+                handler.accept((T) batch[i]);
+            }
+        } finally {
+            for (int i = 0; i < n; i++) {
+                batch[i] = null;
+            }
+            delivered.lazySet(delivered.get() + n);
+        }
+        return n;
+    }
+
+    /**
+     * Releases a producer blocked under {@link OverflowPolicy#BLOCK}; subsequent blocking offers are dropped.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /** Number of items waiting, including a parked coalesced item. */
+    public int depth() {
+        long depth = head.getAcquire() - tail.getAcquire();
+        return (int) Math.max(0, depth) + (overflow.get() != null ? 1 : 0);
+    }
+
+    public long publishedCount() {
+        return published.get();
+    }
+
+    public long deliveredCount() {
+        return delivered.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long coalescedCount() {
+        return coalesced.get();
+    }
+
+    /** Sequence counter padded against false sharing between the producer and consumer cache lines. */
+    @SuppressWarnings("unused")
+    private static final class Sequence extends AtomicLong {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
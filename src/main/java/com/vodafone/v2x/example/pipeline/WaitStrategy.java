@@ -0,0 +1,52 @@
+package com.vodafone.v2x.example.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a pipeline thread waits when there is nothing to do (consumer) or no room to publish (producer
+ * under {@link OverflowPolicy#BLOCK}).
+ */
+public enum WaitStrategy {
+    /** Lowest latency, burns a full core while idle. */
+    BUSY_SPIN {
+        @Override
+        void idle(int idleCount) {
+            Thread.onSpinWait();
+        }
+    },
+    /** Spins briefly, then yields the core to other runnable threads. */
+    YIELD {
+        @Override
+        void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    /** Spins, yields, then parks for short intervals. Near-zero CPU when the road is quiet. */
+    PARK {
+        @Override
+        void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    /**
+     * Waits once.
+     *
+     * @param idleCount number of consecutive idle rounds so far, reset by the caller after useful work
+     */
+    abstract void idle(int idleCount);
+}
@@ -0,0 +1,72 @@
+package com.vodafone.v2x.example.recording;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of recorded traffic segments. All values are little-endian.
+ *
+ * <pre>
+ * segment header (32 bytes)
+ *   0  long   magic "V2XTRAF1"
+ *   8  int    format version
+ *   12 int    header size
+ *   16 long   segment creation time, epoch ms
+ *   24 long   run ID: start time of the recorder, epoch ms
+ * frame (32-byte header + count fixed-size records), one per CAM_LIST_CHANGED / DENM_LIST_CHANGED event
+ *   0  int    frame length in bytes, 0 marks the end of the segment
+ *   4  byte   frame type
+ *   5  3      padding
+ *   8  long   receive time, epoch ms
+ *   16 long   receive time, System.nanoTime() of the recording JVM, for replay timing within one run
+ *   24 int    record count
+ *   28 int    reserved
+ * CAM record (48 bytes)
+ *   long station ID, double latitude, double longitude, double speed km/h, double heading, long generation time
+ * DENM record (24 bytes)
+ *   long originator ID, long sequence number, int cause code, int sub cause code
+ * </pre>
+ *
+ * Segments are zero-filled when mapped, so a segment cut short by a crash still ends at a zero frame length. A
+ * recorder appends to the segments already in its directory, so one directory can hold several runs, each with
+ * its own {@code nanoTime} origin.
+ */
+final class TrafficFormat {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final long MAGIC = 0x3146_4152_5458_3256L; // "V2XTRAF1" read as a little-endian long
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 32;
+    static final int FRAME_HEADER_SIZE = 32;
+    static final int CAM_RECORD_SIZE = 48;
+    static final int DENM_RECORD_SIZE = 24;
+
+    static final byte FRAME_CAM_LIST = 1;
+    static final byte FRAME_DENM_LIST = 2;
+
+    static final String SEGMENT_PREFIX = "traffic-";
+    static final String SEGMENT_SUFFIX = ".v2xrec";
+
+    private TrafficFormat() {
+    }
+
+    static int frameLength(byte type, int recordCount) {
+        return FRAME_HEADER_SIZE + recordCount * (type == FRAME_CAM_LIST ? CAM_RECORD_SIZE : DENM_RECORD_SIZE);
+    }
+
+    /** Segment file name for a sequence number; names sort in recording order. */
+    static String segmentName(long sequence) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    /** Sequence number of a segment file name, or -1 if it is not one. */
+    static long segmentSequence(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(),
+                fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
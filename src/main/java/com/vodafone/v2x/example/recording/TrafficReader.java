@@ -0,0 +1,171 @@
+package com.vodafone.v2x.example.recording;
+
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.model.DenmSample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Iterates the frames of recorded traffic segments in recording order, decoding records in place from the
+ * mapped file. Not thread-safe.
+ */
+final class TrafficReader implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficReader.class);
+
+    private final List<Path> segments;
+    private int nextSegment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int frameStart = -1;
+    private int frameLength;
+    private byte frameType;
+    private int recordCount;
+
+    /**
+     * @param source a segment file, or a directory whose segments are read in sequence order
+     */
+    TrafficReader(Path source) throws IOException {
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> files = Files.list(source)) {
+                segments = files.filter(file -> TrafficFormat.segmentSequence(file.getFileName().toString()) >= 0)
+                    .sorted()
+                    .toList();
+            }
+        } else {
+            segments = List.of(source);
+        }
+        if (segments.isEmpty()) {
+            throw new IOException("No traffic segments in " + source);
+        }
+    }
+
+    /**
+     * Advances to the next frame, opening the next segment when the current one ends.
+     *
+     * @return {@code false} after the last frame of the last segment
+     */
+    boolean next() throws IOException {
+        while (true) {
+            if (buffer != null) {
+                int position = frameStart < 0 ? TrafficFormat.SEGMENT_HEADER_SIZE : frameStart + frameLength;
+                if (position + TrafficFormat.FRAME_HEADER_SIZE <= buffer.limit()) {
+                    int length = buffer.getInt(position);
+                    if (length != 0) {
+                        byte type = buffer.get(position + 4);
+                        int count = buffer.getInt(position + 24);
+                        if ((type == TrafficFormat.FRAME_CAM_LIST || type == TrafficFormat.FRAME_DENM_LIST)
+                            && count >= 0 && length == TrafficFormat.frameLength(type, count)
+                            && position + length <= buffer.limit()) {
+                            frameStart = position;
+                            frameLength = length;
+                            frameType = type;
+                            recordCount = count;
+                            return true;
+                        }
+                        logger.warn("Corrupt frame at offset {} of {}; skipping the rest of the segment",
+                            position, segments.get(nextSegment - 1));
+                    }
+                }
+            }
+            if (!openNextSegment()) {
+                return false;
+            }
+        }
+    }
+
+    private boolean openNextSegment() throws IOException {
+        closeSegment();
+        if (nextSegment == segments.size()) {
+            return false;
+        }
+        Path path = segments.get(nextSegment++);
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Segment too large: " + path);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        buffer.order(TrafficFormat.ORDER);
+        if (size < TrafficFormat.SEGMENT_HEADER_SIZE || buffer.getLong(0) != TrafficFormat.MAGIC) {
+            throw new IOException("Not a traffic segment: " + path);
+        }
+        if (buffer.getInt(8) != TrafficFormat.VERSION) {
+            throw new IOException("Unsupported traffic segment version " + buffer.getInt(8) + ": " + path);
+        }
+        frameStart = -1;
+        frameLength = 0;
+        return true;
+    }
+
+    private void closeSegment() throws IOException {
+        buffer = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    boolean isCamList() {
+        return frameType == TrafficFormat.FRAME_CAM_LIST;
+    }
+
+    boolean isDenmList() {
+        return frameType == TrafficFormat.FRAME_DENM_LIST;
+    }
+
+    int recordCount() {
+        return recordCount;
+    }
+
+    /** Run ID from the current segment's header. */
+    long runId() {
+        return buffer.getLong(24);
+    }
+
+    long receivedAtMs() {
+        return buffer.getLong(frameStart + 8);
+    }
+
+    /**
+     * {@code System.nanoTime()} of the recording JVM; only differences between frames of the same {@link #runId}
+     * are meaningful.
+     */
+    long receivedAtNanos() {
+        return buffer.getLong(frameStart + 16);
+    }
+
+    CamSample readCam(int index, CamSample into) {
+        int offset = frameStart + TrafficFormat.FRAME_HEADER_SIZE + index * TrafficFormat.CAM_RECORD_SIZE;
+        return into.set(
+            buffer.getLong(offset),
+            buffer.getDouble(offset + 8),
+            buffer.getDouble(offset + 16),
+            buffer.getDouble(offset + 24),
+            buffer.getDouble(offset + 32),
+            buffer.getLong(offset + 40));
+    }
+
+    DenmSample readDenm(int index, DenmSample into) {
+        int offset = frameStart + TrafficFormat.FRAME_HEADER_SIZE + index * TrafficFormat.DENM_RECORD_SIZE;
+        return into.set(
+            buffer.getLong(offset),
+            buffer.getLong(offset + 8),
+            buffer.getInt(offset + 16),
+            buffer.getInt(offset + 20));
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+}
@@ -0,0 +1,252 @@
+package com.vodafone.v2x.example.recording;
+
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.model.DenmSample;
+import com.vodafone.v2xsdk4javav2.facade.events.BaseEvent;
+import com.vodafone.v2xsdk4javav2.facade.events.EventCamListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventDenmListChanged;
+import com.vodafone.v2xsdk4javav2.facade.events.EventListener;
+import com.vodafone.v2xsdk4javav2.facade.events.EventType;
+import com.vodafone.v2xsdk4javav2.facade.records.cam.CAMRecord;
+import com.vodafone.v2xsdk4javav2.facade.records.denm.DENMRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Records received CAM and DENM lists into rolling memory-mapped segment files, in the layout described in
+ * {@link TrafficFormat}, for {@link TrafficReplayer}.
+ *
+ * <p>Register it on the CAM and DENM pipelines next to the handlers, so it records exactly the snapshots the
+ * handlers see. Each event becomes one frame encoded straight into the mapped segment, with no intermediate
+ * buffer and no system call per event. When a frame does not fit, the segment is cut to its used length and a
+ * new one is mapped; with {@code maxSegments} set, the oldest segments in the directory are deleted. The CAM and
+ * DENM pipeline threads share one recorder, so frames keep their arrival order. Only the swap to a new segment
+ * happens under the recorder's lock; the thread that rolled flushes and closes the old one after releasing it, so
+ * the other pipeline does not wait for the disk.
+ */
+public class TrafficRecorder implements EventListener, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficRecorder.class);
+
+    /** A segment replaced by a new one, still to be flushed and cut to {@code used} bytes. */
+    private record RetiredSegment(FileChannel channel, MappedByteBuffer buffer, long used) {
+    }
+
+    private final Path directory;
+    private final long segmentSize;
+    private final int maxSegments;
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private final CamSample cam = new CamSample();
+    private final DenmSample denm = new DenmSample();
+    private final long runId = System.currentTimeMillis();
+
+    private long nextSequence;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private RetiredSegment retired;
+    private boolean failed;
+    private long framesWritten;
+    private long recordsWritten;
+    private long bytesWritten;
+
+    /**
+     * @param segmentSize bytes per segment file; a larger frame gets a segment of its own size
+     * @param maxSegments segments to keep in {@code directory}, oldest deleted first; 0 keeps all
+     */
+    public TrafficRecorder(Path directory, long segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < TrafficFormat.SEGMENT_HEADER_SIZE + TrafficFormat.FRAME_HEADER_SIZE
+            || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        // Continue after the segments already in the directory instead of overwriting them
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> TrafficFormat.segmentSequence(file.getFileName().toString()) >= 0)
+                .sorted()
+                .forEach(segments::addLast);
+        }
+        if (!segments.isEmpty()) {
+            nextSequence = TrafficFormat.segmentSequence(segments.getLast().getFileName().toString()) + 1;
+        }
+    }
+
+    @Override
+    public void onMessageBusEvent(BaseEvent baseEvent) {
+        RetiredSegment rolledOver;
+        synchronized (this) {
+            if (failed) {
+                return;
+            }
+            try {
+                if (baseEvent.getEventType() == EventType.CAM_LIST_CHANGED) {
+                    writeCamList(((EventCamListChanged) baseEvent).getList());
+                } else if (baseEvent.getEventType() == EventType.DENM_LIST_CHANGED) {
+                    writeDenmList(((EventDenmListChanged) baseEvent).getList());
+                }
+            } catch (IOException e) {
+                // Never let a full disk take the handlers down; stop recording instead
+                failed = true;
+                logger.error("Traffic recording to {} stopped", directory, e);
+            }
+            rolledOver = retired;
+            retired = null;
+        }
+        if (rolledOver != null) {
+            finish(rolledOver);
+        }
+    }
+
+    private void writeCamList(List<CAMRecord> list) throws IOException {
+        int count = list.size();
+        int start = beginFrame(TrafficFormat.FRAME_CAM_LIST, count);
+        int written = 0;
+        for (CAMRecord record : list) {
+            if (written == count) {
+                break;
+            }
+            cam.copyFrom(record);
+            buffer.putLong(cam.getStationId());
+            buffer.putDouble(cam.getLatitude());
+            buffer.putDouble(cam.getLongitude());
+            buffer.putDouble(cam.getSpeedKmh());
+            buffer.putDouble(cam.getHeadingDeg());
+            buffer.putLong(cam.getGenerationTimeMs());
+            written++;
+        }
+        endFrame(start, TrafficFormat.FRAME_CAM_LIST, written);
+    }
+
+    private void writeDenmList(List<DENMRecord> list) throws IOException {
+        int count = list.size();
+        int start = beginFrame(TrafficFormat.FRAME_DENM_LIST, count);
+        int written = 0;
+        for (DENMRecord record : list) {
+            if (written == count) {
+                break;
+            }
+            denm.copyFrom(record);
+            buffer.putLong(denm.getOriginatorId());
+            buffer.putLong(denm.getSequenceNumber());
+            buffer.putInt(denm.getCauseCode());
+            buffer.putInt(denm.getSubCauseCode());
+            written++;
+        }
+        endFrame(start, TrafficFormat.FRAME_DENM_LIST, written);
+    }
+
+    /** Reserves room for a frame of {@code count} records and writes its header; returns the frame offset. */
+    private int beginFrame(byte type, int count) throws IOException {
+        int length = TrafficFormat.frameLength(type, count);
+        // Keep 4 zero bytes after every frame as the end marker
+        if (buffer == null || buffer.remaining() < length + Integer.BYTES) {
+            roll(length + Integer.BYTES);
+        }
+        int start = buffer.position();
+        buffer.putInt(0); // length is patched in last, so a torn frame reads as end of segment
+        buffer.put(type);
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putLong(System.nanoTime());
+        buffer.putInt(count);
+        buffer.putInt(0);
+        return start;
+    }
+
+    private void endFrame(int start, byte type, int written) {
+        int length = TrafficFormat.frameLength(type, written);
+        // The list may have shrunk while it was iterated; the frame holds what was written
+        buffer.putInt(start + 24, written);
+        buffer.putInt(start, length);
+        buffer.position(start + length);
+        framesWritten++;
+        recordsWritten += written;
+        bytesWritten += length;
+    }
+
+    private void roll(int frameLength) throws IOException {
+        retired = retireSegment();
+        long size = Math.max(segmentSize, (long) TrafficFormat.SEGMENT_HEADER_SIZE + frameLength);
+        Path path = directory.resolve(TrafficFormat.segmentName(nextSequence++));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(TrafficFormat.ORDER);
+        buffer.putLong(TrafficFormat.MAGIC);
+        buffer.putInt(TrafficFormat.VERSION);
+        buffer.putInt(TrafficFormat.SEGMENT_HEADER_SIZE);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putLong(runId);
+        segments.addLast(path);
+        logger.info("Recording traffic to {}", path);
+
+        while (maxSegments > 0 && segments.size() > maxSegments) {
+            Path oldest = segments.removeFirst();
+            Files.deleteIfExists(oldest);
+            logger.debug("Deleted traffic segment {}", oldest);
+        }
+    }
+
+    /** Detaches the current segment, if any, for {@link #finish}. */
+    private RetiredSegment retireSegment() {
+        if (channel == null) {
+            return null;
+        }
+        RetiredSegment segment = new RetiredSegment(channel, buffer, buffer.position());
+        channel = null;
+        buffer = null;
+        return segment;
+    }
+
+    /** Flushes a retired segment and cuts the file to the bytes used, keeping one zero end marker. */
+    private static void finish(RetiredSegment segment) {
+        try {
+            segment.buffer().force();
+            // Linux allows truncating a mapped file; elsewhere the zero tail stays, which readers skip anyway
+            try {
+                segment.channel().truncate(segment.used() + Integer.BYTES);
+            } catch (IOException e) {
+                logger.debug("Cannot truncate traffic segment: {}", e.toString());
+            }
+            segment.channel().close();
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Error closing traffic segment: {}", e.toString());
+        }
+    }
+
+    public synchronized long getFramesWritten() {
+        return framesWritten;
+    }
+
+    public synchronized long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public synchronized void close() {
+        RetiredSegment last = retireSegment();
+        if (last != null) {
+            finish(last);
+        }
+        failed = true;
+        logger.info("Traffic recording stopped: {} frames, {} records, {} bytes in {}", framesWritten,
+            recordsWritten, bytesWritten, directory);
+    }
+}
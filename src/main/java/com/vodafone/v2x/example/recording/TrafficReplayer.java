@@ -0,0 +1,175 @@
+package com.vodafone.v2x.example.recording;
+
+import com.vodafone.v2x.example.config.AppConfig;
+import com.vodafone.v2x.example.denm.DenmLifecycleCache;
+import com.vodafone.v2x.example.handlers.CAMHandler;
+import com.vodafone.v2x.example.handlers.DENMHandler;
+import com.vodafone.v2x.example.handlers.RecordLogSampler;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.model.DenmSample;
+import com.vodafone.v2x.example.station.StationTable;
+import com.vodafone.v2x.example.util.Logging;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds traffic recorded by {@link TrafficRecorder} back into {@link CAMHandler} and {@link DENMHandler}, either
+ * with the recorded timing scaled by {@code speedFactor} or as fast as possible, for offline regression and
+ * throughput tests on captured traffic.
+ *
+ * <p>Frames go through {@link CAMHandler#onCamList} and {@link DENMHandler#onDenmList}, the same entry points the
+ * SDK events use after decoding, on the calling thread. Records are decoded from the mapped segment into reused
+ * samples. Pacing follows the recorded {@code nanoTime} within one recording run; where a directory moves on to
+ * the segments of a later run, the first frame of that run is replayed right away and pacing continues from it.
+ *
+ * <p>Run standalone: {@code TrafficReplayer <segment-or-directory> [speed|max]}.
+ */
+public class TrafficReplayer {
+    private static final Logger logger = LoggerFactory.getLogger(TrafficReplayer.class);
+    /** Pass as {@code speedFactor} to replay without pauses. */
+    public static final double MAX_SPEED = 0.0;
+
+    /** Outcome of one replay. */
+    public record Result(long frames, long camRecords, long denmRecords, long elapsedNanos) {
+
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (camRecords + denmRecords) * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d frames, %d CAM and %d DENM records in %d ms (%.0f records/s)",
+                frames, camRecords, denmRecords, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), recordsPerSecond());
+        }
+    }
+
+    private final Path source;
+    private final double speedFactor;
+    private CamSample[] cams = new CamSample[0];
+    private DenmSample[] denms = new DenmSample[0];
+
+    /**
+     * @param source      a segment file or a recording directory
+     * @param speedFactor 1.0 for the recorded timing, 2.0 for twice as fast, {@link #MAX_SPEED} for no pauses
+     */
+    public TrafficReplayer(Path source, double speedFactor) {
+        if (speedFactor < 0 || Double.isNaN(speedFactor)) {
+            throw new IllegalArgumentException("speedFactor must not be negative: " + speedFactor);
+        }
+        this.source = source;
+        this.speedFactor = speedFactor;
+    }
+
+    /**
+     * Replays every frame; either handler may be {@code null} to skip that message type.
+     */
+    public Result replay(CAMHandler camHandler, DENMHandler denmHandler) throws IOException, InterruptedException {
+        long frames = 0;
+        long camRecords = 0;
+        long denmRecords = 0;
+        long startNanos = System.nanoTime();
+        long anchorNanos = startNanos;
+        long anchorRecordedNanos = 0;
+        long run = 0;
+
+        try (TrafficReader reader = new TrafficReader(source)) {
+            while (reader.next()) {
+                if (speedFactor != MAX_SPEED) {
+                    // nanoTime origins differ between runs, so pacing restarts at the first frame of each
+                    if (frames == 0 || reader.runId() != run) {
+                        run = reader.runId();
+                        anchorNanos = System.nanoTime();
+                        anchorRecordedNanos = reader.receivedAtNanos();
+                    }
+                    sleepUntil(anchorNanos + (long) ((reader.receivedAtNanos() - anchorRecordedNanos) / speedFactor));
+                }
+                int count = reader.recordCount();
+                if (reader.isCamList() && camHandler != null) {
+                    ensureCamCapacity(count);
+                    for (int i = 0; i < count; i++) {
+                        reader.readCam(i, cams[i]);
+                    }
+                    camHandler.onCamList(cams, count);
+                    camRecords += count;
+                } else if (reader.isDenmList() && denmHandler != null) {
+                    ensureDenmCapacity(count);
+                    for (int i = 0; i < count; i++) {
+                        reader.readDenm(i, denms[i]);
+                    }
+                    denmHandler.onDenmList(denms, count);
+                    denmRecords += count;
+                }
+                frames++;
+            }
+        }
+        return new Result(frames, camRecords, denmRecords, System.nanoTime() - startNanos);
+    }
+
+    private void ensureCamCapacity(int count) {
+        if (cams.length < count) {
+            int previous = cams.length;
+            cams = Arrays.copyOf(cams, Math.max(count, previous * 2));
+            for (int i = previous; i < cams.length; i++) {
+                cams[i] = new CamSample();
+            }
+        }
+    }
+
+    private void ensureDenmCapacity(int count) {
+        if (denms.length < count) {
+            int previous = denms.length;
+            denms = Arrays.copyOf(denms, Math.max(count, previous * 2));
+            for (int i = previous; i < denms.length; i++) {
+                denms[i] = new DenmSample();
+            }
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long wait;
+        while ((wait = deadlineNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: TrafficReplayer <segment-or-directory> [speed|max]");
+            System.exit(2);
+        }
+        try {
+            double speedFactor = 1.0;
+            if (args.length == 2) {
+                speedFactor = args[1].equalsIgnoreCase("max") ? MAX_SPEED : Double.parseDouble(args[1]);
+            }
+            AppConfig config = new AppConfig();
+            long summaryIntervalMs = TimeUnit.SECONDS.toMillis(config.getLogSummaryIntervalSeconds());
+            CAMHandler camHandler = new CAMHandler(
+                new StationTable(config.getStationTableCapacity(), config.getStationTtlMs()),
+                new RecordLogSampler(config.getLogRecordsMode(), config.getLogStationIntervalMs(),
+                    config.getStationTableCapacity()),
+                summaryIntervalMs);
+            DENMHandler denmHandler = new DENMHandler(
+                new DenmLifecycleCache(config.getDenmCacheCapacity(), config.getDenmValidityMs(),
+                    config.getDenmTerminatedRetentionMs()),
+                new RecordLogSampler(config.getLogRecordsMode(), config.getLogStationIntervalMs(),
+                    config.getDenmCacheCapacity()),
+                summaryIntervalMs);
+
+            logger.info("Replaying {} at {}", args[0], speedFactor == MAX_SPEED ? "maximum speed" : speedFactor + "x");
+            Result result = new TrafficReplayer(Path.of(args[0]), speedFactor).replay(camHandler, denmHandler);
+            logger.info("Replay completed: {}", result);
+            Logging.stop();
+        } catch (Exception e) {
+            logger.error("Replay error", e);
+            Logging.stop();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.vodafone.v2x.example.spatial;
+
+import com.vodafone.v2x.example.location.LocationFixListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Queries the {@link SpatialGrid} for neighbours on every fresh location fix.
+ *
+ * <p>Runs on the location provider thread with preallocated result arrays, so each fix costs two grid
+ * queries and no allocation.
+ */
+public class ProximityMonitor implements LocationFixListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProximityMonitor.class);
+    private static final int MAX_RADIUS_RESULTS = 1024;
+
+    private final SpatialGrid grid;
+    private final double radiusM;
+    private final int nearestCount;
+    private final LongSupplier ownStationId;
+
+    private final long[] radiusIds = new long[MAX_RADIUS_RESULTS];
+    private final double[] radiusDistances = new double[MAX_RADIUS_RESULTS];
+    private final long[] nearestIds;
+    private final double[] nearestDistances;
+    private volatile int lastWithinRadius;
+    private volatile int lastNearestFound;
+
+    /**
+     * @param radiusM      radius of the "who is around me" query
+     * @param nearestCount k of the k-nearest query
+     * @param ownStationId supplies our station ID (or -1 while unknown) so we are not our own neighbour
+     */
+    public ProximityMonitor(SpatialGrid grid, double radiusM, int nearestCount, LongSupplier ownStationId) {
+        this.grid = grid;
+        this.radiusM = radiusM;
+        this.nearestCount = nearestCount;
+        this.ownStationId = ownStationId;
+        this.nearestIds = new long[nearestCount];
+        this.nearestDistances = new double[nearestCount];
+    }
+
+    @Override
+    public void onFix(double latitude, double longitude, long timestampMs) {
+        long self = ownStationId.getAsLong();
+        int within = grid.withinRadius(latitude, longitude, radiusM, self, radiusIds, radiusDistances);
+        int found = grid.nearest(latitude, longitude, nearestCount, self, nearestIds, nearestDistances);
+        lastWithinRadius = within;
+        lastNearestFound = found;
+
+        if (logger.isDebugEnabled()) {
+            if (found > 0) {
+                logger.debug("Proximity: {} stations within {} m, nearest StationID {} at {} m",
+                    within, radiusM, nearestIds[0], Math.round(nearestDistances[0]));
+            } else {
+                logger.debug("Proximity: no stations known");
+            }
+        }
+    }
+
+    /** Number of stations within the radius at the last fix. */
+    public int getLastWithinRadius() {
+        return lastWithinRadius;
+    }
+
+    /** Number of nearest neighbours found at the last fix (at most k). */
+    public int getLastNearestFound() {
+        return lastNearestFound;
+    }
+}
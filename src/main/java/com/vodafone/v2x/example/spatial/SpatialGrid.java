@@ -0,0 +1,432 @@
+package com.vodafone.v2x.example.spatial;
+
+import com.vodafone.v2x.example.delta.CamDeltaListener;
+import com.vodafone.v2x.example.model.CamSample;
+import com.vodafone.v2x.example.util.LongIntHashMap;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Uniform grid over station positions for radius and k-nearest-neighbour queries.
+ *
+ * <p>Positions are projected onto a local equirectangular plane around a reference latitude (accurate to well
+ * under 1% within a few tens of kilometres) and bucketed into square cells of {@code cellSizeM}. Each cell is an
+ * intrusive doubly linked list threaded through {@code int[]} slot arrays; a {@link LongIntHashMap} maps the
+ * packed cell coordinates to the list head and another maps station ID to slot. Moving a station within its
+ * cell rewrites two doubles; crossing a cell boundary relinks one node. Queries only visit the cells that can
+ * contain an answer and write into caller-supplied arrays, so neither path allocates. Station counts per cell
+ * column and row keep the bounding box of occupied cells tight as stations leave its edges.
+ *
+ * <p>Fed as a {@link CamDeltaListener} from the CAM pipeline thread; queries may run on any thread and share a
+ * read lock.
+ */
+public class SpatialGrid implements CamDeltaListener {
+    /** Pass as {@code excludeStationId} to include every station. */
+    public static final long NO_EXCLUSION = -1L;
+
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+    private static final double METERS_PER_DEGREE_LAT = EARTH_RADIUS_M * Math.PI / 180.0;
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final double cellSizeM;
+    private final double metersPerDegreeLon;
+    private final StampedLock lock = new StampedLock();
+
+    private final LongIntHashMap stationIndex;
+    private final LongIntHashMap cellHeads;
+    private final LongIntHashMap columnCounts;
+    private final LongIntHashMap rowCounts;
+    private final long[] stationIds;
+    private final double[] xs;
+    private final double[] ys;
+    private final long[] cellOf;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] freeSlots;
+    private int freeCount;
+    private int size;
+
+    // Bounding box of the occupied cells; bounds k-nearest ring expansion
+    private long minCellX = Long.MAX_VALUE;
+    private long maxCellX = Long.MIN_VALUE;
+    private long minCellY = Long.MAX_VALUE;
+    private long maxCellY = Long.MIN_VALUE;
+
+    /**
+     * @param capacity          maximum number of stations indexed at once
+     * @param cellSizeM         cell edge length in metres; roughly the typical query radius works well
+     * @param referenceLatitude latitude the projection is centred on, e.g. the vehicle's start position
+     */
+    public SpatialGrid(int capacity, double cellSizeM, double referenceLatitude) {
+        if (capacity <= 0 || cellSizeM <= 0) {
+            throw new IllegalArgumentException("capacity and cellSizeM must be positive");
+        }
+        this.capacity = capacity;
+        this.cellSizeM = cellSizeM;
+        this.metersPerDegreeLon = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(referenceLatitude));
+        this.stationIndex = new LongIntHashMap(capacity);
+        this.cellHeads = new LongIntHashMap(Math.min(capacity, 1 << 16));
+        this.columnCounts = new LongIntHashMap(Math.min(capacity, 1 << 10));
+        this.rowCounts = new LongIntHashMap(Math.min(capacity, 1 << 10));
+        this.stationIds = new long[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.cellOf = new long[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.freeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+    }
+
+    @Override
+    public void onCamAdded(CamSample cam) {
+        update(cam.getStationId(), cam.getLatitude(), cam.getLongitude());
+    }
+
+    @Override
+    public void onCamUpdated(CamSample cam) {
+        update(cam.getStationId(), cam.getLatitude(), cam.getLongitude());
+    }
+
+    @Override
+    public void onCamRemoved(long stationId) {
+        remove(stationId);
+    }
+
+    /**
+     * Inserts a station or moves it to a new position.
+     *
+     * @return {@code false} if the station is new and the grid is full
+     */
+    public boolean update(long stationId, double latitude, double longitude) {
+        double x = longitude * metersPerDegreeLon;
+        double y = latitude * METERS_PER_DEGREE_LAT;
+        long cell = cellKey(cellCoord(x), cellCoord(y));
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = stationIndex.get(stationId);
+            if (slot == LongIntHashMap.MISSING) {
+                if (freeCount == 0) {
+                    return false;
+                }
+                slot = freeSlots[--freeCount];
+                stationIds[slot] = stationId;
+                stationIndex.put(stationId, slot);
+                link(slot, cell);
+                size++;
+            } else if (cellOf[slot] != cell) {
+                unlink(slot);
+                link(slot, cell);
+            }
+            xs[slot] = x;
+            ys[slot] = y;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long stationId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = stationIndex.remove(stationId);
+            if (slot == LongIntHashMap.MISSING) {
+                return false;
+            }
+            unlink(slot);
+            freeSlots[freeCount++] = slot;
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Finds the stations within {@code radiusM} of a position, in no particular order.
+     *
+     * @param excludeStationId station to leave out (typically our own), or {@link #NO_EXCLUSION}
+     * @param idsOut           receives station IDs; at most {@code idsOut.length} results are returned
+     * @param distancesOut     receives distances in metres, parallel to {@code idsOut}
+     * @return number of results written
+     */
+    public int withinRadius(double latitude, double longitude, double radiusM, long excludeStationId,
+                            long[] idsOut, double[] distancesOut) {
+        double qx = longitude * metersPerDegreeLon;
+        double qy = latitude * METERS_PER_DEGREE_LAT;
+        double radiusSq = radiusM * radiusM;
+        int limit = Math.min(idsOut.length, distancesOut.length);
+        long fromX = cellCoord(qx - radiusM);
+        long toX = cellCoord(qx + radiusM);
+        long fromY = cellCoord(qy - radiusM);
+        long toY = cellCoord(qy + radiusM);
+
+        int found = 0;
+        long stamp = lock.readLock();
+        try {
+            for (long cx = fromX; cx <= toX; cx++) {
+                for (long cy = fromY; cy <= toY; cy++) {
+                    int slot = cellHeads.get(cellKey(cx, cy));
+                    while (slot != NONE && found < limit) {
+                        double dx = xs[slot] - qx;
+                        double dy = ys[slot] - qy;
+                        double distSq = dx * dx + dy * dy;
+                        if (distSq <= radiusSq && stationIds[slot] != excludeStationId) {
+                            idsOut[found] = stationIds[slot];
+                            distancesOut[found] = Math.sqrt(distSq);
+                            found++;
+                        }
+                        slot = next[slot];
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return found;
+    }
+
+    /**
+     * Finds the {@code k} stations closest to a position, nearest first.
+     *
+     * <p>Visits rings of cells around the query cell and stops as soon as no unvisited cell can hold anything
+     * closer than the current k-th candidate, or once every station has been visited. {@code idsOut} and
+     * {@code distancesOut} double as the candidate max-heap, so they must have room for {@code k} entries.
+     *
+     * @param excludeStationId station to leave out (typically our own), or {@link #NO_EXCLUSION}
+     * @return number of results written, less than {@code k} only if the grid holds fewer stations
+     */
+    public int nearest(double latitude, double longitude, int k, long excludeStationId,
+                       long[] idsOut, double[] distancesOut) {
+        if (k <= 0) {
+            return 0;
+        }
+        if (idsOut.length < k || distancesOut.length < k) {
+            throw new IllegalArgumentException("Output arrays must hold k=" + k + " results");
+        }
+        double qx = longitude * metersPerDegreeLon;
+        double qy = latitude * METERS_PER_DEGREE_LAT;
+        long centerX = cellCoord(qx);
+        long centerY = cellCoord(qy);
+
+        int count = 0;
+        long stamp = lock.readLock();
+        try {
+            int remaining = stationIndex.containsKey(excludeStationId) ? size - 1 : size;
+            if (remaining <= 0) {
+                return 0;
+            }
+            // Rings beyond this cannot intersect any occupied cell
+            long maxRing = Math.max(
+                Math.max(centerX - minCellX, maxCellX - centerX),
+                Math.max(centerY - minCellY, maxCellY - centerY));
+            for (long ring = 0; ring <= maxRing; ring++) {
+                for (long cx = centerX - ring; cx <= centerX + ring; cx++) {
+                    // Full rows at the top and bottom of the ring, only the two edge cells in between
+                    boolean edgeColumn = cx == centerX - ring || cx == centerX + ring;
+                    long step = edgeColumn || ring == 0 ? 1 : 2 * ring;
+                    for (long cy = centerY - ring; cy <= centerY + ring; cy += step) {
+                        int slot = cellHeads.get(cellKey(cx, cy));
+                        while (slot != NONE) {
+                            if (stationIds[slot] != excludeStationId) {
+                                double dx = xs[slot] - qx;
+                                double dy = ys[slot] - qy;
+                                count = offer(idsOut, distancesOut, count, k, stationIds[slot], dx * dx + dy * dy);
+                                remaining--;
+                            }
+                            slot = next[slot];
+                        }
+                    }
+                }
+                if (remaining == 0) {
+                    break;
+                }
+                // Anything in ring+1 or beyond is at least ring * cellSize away
+                double reach = ring * cellSizeM;
+                if (count == k && distancesOut[0] <= reach * reach) {
+                    break;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        sortAscending(idsOut, distancesOut, count);
+        for (int i = 0; i < count; i++) {
+            distancesOut[i] = Math.sqrt(distancesOut[i]);
+        }
+        return count;
+    }
+
+    /** Adds a candidate to the max-heap (root = farthest) of squared distances; returns the new heap size. */
+    private static int offer(long[] ids, double[] distSq, int count, int k, long id, double d) {
+        if (count < k) {
+            int i = count;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distSq[parent] >= d) {
+                    break;
+                }
+                ids[i] = ids[parent];
+                distSq[i] = distSq[parent];
+                i = parent;
+            }
+            ids[i] = id;
+            distSq[i] = d;
+            return count + 1;
+        }
+        if (d < distSq[0]) {
+            siftDown(ids, distSq, 0, count, id, d);
+        }
+        return count;
+    }
+
+    private static void siftDown(long[] ids, double[] distSq, int i, int count, long id, double d) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && distSq[child + 1] > distSq[child]) {
+                child++;
+            }
+            if (distSq[child] <= d) {
+                break;
+            }
+            ids[i] = ids[child];
+            distSq[i] = distSq[child];
+            i = child;
+        }
+        ids[i] = id;
+        distSq[i] = d;
+    }
+
+    /** In-place heapsort of the max-heap into ascending order. */
+    private static void sortAscending(long[] ids, double[] distSq, int count) {
+        for (int end = count - 1; end > 0; end--) {
+            long id = ids[end];
+            double d = distSq[end];
+            ids[end] = ids[0];
+            distSq[end] = distSq[0];
+            siftDown(ids, distSq, 0, end, id, d);
+        }
+    }
+
+    private void link(int slot, long cell) {
+        int head = cellHeads.get(cell);
+        next[slot] = head;
+        prev[slot] = NONE;
+        if (head != NONE) {
+            prev[head] = slot;
+        }
+        cellHeads.put(cell, slot);
+        cellOf[slot] = cell;
+
+        long cx = cell >> 32;
+        long cy = (int) cell;
+        increment(columnCounts, cx);
+        increment(rowCounts, cy);
+        minCellX = Math.min(minCellX, cx);
+        maxCellX = Math.max(maxCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellY = Math.max(maxCellY, cy);
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        if (before != NONE) {
+            next[before] = after;
+        } else if (after != NONE) {
+            cellHeads.put(cellOf[slot], after);
+        } else {
+            cellHeads.remove(cellOf[slot]);
+        }
+
+        long cx = cellOf[slot] >> 32;
+        long cy = (int) cellOf[slot];
+        if (decrement(columnCounts, cx)) {
+            if (columnCounts.isEmpty()) {
+                minCellX = Long.MAX_VALUE;
+                maxCellX = Long.MIN_VALUE;
+            } else if (cx == minCellX) {
+                minCellX = firstOccupied(columnCounts, cx + 1, maxCellX);
+            } else if (cx == maxCellX) {
+                maxCellX = firstOccupied(columnCounts, cx - 1, minCellX);
+            }
+        }
+        if (decrement(rowCounts, cy)) {
+            if (rowCounts.isEmpty()) {
+                minCellY = Long.MAX_VALUE;
+                maxCellY = Long.MIN_VALUE;
+            } else if (cy == minCellY) {
+                minCellY = firstOccupied(rowCounts, cy + 1, maxCellY);
+            } else if (cy == maxCellY) {
+                maxCellY = firstOccupied(rowCounts, cy - 1, minCellY);
+            }
+        }
+    }
+
+    private static void increment(LongIntHashMap counts, long key) {
+        int count = counts.get(key);
+        counts.put(key, count == LongIntHashMap.MISSING ? 1 : count + 1);
+    }
+
+    /** Returns {@code true} if the count dropped to zero, which removes the key. */
+    private static boolean decrement(LongIntHashMap counts, long key) {
+        int count = counts.get(key) - 1;
+        if (count == 0) {
+            counts.remove(key);
+            return true;
+        }
+        counts.put(key, count);
+        return false;
+    }
+
+    /**
+     * First occupied column or row from {@code from} towards {@code to}, which must be occupied. Walks at most as
+     * many steps as there are occupied columns or rows, then scans the keys of {@code counts} instead, so a lone
+     * outlier far from the rest costs no more than the map's size.
+     */
+    private static long firstOccupied(LongIntHashMap counts, long from, long to) {
+        long step = from <= to ? 1 : -1;
+        long c = from;
+        for (int budget = counts.size(); budget > 0; budget--, c += step) {
+            if (counts.containsKey(c)) {
+                return c;
+            }
+        }
+        long[] bound = {to};
+        counts.forEachKey(key -> bound[0] = step > 0 ? Math.min(bound[0], key) : Math.max(bound[0], key));
+        return bound[0];
+    }
+
+    private long cellCoord(double meters) {
+        return (long) Math.floor(meters / cellSizeM);
+    }
+
+    private static long cellKey(long cx, long cy) {
+        return (cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,122 @@
+package com.vodafone.v2x.example.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkpoint/restore of a configured application on JDKs with CRaC (Coordinated Restore at Checkpoint).
+ *
+ * <p>{@link #checkpoint} is called after the {@code V2XSDK} has been created and before any service opens a
+ * connection. It first loads every class of the training run's class list and initializes the TLS stack, so the
+ * restored process has little left to load. The JVM started with {@code -XX:CRaCCheckpointTo=<dir>} then writes
+ * its image and exits; {@code java -XX:CRaCRestoreFrom=<dir>} resumes right after the call, at Step 5. CRaC is
+ * reached through reflection because {@code jdk.crac} only exists on CRaC builds; on other JDKs the call logs why
+ * no checkpoint was taken and startup simply continues.
+ */
+public final class FastStart {
+    private static final Logger logger = LoggerFactory.getLogger(FastStart.class);
+
+    private FastStart() {
+    }
+
+    /** Whether this JVM has the CRaC API. */
+    public static boolean isCracAvailable() {
+        try {
+            Class.forName("jdk.crac.Core");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Warms up and checkpoints the process. Returns after the restore, or right away if no checkpoint could be
+     * taken.
+     *
+     * @param classList class list written by {@code -XX:DumpLoadedClassList} during the training run; skipped if
+     *                  missing
+     */
+    public static void checkpoint(Path classList) {
+        long start = System.nanoTime();
+        if (Files.isRegularFile(classList)) {
+            logger.info("  Preloaded {} classes from {}", preloadClasses(classList), classList);
+        } else {
+            logger.info("  No class list at {}; run the fast-start profile to create one", classList);
+        }
+        try {
+            warmTls();
+        } catch (GeneralSecurityException e) {
+            logger.warn("  TLS warm-up failed: {}", e.toString());
+        }
+        logger.info("  Warm-up took {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (!isCracAvailable()) {
+            logger.warn("  This JVM does not support CRaC; continuing without a checkpoint");
+            return;
+        }
+        try {
+            Class.forName("jdk.crac.Core").getMethod("checkpointRestore").invoke(null);
+            logger.info("  Restored from checkpoint");
+        } catch (InvocationTargetException e) {
+            // e.g. started without -XX:CRaCCheckpointTo, or a file or socket is still open
+            logger.warn("  Checkpoint not taken, continuing: {}", e.getCause().toString());
+        } catch (ReflectiveOperationException e) {
+            logger.warn("  CRaC API not usable, continuing: {}", e.toString());
+        }
+    }
+
+    /**
+     * Loads, without initializing, the classes listed in a {@code -XX:DumpLoadedClassList} file. Classes that are
+     * not on this class path, e.g. generated ones, are skipped. Returns the number loaded.
+     */
+    public static int preloadClasses(Path classList) {
+        ClassLoader loader = FastStart.class.getClassLoader();
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(classList)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.charAt(0) == '#' || line.charAt(0) == '@') {
+                    continue;
+                }
+                int end = line.indexOf(' ');
+                String name = (end < 0 ? line : line.substring(0, end)).replace('/', '.');
+                try {
+                    Class.forName(name, false, loader);
+                    loaded++;
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // not loadable from here
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("  Cannot read class list {}: {}", classList, e.toString());
+        }
+        return loaded;
+    }
+
+    /**
+     * Initializes the default TLS context, the trust store and a client hello, which is most of the TLS cost
+     * of the first MQTT connection.
+     */
+    public static void warmTls() throws GeneralSecurityException {
+        SSLEngine engine = SSLContext.getDefault().createSSLEngine("localhost", 8883);
+        engine.setUseClientMode(true);
+        try {
+            // Producing the ClientHello generates the key shares
+            engine.wrap(ByteBuffer.allocate(0), ByteBuffer.allocate(engine.getSession().getPacketBufferSize()));
+        } catch (SSLException e) {
+            // only the setup work matters
+        }
+        engine.closeOutbound();
+    }
+}
@@ -0,0 +1,228 @@
+package com.vodafone.v2x.example.startup;
+
+import com.vodafone.v2x.example.V2XApplication;
+import com.vodafone.v2x.example.config.AppConfig;
+import com.vodafone.v2x.example.loopback.HostRedirect;
+import com.vodafone.v2x.example.loopback.LocalMqttBroker;
+import com.vodafone.v2x.example.util.Logging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Training run and startup-time measurement for the {@code fast-start} Maven profile, both offline against a
+ * {@link LocalMqttBroker} that stands in for the STEP instance over TLS.
+ *
+ * <ul>
+ *   <li>{@code train}: runs the application once in this JVM, so a JVM started with
+ *       {@code -XX:ArchiveClassesAtExit} and {@code -XX:DumpLoadedClassList} archives everything startup, the
+ *       5 second demo and shutdown load.</li>
+ *   <li>{@code measure --jar <jar> [--archive <jsa>] [--class-list <file>] [--runs <n>] [--out <file>]}: starts
+ *       the application {@code n} times per variant and reports the wall time from launch to Step 5 and to
+ *       "Time to ready". Variants: cold start, with the AppCDS archive, and, if the JVM supports CRaC, restored
+ *       from a checkpoint taken after Step 4.</li>
+ * </ul>
+ *
+ * <p>Both take {@code --work <dir>} for the broker's key store and the checkpoint. The key store is created with
+ * {@code keytool} for the configured instance's MQTT host and used as trust store, and a {@link HostRedirect}
+ * ({@code step.mqtt.redirect} for the measured processes) points that host at the broker.
+ */
+public final class StartupTrainer {
+    private static final String PASSWORD = "changeit";
+    private static final String STEP_5 = "Step 5:";
+    private static final String READY = "Time to ready:";
+    private static final long RUN_TIMEOUT_MS = 60_000L;
+
+    /** Launch-to-line times of one variant, NaN where a run did not get there. */
+    private record Timing(String variant, double[] toStep5Ms, double[] toReadyMs) {
+    }
+
+    private StartupTrainer() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0 || !(args[0].equals("train") || args[0].equals("measure"))) {
+            System.err.println("Usage: StartupTrainer train [--work <dir>]");
+            System.err.println("       StartupTrainer measure --jar <jar> [--archive <jsa>] [--class-list <file>]"
+                + " [--runs <n>] [--out <file>] [--work <dir>]");
+            System.exit(2);
+        }
+        Path work = Path.of("target", "fast-start");
+        Path jar = null;
+        Path archive = null;
+        Path classList = null;
+        Path out = null;
+        int runs = 5;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--work" -> work = Path.of(args[++i]);
+                    case "--jar" -> jar = Path.of(args[++i]);
+                    case "--archive" -> archive = Path.of(args[++i]);
+                    case "--class-list" -> classList = Path.of(args[++i]);
+                    case "--runs" -> runs = Integer.parseInt(args[++i]);
+                    case "--out" -> out = Path.of(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            AppConfig config = new AppConfig();
+            String host = config.getStepInstance().getMqttHost();
+            Path keyStore = keyStore(work, host);
+            if (args[0].equals("train")) {
+                // Before the broker touches InetAddress, which reads the hosts file once
+                HostRedirect.install(host, "127.0.0.1");
+                System.setProperty("javax.net.ssl.trustStore", keyStore.toString());
+                System.setProperty("javax.net.ssl.trustStorePassword", PASSWORD);
+            }
+            try (LocalMqttBroker broker = new LocalMqttBroker(InetAddress.getLoopbackAddress(),
+                    config.getStepInstance().getMqttPort(),
+                    LocalMqttBroker.sslContext(keyStore, PASSWORD.toCharArray()))) {
+                if (args[0].equals("train")) {
+                    // Stops logging at its end, hence the plain print
+                    new V2XApplication().run();
+                    System.out.printf("Training run done, %d messages published through the local broker%n",
+                        broker.getPublished());
+                } else {
+                    if (jar == null) {
+                        throw new IllegalArgumentException("measure needs --jar");
+                    }
+                    List<String> report = measure(work, keyStore, jar, archive, classList, runs);
+                    report.forEach(System.out::println);
+                    if (out != null) {
+                        Files.write(out, report);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Logging.stop();
+            System.err.println("Startup " + args[0] + " failed: " + e);
+            System.exit(1);
+        }
+    }
+
+    private static Path keyStore(Path work, String host) throws IOException, InterruptedException {
+        Path store = work.resolve("broker.p12");
+        if (!Files.exists(store)) {
+            Files.createDirectories(work);
+            Process keytool = new ProcessBuilder(javaTool("keytool"), "-genkeypair", "-alias", "broker",
+                "-keyalg", "EC", "-validity", "3650", "-keystore", store.toString(), "-storepass", PASSWORD,
+                "-dname", "CN=" + host, "-ext", "SAN=dns:" + host).inheritIO().start();
+            if (keytool.waitFor() != 0) {
+                throw new IOException("keytool could not create " + store);
+            }
+        }
+        return store;
+    }
+
+    private static List<String> measure(Path work, Path keyStore, Path jar, Path archive, Path classList, int runs)
+            throws IOException, InterruptedException {
+        List<String> base = List.of(javaTool("java"), "--add-modules", "jdk.incubator.vector",
+            "-Dstep.mqtt.redirect=127.0.0.1",
+            "-Djavax.net.ssl.trustStore=" + keyStore.toAbsolutePath(),
+            "-Djavax.net.ssl.trustStorePassword=" + PASSWORD);
+        List<Timing> timings = new ArrayList<>();
+        timings.add(time("cold", concat(base, "-jar", jar.toString()), runs));
+        if (archive != null && Files.exists(archive)) {
+            timings.add(time("AppCDS", concat(base, "-XX:SharedArchiveFile=" + archive, "-jar", jar.toString()),
+                runs));
+        }
+        Path image = work.resolve("crac").toAbsolutePath();
+        if (supports("-XX:CRaCCheckpointTo=" + image)) {
+            List<String> checkpoint = new ArrayList<>(base);
+            checkpoint.add("-XX:CRaCCheckpointTo=" + image);
+            checkpoint.add("-Dstartup.checkpoint=true");
+            if (classList != null) {
+                checkpoint.add("-Dstartup.checkpoint.class.list=" + classList.toAbsolutePath());
+            }
+            checkpoint.addAll(List.of("-jar", jar.toString()));
+            Process process = new ProcessBuilder(checkpoint).inheritIO().start();
+            if (!process.waitFor(RUN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+            if (Files.isDirectory(image)) {
+                timings.add(time("CRaC restore", List.of(javaTool("java"), "-XX:CRaCRestoreFrom=" + image), runs));
+            }
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "Startup time over %d runs, ms from launch (median / min)", runs));
+        report.add(String.format(Locale.ROOT, "%-14s %17s %17s", "Variant", "to Step 5", "to ready"));
+        for (Timing timing : timings) {
+            report.add(String.format(Locale.ROOT, "%-14s %17s %17s", timing.variant(),
+                summary(timing.toStep5Ms()), summary(timing.toReadyMs())));
+        }
+        return report;
+    }
+
+    /** Runs {@code command} {@code runs} times, stopping each run once it is ready. */
+    private static Timing time(String variant, List<String> command, int runs)
+            throws IOException, InterruptedException {
+        double[] toStep5 = new double[runs];
+        double[] toReady = new double[runs];
+        Arrays.fill(toStep5, Double.NaN);
+        Arrays.fill(toReady, Double.NaN);
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            // Killing a hung run ends its output, and with it the loop below
+            CompletableFuture.runAsync(process::destroyForcibly,
+                CompletableFuture.delayedExecutor(RUN_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    double elapsedMs = (System.nanoTime() - start) / 1e6;
+                    if (line.contains(STEP_5)) {
+                        toStep5[run] = elapsedMs;
+                    } else if (line.contains(READY)) {
+                        toReady[run] = elapsedMs;
+                        break;
+                    }
+                }
+            } finally {
+                process.destroyForcibly();
+                process.waitFor();
+            }
+            System.out.printf(Locale.ROOT, "%s run %d: Step 5 after %.0f ms, ready after %.0f ms%n", variant,
+                run + 1, toStep5[run], toReady[run]);
+        }
+        return new Timing(variant, toStep5, toReady);
+    }
+
+    /** Whether {@code java <option> -version} is accepted, i.e. the JVM knows the option. */
+    private static boolean supports(String option) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(javaTool("java"), option, "-version")
+            .redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        return process.waitFor() == 0;
+    }
+
+    private static String summary(double[] values) {
+        double[] done = Arrays.stream(values).filter(v -> !Double.isNaN(v)).sorted().toArray();
+        if (done.length == 0) {
+            return "-";
+        }
+        String text = String.format(Locale.ROOT, "%.0f / %.0f", done[done.length / 2], done[0]);
+        return done.length < values.length ? text + " (" + (values.length - done.length) + " failed)" : text;
+    }
+
+    private static List<String> concat(List<String> base, String... more) {
+        List<String> command = new ArrayList<>(base);
+        command.addAll(List.of(more));
+        return command;
+    }
+
+    private static String javaTool(String name) {
+        return Path.of(System.getProperty("java.home"), "bin", name).toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.vodafone.v2x.example.station;
+
+/**
+ * Mutable, reusable copy of one {@link StationTable} entry. Callers keep one instance per reading thread and
+ * pass it to {@link StationTable#get}, so lookups do not allocate.
+ */
+public final class StationState {
+    private long stationId;
+    private double latitude;
+    private double longitude;
+    private double speedKmh;
+    private double headingDeg;
+    private long updatedAtMs;
+
+    void set(long stationId, double latitude, double longitude, double speedKmh, double headingDeg,
+             long updatedAtMs) {
+        this.stationId = stationId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.speedKmh = speedKmh;
+        this.headingDeg = headingDeg;
+        this.updatedAtMs = updatedAtMs;
+    }
+
+    public long getStationId() {
+        return stationId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getSpeedKmh() {
+        return speedKmh;
+    }
+
+    public double getHeadingDeg() {
+        return headingDeg;
+    }
+
+    /** Local wall-clock time of the last CAM received from this station. */
+    public long getUpdatedAtMs() {
+        return updatedAtMs;
+    }
+
+    @Override
+    public String toString() {
+        return "StationState{stationId=" + stationId
+            + ", position=(" + latitude + ", " + longitude + ")"
+            + ", speedKmh=" + speedKmh
+            + ", headingDeg=" + headingDeg
+            + ", updatedAtMs=" + updatedAtMs + "}";
+    }
+}
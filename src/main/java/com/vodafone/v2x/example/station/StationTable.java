@@ -0,0 +1,259 @@
+package com.vodafone.v2x.example.station;
+
+import com.vodafone.v2x.example.timer.TimerWheel;
+import com.vodafone.v2x.example.util.LongIntHashMap;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Live table of the stations heard via CAM, keyed by primitive station ID.
+ *
+ * <p>Station state lives in preallocated structure-of-arrays slots; a {@link LongIntHashMap} maps station ID to
+ * slot, freed slots are recycled, and a {@link TimerWheel} over the slot numbers evicts stations that have not
+ * been heard for {@code ttlMs}. Updating a known station only overwrites primitives.
+ *
+ * <p>Concurrency: one writer thread (the CAM pipeline consumer) calls {@link #update}, {@link #touch},
+ * {@link #remove} and {@link #expire}; any number of threads may call {@link #get} concurrently. Readers are
+ * lock-free and validate what they read against a per-slot sequence lock and an index sequence lock, retrying if
+ * the writer interfered.
+ */
+public class StationTable {
+    private final int capacity;
+    private final long ttlMs;
+    private final LongIntHashMap index;
+    private final TimerWheel expiryWheel;
+    private final IntConsumer evictor = this::evictSlot;
+
+    private final long[] stationIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] speedsKmh;
+    private final double[] headingsDeg;
+    private final long[] updatedAtMs;
+    private final AtomicLongArray slotVersions;
+    private final AtomicLong indexVersion = new AtomicLong();
+
+    private final int[] freeSlots;
+    private int freeCount;
+    private volatile int size;
+    private volatile long evictedCount;
+    private volatile long rejectedCount;
+
+    /**
+     * @param capacity maximum number of stations tracked at once
+     * @param ttlMs    time after the last CAM at which a station is evicted
+     */
+    public StationTable(int capacity, long ttlMs) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ttlMs = ttlMs;
+        this.index = new LongIntHashMap(capacity);
+        // ~100 ms resolution is plenty for a TTL measured in seconds
+        long tickMs = Math.max(1L, Math.min(100L, ttlMs / 8));
+        this.expiryWheel = new TimerWheel(capacity, tickMs, (int) Math.min(4096, ttlMs / tickMs + 1),
+            System.currentTimeMillis());
+
+        this.stationIds = new long[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.speedsKmh = new double[capacity];
+        this.headingsDeg = new double[capacity];
+        this.updatedAtMs = new long[capacity];
+        this.slotVersions = new AtomicLongArray(capacity);
+
+        this.freeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+    }
+
+    /**
+     * Inserts or refreshes a station and pushes its expiry out to {@code nowMs + ttlMs}. Writer thread only.
+     *
+     * @return {@code false} if the station is new and the table is full
+     */
+    public boolean update(long stationId, double latitude, double longitude, double speedKmh, double headingDeg,
+                          long nowMs) {
+        int slot = index.get(stationId);
+        if (slot == LongIntHashMap.MISSING) {
+            if (freeCount == 0) {
+                rejectedCount++;
+                return false;
+            }
+            slot = freeSlots[--freeCount];
+            beginWrite(slot);
+            stationIds[slot] = stationId;
+            beginIndexWrite();
+            index.put(stationId, slot);
+            endIndexWrite();
+            size++;
+        } else {
+            beginWrite(slot);
+        }
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        speedsKmh[slot] = speedKmh;
+        headingsDeg[slot] = headingDeg;
+        updatedAtMs[slot] = nowMs;
+        endWrite(slot);
+
+        expiryWheel.schedule(slot, nowMs + ttlMs);
+        return true;
+    }
+
+    /**
+     * Pushes the expiry of a known station out to {@code nowMs + ttlMs} without changing its state, for a station
+     * that is still heard but whose CAM content did not change. Writer thread only.
+     *
+     * @return {@code false} if the station is not in the table
+     */
+    public boolean touch(long stationId, long nowMs) {
+        int slot = index.get(stationId);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        expiryWheel.schedule(slot, nowMs + ttlMs);
+        return true;
+    }
+
+    /**
+     * Copies the current state of {@code stationId} into {@code into}. Safe to call from any thread.
+     *
+     * @return {@code false} if the station is not in the table
+     */
+    public boolean get(long stationId, StationState into) {
+        while (true) {
+            long indexStamp = indexVersion.getAcquire();
+            if ((indexStamp & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int slot = index.get(stationId);
+            if (slot == LongIntHashMap.MISSING) {
+                VarHandle.acquireFence();
+                if (indexVersion.get() == indexStamp) {
+                    return false;
+                }
+                continue;
+            }
+
+            long slotStamp = slotVersions.getAcquire(slot);
+            if ((slotStamp & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long id = stationIds[slot];
+            double latitude = latitudes[slot];
+            double longitude = longitudes[slot];
+            double speedKmh = speedsKmh[slot];
+            double headingDeg = headingsDeg[slot];
+            long updated = updatedAtMs[slot];
+            VarHandle.acquireFence();
+            if (slotVersions.get(slot) != slotStamp || indexVersion.get() != indexStamp || id != stationId) {
+                continue;
+            }
+            into.set(id, latitude, longitude, speedKmh, headingDeg, updated);
+            return true;
+        }
+    }
+
+    public boolean contains(long stationId) {
+        while (true) {
+            long indexStamp = indexVersion.getAcquire();
+            if ((indexStamp & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            boolean found = index.containsKey(stationId);
+            VarHandle.acquireFence();
+            if (indexVersion.get() == indexStamp) {
+                return found;
+            }
+        }
+    }
+
+    /**
+     * Removes a station immediately. Writer thread only.
+     */
+    public boolean remove(long stationId) {
+        int slot = index.get(stationId);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        expiryWheel.cancel(slot);
+        release(slot);
+        return true;
+    }
+
+    /**
+     * Evicts every station whose TTL has elapsed. Writer thread only; only the wheel buckets for the elapsed
+     * ticks are visited.
+     *
+     * @return number of stations evicted
+     */
+    public int expire(long nowMs) {
+        return expiryWheel.advance(nowMs, evictor);
+    }
+
+    private void evictSlot(int slot) {
+        release(slot);
+        evictedCount++;
+    }
+
+    private void release(int slot) {
+        beginIndexWrite();
+        index.remove(stationIds[slot]);
+        endIndexWrite();
+        // Bump the slot version so readers holding the old slot number retry
+        beginWrite(slot);
+        endWrite(slot);
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    private void beginWrite(int slot) {
+        slotVersions.setOpaque(slot, slotVersions.getPlain(slot) + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite(int slot) {
+        slotVersions.setRelease(slot, slotVersions.getPlain(slot) + 1);
+    }
+
+    private void beginIndexWrite() {
+        indexVersion.setOpaque(indexVersion.getPlain() + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    private void endIndexWrite() {
+        indexVersion.setRelease(indexVersion.getPlain() + 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long ttlMs() {
+        return ttlMs;
+    }
+
+    /** Stations removed because their TTL elapsed. */
+    public long evictedCount() {
+        return evictedCount;
+    }
+
+    /** New stations turned away because the table was full. */
+    public long rejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -0,0 +1,169 @@
+package com.vodafone.v2x.example.timer;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical (cascading) timer wheel over integer handles, for deadlines ranging from sub-second to days.
+ *
+ * <p>Level 0 has one bucket per tick; each higher level has one bucket per full revolution of the level below.
+ * A deadline is filed in the coarsest level that still resolves it and is moved down a level each time the
+ * lower wheel wraps, so every handle is touched at most once per level and {@link #advance} never revisits
+ * far-future deadlines the way a single-level wheel does. Buckets are intrusive lists threaded through
+ * {@code int[]} arrays; nothing allocates after construction. Not thread-safe.
+ *
+ * <p>Deadlines fire up to one tick late, never early.
+ */
+public final class HierarchicalTimerWheel {
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+    private static final int NONE = -1;
+
+    private final long tickMs;
+    private final int[] bucketHeads = new int[LEVELS * SLOTS];
+    private final int[] next;
+    private final int[] prev;
+    private final int[] bucketOf;
+    private final long[] dueTicks;
+    private long currentTick;
+    private int scheduled;
+
+    /**
+     * @param capacity number of handles, {@code 0..capacity-1}
+     * @param tickMs   resolution of the finest level
+     * @param startMs  current time
+     */
+    public HierarchicalTimerWheel(int capacity, long tickMs, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive: " + tickMs);
+        }
+        this.tickMs = tickMs;
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.bucketOf = new int[capacity];
+        this.dueTicks = new long[capacity];
+        Arrays.fill(bucketHeads, NONE);
+        Arrays.fill(bucketOf, NONE);
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedules {@code handle} to fire at {@code deadlineMs}, replacing any pending deadline. Deadlines in the
+     * past fire on the next tick.
+     */
+    public void schedule(int handle, long deadlineMs) {
+        if (bucketOf[handle] != NONE) {
+            unlink(handle);
+        }
+        long dueTick = Math.max(Math.ceilDiv(deadlineMs, tickMs), currentTick + 1);
+        dueTicks[handle] = dueTick;
+        place(handle, dueTick);
+        scheduled++;
+    }
+
+    public void cancel(int handle) {
+        if (bucketOf[handle] != NONE) {
+            unlink(handle);
+        }
+    }
+
+    public boolean isScheduled(int handle) {
+        return bucketOf[handle] != NONE;
+    }
+
+    /**
+     * Fires every handle due at or before {@code nowMs}. The handle is unscheduled before {@code onExpired} is
+     * called, so the callback may reschedule or cancel freely.
+     *
+     * @return number of handles fired
+     */
+    public int advance(long nowMs, IntConsumer onExpired) {
+        long nowTick = nowMs / tickMs;
+        int fired = 0;
+        while (currentTick < nowTick) {
+            if (scheduled == 0) {
+                currentTick = nowTick;
+                break;
+            }
+            currentTick++;
+            if ((currentTick & SLOT_MASK) == 0) {
+                cascade(1);
+            }
+            int bucket = (int) (currentTick & SLOT_MASK);
+            int handle = bucketHeads[bucket];
+            while (handle != NONE) {
+                int following = next[handle];
+                unlink(handle);
+                onExpired.accept(handle);
+                fired++;
+                handle = following;
+            }
+        }
+        return fired;
+    }
+
+    /** Re-files the bucket of {@code level} that the wheel has just entered into the levels below it. */
+    private void cascade(int level) {
+        int shift = SLOT_BITS * level;
+        int slot = (int) ((currentTick >>> shift) & SLOT_MASK);
+        if (slot == 0 && level + 1 < LEVELS) {
+            cascade(level + 1);
+        }
+        int bucket = level * SLOTS + slot;
+        int handle = bucketHeads[bucket];
+        bucketHeads[bucket] = NONE;
+        while (handle != NONE) {
+            int following = next[handle];
+            place(handle, dueTicks[handle]);
+            handle = following;
+        }
+    }
+
+    private void place(int handle, long dueTick) {
+        long delta = dueTick - currentTick;
+        int bucket;
+        if (delta < SLOTS) {
+            // Includes delta == 0 while cascading: the level-0 bucket for currentTick is processed right after
+            bucket = (int) (dueTick & SLOT_MASK);
+        } else {
+            int level = 1;
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            // Beyond the top level's span, park in its farthest bucket and re-file on the way down
+            long placementTick = delta < MAX_SPAN ? dueTick : currentTick + MAX_SPAN - 1;
+            bucket = level * SLOTS + (int) ((placementTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+        int head = bucketHeads[bucket];
+        next[handle] = head;
+        prev[handle] = NONE;
+        if (head != NONE) {
+            prev[head] = handle;
+        }
+        bucketHeads[bucket] = handle;
+        bucketOf[handle] = bucket;
+    }
+
+    private void unlink(int handle) {
+        int before = prev[handle];
+        int after = next[handle];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            bucketHeads[bucketOf[handle]] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        bucketOf[handle] = NONE;
+        scheduled--;
+    }
+
+    /** Number of handles with a pending deadline. */
+    public int scheduledCount() {
+        return scheduled;
+    }
+}
@@ -0,0 +1,136 @@
+package com.vodafone.v2x.example.timer;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Hashed timer wheel over integer handles (typically slot numbers of a primitive store).
+ *
+ * <p>Each handle can have at most one pending deadline. Buckets are intrusive doubly linked lists threaded
+ * through {@code int[]} arrays, so scheduling, rescheduling and cancelling are O(1) and allocation-free.
+ * {@link #advance} only visits the buckets for the ticks that elapsed, instead of scanning every handle;
+ * deadlines more than one revolution away stay in their bucket until their revolution comes round.
+ * Not thread-safe.
+ */
+public final class TimerWheel {
+    private static final int NONE = -1;
+
+    private final long tickMs;
+    private final int wheelMask;
+    private final int[] bucketHeads;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] bucketOf;
+    private final long[] deadlines;
+    private long currentTick;
+    private int scheduled;
+
+    /**
+     * @param capacity  number of handles, {@code 0..capacity-1}
+     * @param tickMs    wheel resolution; deadlines fire up to one tick late
+     * @param wheelSize number of buckets, rounded up to a power of two
+     * @param startMs   current time
+     */
+    public TimerWheel(int capacity, long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive: " + tickMs);
+        }
+        int buckets = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.tickMs = tickMs;
+        this.wheelMask = buckets - 1;
+        this.bucketHeads = new int[buckets];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.bucketOf = new int[capacity];
+        this.deadlines = new long[capacity];
+        Arrays.fill(bucketHeads, NONE);
+        Arrays.fill(bucketOf, NONE);
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedules {@code handle} to expire at {@code deadlineMs}, replacing any pending deadline.
+     */
+    public void schedule(int handle, long deadlineMs) {
+        if (bucketOf[handle] != NONE) {
+            unlink(handle);
+        }
+        // Deadlines already due go into the current bucket and fire on the next advance
+        long tick = Math.max(deadlineMs / tickMs, currentTick);
+        int bucket = (int) tick & wheelMask;
+        int head = bucketHeads[bucket];
+        next[handle] = head;
+        prev[handle] = NONE;
+        if (head != NONE) {
+            prev[head] = handle;
+        }
+        bucketHeads[bucket] = handle;
+        bucketOf[handle] = bucket;
+        deadlines[handle] = deadlineMs;
+        scheduled++;
+    }
+
+    /**
+     * Cancels the pending deadline of {@code handle}, if any.
+     */
+    public void cancel(int handle) {
+        if (bucketOf[handle] != NONE) {
+            unlink(handle);
+        }
+    }
+
+    public boolean isScheduled(int handle) {
+        return bucketOf[handle] != NONE;
+    }
+
+    /**
+     * Fires every handle whose deadline is at or before {@code nowMs}. The handle is unscheduled before
+     * {@code onExpired} is called, so the callback may reschedule or cancel freely.
+     *
+     * @return number of handles fired
+     */
+    public int advance(long nowMs, IntConsumer onExpired) {
+        long nowTick = nowMs / tickMs;
+        if (nowTick < currentTick || scheduled == 0) {
+            currentTick = Math.max(currentTick, nowTick);
+            return 0;
+        }
+        // A jump of a full revolution or more visits each bucket exactly once
+        long ticks = Math.min(nowTick - currentTick, wheelMask);
+        int fired = 0;
+        for (long tick = nowTick - ticks; tick <= nowTick; tick++) {
+            int handle = bucketHeads[(int) tick & wheelMask];
+            while (handle != NONE) {
+                int following = next[handle];
+                if (deadlines[handle] <= nowMs) {
+                    unlink(handle);
+                    onExpired.accept(handle);
+                    fired++;
+                }
+                handle = following;
+            }
+        }
+        currentTick = nowTick;
+        return fired;
+    }
+
+    private void unlink(int handle) {
+        int before = prev[handle];
+        int after = next[handle];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            bucketHeads[bucketOf[handle]] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        bucketOf[handle] = NONE;
+        scheduled--;
+    }
+
+    /** Number of handles with a pending deadline. */
+    public int scheduledCount() {
+        return scheduled;
+    }
+}
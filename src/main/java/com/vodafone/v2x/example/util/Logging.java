@@ -0,0 +1,23 @@
+package com.vodafone.v2x.example.util;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logging lifecycle helpers.
+ */
+public final class Logging {
+
+    private Logging() {
+    }
+
+    /**
+     * Stops logback, which drains the asynchronous appender's queue into the console. Call last before the JVM
+     * exits; the appender's worker is a daemon thread and queued lines would otherwise be lost.
+     */
+    public static void stop() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.stop();
+        }
+    }
+}
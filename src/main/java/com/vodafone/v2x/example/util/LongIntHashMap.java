@@ -0,0 +1,189 @@
+package com.vodafone.v2x.example.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to non-negative {@code int} values.
+ *
+ * <p>Linear probing with backward-shift deletion, so there are no tombstones and lookups never degrade after
+ * churn. Used as the key index in front of slot-based primitive stores, where the value is a slot number; no
+ * key or value is ever boxed. Not thread-safe.
+ */
+public final class LongIntHashMap {
+    /** Returned by lookups for absent keys. */
+    public static final int MISSING = -1;
+
+    private static final int FREE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * @param expectedSize number of entries the map should hold without resizing
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        // Load factor 0.5 keeps linear-probe chains short
+        long wanted = Math.max(4L, (long) expectedSize * 2);
+        if (wanted > (1 << 30)) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        Arrays.fill(values, FREE);
+        mask = tableSize - 1;
+        resizeThreshold = tableSize >>> 1;
+    }
+
+    static int hash(long key) {
+        // MurmurHash3 fmix64: station IDs and packed keys are far from uniformly distributed
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * Returns the value for {@code key}, or {@link #MISSING}.
+     *
+     * <p>The probe is bounded by the table size, so a reader racing a single writer (as in
+     * {@code StationTable}) can get a wrong answer, which the caller validates, but never loops forever.
+     */
+    public int get(long key) {
+        long[] k = keys;
+        int[] v = values;
+        int m = mask;
+        int index = hash(key) & m;
+        for (int probes = 0; probes <= m; probes++) {
+            int value = v[index];
+            if (value == FREE) {
+                return MISSING;
+            }
+            if (k[index] == key) {
+                return value;
+            }
+            index = (index + 1) & m;
+        }
+        return MISSING;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}.
+     *
+     * @return the previous value, or {@link #MISSING}
+     */
+    public int put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must be non-negative: " + value);
+        }
+        int index = hash(key) & mask;
+        while (values[index] != FREE) {
+            if (keys[index] == key) {
+                int previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return MISSING;
+    }
+
+    /**
+     * Removes {@code key}.
+     *
+     * @return the removed value, or {@link #MISSING}
+     */
+    public int remove(long key) {
+        int index = hash(key) & mask;
+        while (values[index] != FREE) {
+            if (keys[index] == key) {
+                int previous = values[index];
+                shiftBack(index);
+                size--;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    private void shiftBack(int hole) {
+        // Move later members of the probe chain into the hole so lookups never hit a false "free" slot
+        int index = (hole + 1) & mask;
+        while (values[index] != FREE) {
+            int home = hash(keys[index]) & mask;
+            boolean movable = hole <= index
+                ? (home <= hole || home > index)
+                : (home <= hole && home > index);
+            if (movable) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        values[hole] = FREE;
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(tableSize);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != FREE) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Passes every key to {@code action}, in table order. */
+    public void forEachKey(LongConsumer action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != FREE) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, FREE);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.vodafone.v2x.example.util;
+
+/**
+ * Token bucket rate limiter: holds up to {@code burst} tokens and refills at {@code ratePerSecond}, so callers get
+ * short bursts while the long-run rate stays capped. Refilled lazily from {@link System#nanoTime()} on each
+ * acquire; there is no timer. Not thread-safe.
+ */
+public final class TokenBucket {
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param ratePerSecond sustained rate
+     * @param burst         bucket size; the bucket starts full
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (!(ratePerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Invalid token bucket: rate " + ratePerSecond + "/s, burst " + burst);
+        }
+        this.tokensPerNano = ratePerSecond / 1e9;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /** Takes a token if one is available. */
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /** Tokens currently available, rounded down. */
+    public int available() {
+        refill(System.nanoTime());
+        return (int) tokens;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}